@@ -41,7 +41,7 @@ public class Main {
         System.out.println(Arrays.toString(Fourier.discreteFourierTransform(new double[]{1,2,3,4,5})));
         System.out.println(Arrays.toString(Fourier.discreteFourierTransform(new double[]{1,2,3,4,5,0,0,0})));
 
-        System.out.println(Arrays.toString(Fourier.cooleyFastFourierTransform(new double[]{1,2,3,4,5})));
+        System.out.println(Arrays.toString(Fourier.fastFourierTransform(new double[]{1,2,3,4,5})));
     }
 
 /*    public static void timeIt(Function<Complex[], Complex[]> func, Complex[] args) {
@@ -4,9 +4,11 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.core.util.StatusPrinter;
 import org.jiang.math.complex.Complex;
 import org.jiang.math.fourier.Fourier;
+import org.jiang.math.fourier.FourierService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -14,6 +16,8 @@ public class Test {
 
     private static final Logger logger = LoggerFactory.getLogger(Test.class);
 
+    private static final FourierService service = new FourierService();
+
     public static final String RANGE = " range";
     public static final String RANDOM = " random";
     public static final String DOUBLE = " double";
@@ -21,7 +25,7 @@ public class Test {
     public static final String DISCRETE_COSINE_TRANSFORM = "discreteCosineTransform";
     public static final String DISCRETE_SINE_TRANSFORM = "discreteSineTransform";
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
 
         // timeDoubleFunction(DISCRETE_COSINE_TRANSFORM + RANGE, Fourier::discreteCosineTransform, generateDoubleArray(10000));
         // timeDoubleFunction(DISCRETE_COSINE_TRANSFORM + RANDOM, Fourier::discreteCosineTransform, generateRandomArray(10000, -10000, 10000));
@@ -37,24 +41,29 @@ public class Test {
 
         // timeItThread(Fourier::discreteFourierTransform, generateComplexArray(2<<14), DISCRETE_SINE_TRANSFORM + COMPLEX + RANGE);
         timeItThread(Fourier::discreteFourierTransform, generateComplexArray(10000), DISCRETE_SINE_TRANSFORM + COMPLEX + RANGE);
+
+        service.close();
+        service.awaitTermination(1, TimeUnit.MINUTES);
     }
 
-    private static <T> void timeItThread(Consumer<T[]> func, final T[] args, String message) {
-        new Thread(() -> {
+    private static <T> void timeItThread(Consumer<T[]> func, final T[] args, String message) throws InterruptedException {
+        service.submit(() -> {
             long start = System.currentTimeMillis();
             func.accept(args);
             long end = System.currentTimeMillis();
             logger.info("[{}] Executing on a {} sized array took {} milliseconds.", message, args.length, end-start);
-        }).start();
+            return null;
+        });
     }
 
-    private static void timeItThread(Consumer<double[]> func, final double[] args, String message) {
-        new Thread(() -> {
+    private static void timeItThread(Consumer<double[]> func, final double[] args, String message) throws InterruptedException {
+        service.submit(() -> {
             long start = System.currentTimeMillis();
             func.accept(args);
             long end = System.currentTimeMillis();
             logger.info("[{}] Executing on a {} sized array took {} milliseconds.", message, args.length, end-start);
-        }).start();
+            return null;
+        });
     }
 
 
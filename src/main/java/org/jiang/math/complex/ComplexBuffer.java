@@ -0,0 +1,141 @@
+package org.jiang.math.complex;
+
+/**
+ * A class representing a fixed length sequence of complex numbers. The real and imaginary coefficients are stored in
+ * two separate primitive arrays so large sequences need neither one object per value nor pointer chasing.
+ */
+public class ComplexBuffer {
+
+    private final double[] real;
+    private final double[] imag;
+
+    /**
+     * Constructs a buffer of the given length containing only zeros.
+     *
+     * @param length The number of complex values in the buffer
+     */
+    public ComplexBuffer(int length) {
+        this(new double[length], new double[length]);
+    }
+
+    /**
+     * Constructs a buffer backed by the given arrays. The arrays are not copied.
+     *
+     * @param real The real coefficients of the values
+     * @param imag The imaginary coefficients of the values
+     * @throws IllegalArgumentException Thrown if the arrays are not the same length
+     */
+    public ComplexBuffer(double[] real, double[] imag) throws IllegalArgumentException {
+        if (real.length != imag.length)
+            throw new IllegalArgumentException("The real and imaginary arrays have to be the same length!");
+        this.real = real;
+        this.imag = imag;
+    }
+
+    /**
+     * Constructs a buffer containing a copy of the given complex numbers.
+     *
+     * @param data The complex numbers to copy
+     */
+    public ComplexBuffer(Complex[] data) {
+        this(data.length);
+        for (int i = 0; i < data.length; i++) {
+            set(i, data[i]);
+        }
+    }
+
+    /**
+     * A method returning the number of complex values in the buffer.
+     *
+     * @return The length of the buffer
+     */
+    public int getLength() {
+        return real.length;
+    }
+
+    /**
+     * A method returning the array backing the real coefficients. Changes to the array are reflected in the buffer.
+     *
+     * @return The real coefficients of the buffer
+     */
+    public double[] getRealCoefficients() {
+        return real;
+    }
+
+    /**
+     * A method returning the array backing the imaginary coefficients. Changes to the array are reflected in the buffer.
+     *
+     * @return The imaginary coefficients of the buffer
+     */
+    public double[] getImagCoefficients() {
+        return imag;
+    }
+
+    /**
+     * A method returning the value at an index of the buffer as a new Complex object.
+     *
+     * @param index index of the buffer
+     * @return The complex value at the index
+     */
+    public Complex get(int index) {
+        return new Complex(real[index], imag[index], Complex.Mode.RECTANGULAR);
+    }
+
+    /**
+     * Sets the value at an index of the buffer.
+     *
+     * @param index index of the buffer
+     * @param re    The real coefficient of the value
+     * @param im    The imaginary coefficient of the value
+     */
+    public void set(int index, double re, double im) {
+        real[index] = re;
+        imag[index] = im;
+    }
+
+    /**
+     * Sets the value at an index of the buffer.
+     *
+     * @param index index of the buffer
+     * @param c     The complex value to copy into the buffer
+     */
+    public void set(int index, Complex c) {
+        set(index, c.getRealCoefficient(), c.getImagCoefficient());
+    }
+
+    /**
+     * Copies the values of another buffer of the same length into this buffer.
+     *
+     * @param other The buffer to copy
+     * @throws IllegalArgumentException Thrown if the buffers are not the same length
+     */
+    public void copyFrom(ComplexBuffer other) throws IllegalArgumentException {
+        if (other.getLength() != getLength())
+            throw new IllegalArgumentException("The buffers have to be the same length!");
+        System.arraycopy(other.real, 0, real, 0, real.length);
+        System.arraycopy(other.imag, 0, imag, 0, imag.length);
+    }
+
+    /**
+     * Converts the buffer into an array of new Complex objects.
+     *
+     * @return An array containing the values of the buffer
+     */
+    public Complex[] toComplexArray() {
+        Complex[] arr = new Complex[getLength()];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = get(i);
+        }
+        return arr;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("[");
+        for (int i = 0; i < getLength(); i++) {
+            if (i > 0) str.append(", ");
+            str.append(String.format("%f + %fi", real[i], imag[i]));
+        }
+        return str.append("]").toString();
+    }
+}
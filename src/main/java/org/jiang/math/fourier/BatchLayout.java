@@ -0,0 +1,110 @@
+package org.jiang.math.fourier;
+
+/**
+ * A class describing where the signals of a batch of same-length transforms are stored in one buffer. Value j of
+ * signal s is stored at index offset + s * distance + j * stride. Signals stored one after the other use a stride of
+ * 1 and a distance of n, while channels interleaved sample by sample use a stride of the number of channels and a
+ * distance of 1.
+ */
+public class BatchLayout {
+
+    private final int count;
+    private final int offset;
+    private final int stride;
+    private final int distance;
+
+    /**
+     * Constructs a layout of the given number of signals.
+     *
+     * @param count    The number of signals in the batch
+     * @param offset   The index of the first value of the first signal
+     * @param stride   The distance between two consecutive values of one signal
+     * @param distance The distance between the first values of two consecutive signals
+     * @throws IllegalArgumentException Thrown if the count or stride is not positive, or the offset or distance is
+     *                                  negative.
+     */
+    public BatchLayout(int count, int offset, int stride, int distance) throws IllegalArgumentException {
+        if (count <= 0)
+            throw new IllegalArgumentException("The number of signals has to be positive.");
+        if (stride <= 0)
+            throw new IllegalArgumentException("The stride has to be positive.");
+        if (offset < 0 || distance < 0)
+            throw new IllegalArgumentException("The offset and distance cannot be negative.");
+        this.count = count;
+        this.offset = offset;
+        this.stride = stride;
+        this.distance = distance;
+    }
+
+    /**
+     * A method returning the layout of signals of the given length stored one after the other.
+     *
+     * @param count  The number of signals in the batch
+     * @param length The length of every signal
+     * @return The layout with a stride of 1 and a distance of the length
+     */
+    public static BatchLayout contiguous(int count, int length) {
+        return new BatchLayout(count, 0, 1, length);
+    }
+
+    /**
+     * A method returning the layout of channels interleaved sample by sample.
+     *
+     * @param count The number of channels in the batch
+     * @return The layout with a stride of the count and a distance of 1
+     */
+    public static BatchLayout interleaved(int count) {
+        return new BatchLayout(count, 0, count, 1);
+    }
+
+    /**
+     * A method returning the number of signals in the batch.
+     *
+     * @return The number of signals
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * A method returning the index of the first value of the first signal.
+     *
+     * @return The offset of the batch
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * A method returning the distance between two consecutive values of one signal.
+     *
+     * @return The stride of the signals
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * A method returning the distance between the first values of two consecutive signals.
+     *
+     * @return The distance between the signals
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * Computes the number of values a buffer needs to hold the batch of signals of the given length.
+     *
+     * @param length The length of every signal
+     * @return One past the largest index of the batch
+     */
+    public long getExtent(int length) {
+        return offset + (long) (count - 1) * distance + (long) (length - 1) * stride + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchLayout[count=" + count + ", offset=" + offset + ", stride=" + stride + ", distance=" + distance + "]";
+    }
+}
@@ -0,0 +1,108 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+/**
+ * Bluestein's chirp-z algorithm. Using nk = (n<sup>2</sup> + k<sup>2</sup> - (k-n)<sup>2</sup>) / 2 the DFT of any
+ * length is rewritten as a convolution with a chirp, which is computed with power of two transforms of at least
+ * twice the length.
+ */
+class Bluestein {
+
+    private final int length;
+
+    /**
+     * The power of two plan used for the convolution
+     */
+    private final FftPlan plan;
+
+    /**
+     * cos(&pi;n<sup>2</sup>/N) and sin(&pi;n<sup>2</sup>/N) of the chirp
+     */
+    private final double[] chirpCos;
+    private final double[] chirpSin;
+
+    /**
+     * The transformed chirp convolution kernel
+     */
+    private final double[] kernelRe;
+    private final double[] kernelIm;
+
+    private final ThreadLocal<ComplexBuffer> scratch;
+
+    Bluestein(int length) {
+        this.length = length;
+        int size = Integer.highestOneBit(2 * length - 1);
+        if (size < 2 * length - 1) size <<= 1;
+        plan = new FftPlan(size);
+
+        chirpCos = new double[length];
+        chirpSin = new double[length];
+        for (int n = 0; n < length; n++) {
+            // n^2 is reduced modulo 2N first, so large indices keep full precision
+            double theta = Math.PI * ((long) n * n % (2L * length)) / length;
+            chirpCos[n] = Math.cos(theta);
+            chirpSin[n] = Math.sin(theta);
+        }
+
+        kernelRe = new double[size];
+        kernelIm = new double[size];
+        for (int n = 0; n < length; n++) {
+            kernelRe[n] = chirpCos[n];
+            kernelIm[n] = chirpSin[n];
+            if (n > 0) {
+                kernelRe[size - n] = kernelRe[n];
+                kernelIm[size - n] = kernelIm[n];
+            }
+        }
+        plan.transform(kernelRe, kernelIm);
+
+        scratch = ThreadLocal.withInitial(() -> new ComplexBuffer(plan.getLength()));
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of the algorithm, including its power of two plan.
+     */
+    long getMemory() {
+        return 16L * length + 16L * kernelRe.length + plan.getMemory();
+    }
+
+    /**
+     * Transforms the data in place. The inverse is computed as conj(DFT(conj(x))) / N, with both conjugations and the
+     * division folded into the chirp multiplications.
+     */
+    void transform(double[] re, double[] im, int offset, boolean inverse, Parallelism parallelism) {
+        ComplexBuffer work = scratch.get();
+        double[] wr = work.getRealCoefficients();
+        double[] wi = work.getImagCoefficients();
+        double sign = inverse ? -1 : 1;
+        double scale = inverse ? 1.0 / length : 1;
+
+        for (int n = 0; n < length; n++) {
+            double xr = re[offset + n];
+            double xi = sign * im[offset + n];
+            wr[n] = xr * chirpCos[n] + xi * chirpSin[n];
+            wi[n] = xi * chirpCos[n] - xr * chirpSin[n];
+        }
+        for (int n = length; n < wr.length; n++) {
+            wr[n] = 0;
+            wi[n] = 0;
+        }
+
+        plan.transform(wr, wi, false, parallelism);
+        for (int n = 0; n < wr.length; n++) {
+            double pr = wr[n] * kernelRe[n] - wi[n] * kernelIm[n];
+            double pi = wr[n] * kernelIm[n] + wi[n] * kernelRe[n];
+            wr[n] = pr;
+            wi[n] = pi;
+        }
+        plan.transform(wr, wi, true, parallelism);
+
+        for (int k = 0; k < length; k++) {
+            double yr = wr[k] * scale;
+            double yi = wi[k] * scale;
+            re[offset + k] = yr * chirpCos[k] + yi * chirpSin[k];
+            im[offset + k] = sign * (yi * chirpCos[k] - yr * chirpSin[k]);
+        }
+    }
+}
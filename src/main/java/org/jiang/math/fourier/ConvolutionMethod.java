@@ -0,0 +1,71 @@
+package org.jiang.math.fourier;
+
+/**
+ * An enum representing the algorithms a linear convolution or correlation of a signal of length n with a kernel of
+ * length m can be computed with
+ */
+public enum ConvolutionMethod {
+    /**
+     * Chooses the method with the lowest estimated cost for the lengths of the signal and kernel
+     */
+    AUTO,
+    /**
+     * Sums the products of the definition directly in O(nm), which is the fastest method for short kernels
+     */
+    DIRECT,
+    /**
+     * Multiplies the spectra of the signal and kernel, both padded to the full length n+m-1, in O((n+m) log(n+m))
+     */
+    FFT,
+    /**
+     * Splits the signal into blocks, convolves every block with the cached spectrum of the kernel and adds the
+     * overlapping tails of consecutive blocks, in O(n log m)
+     */
+    OVERLAP_ADD,
+    /**
+     * Transforms overlapping segments of the signal with the cached spectrum of the kernel and keeps only the part of
+     * every circular convolution which is not wrapped around, in O(n log m). This is the method of {@link FirFilter}.
+     */
+    OVERLAP_SAVE;
+
+    /**
+     * The estimated cost of one butterfly relative to one multiply-add of the direct convolution
+     */
+    private static final double FFT_COST = 3;
+
+    /**
+     * Chooses the cheapest method for a signal and kernel of the given lengths by estimating the number of operations.
+     *
+     * @param signalLength The length of the signal
+     * @param kernelLength The length of the kernel
+     * @return {@link #DIRECT}, {@link #FFT} or {@link #OVERLAP_SAVE}
+     */
+    static ConvolutionMethod choose(int signalLength, int kernelLength) {
+        int shorter = Math.min(signalLength, kernelLength);
+        int longer = Math.max(signalLength, kernelLength);
+        double direct = (double) shorter * longer;
+
+        // two real forward transforms and one inverse, each about half a complex transform
+        int full = realLength(signalLength + kernelLength - 1);
+        double fft = 1.5 * transformCost(full);
+
+        int segment = FirFilter.segmentLength(shorter);
+        int block = segment - shorter + 1;
+        double overlap = Math.ceil((double) (longer + shorter - 1) / block) * transformCost(segment)
+                + 0.5 * transformCost(segment);
+
+        if (direct <= fft && direct <= overlap) return DIRECT;
+        return fft <= overlap ? FFT : OVERLAP_SAVE;
+    }
+
+    /**
+     * The smallest even fast length of at least the minimum, which is the length real transforms are padded to
+     */
+    static int realLength(int minimum) {
+        return 2 * FftPlan.nextFastLength((minimum + 1) / 2);
+    }
+
+    private static double transformCost(int length) {
+        return FFT_COST * length * Math.log(length) / Math.log(2);
+    }
+}
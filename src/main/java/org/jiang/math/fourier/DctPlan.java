@@ -0,0 +1,145 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+/**
+ * A reusable plan for the fast discrete cosine transform (DCT-II), its inverse (DCT-III) and the related discrete sine
+ * transform (DST-II) and its inverse (DST-III) of one fixed length. The input is reordered into its even samples
+ * followed by its reversed odd samples, so the DCT-II is the real part of the real fourier transform of the reordered
+ * input rotated by precomputed quarter-sample twiddles (Makhoul's algorithm). The DST-II is the reversed DCT-II of the
+ * input with every odd sample negated. Every transform is O(n log n). A plan is immutable and can be shared between
+ * threads.
+ */
+public class DctPlan {
+
+    private final int length;
+
+    private final RealFftPlan plan;
+
+    /**
+     * cos(&pi;k/2n) and sin(&pi;k/2n) for k in [0, n)
+     */
+    private final double[] cos;
+    private final double[] sin;
+
+    private final ThreadLocal<Workspace> scratch;
+
+    /**
+     * Constructs a plan for cosine and sine transforms of the given length.
+     *
+     * @param length The length of the transforms performed with this plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public DctPlan(int length) throws IllegalArgumentException {
+        this(length, FftPlanCache.getDefault());
+    }
+
+    /**
+     * Constructs a plan for cosine and sine transforms of the given length, taking its real plan from the given cache.
+     *
+     * @param length The length of the transforms performed with this plan
+     * @param cache  The cache the real plan is taken from
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    DctPlan(int length, FftPlanCache cache) throws IllegalArgumentException {
+        if (length <= 0)
+            throw new IllegalArgumentException("The length of the plan has to be positive.");
+        this.length = length;
+        plan = cache.getRealFftPlan(length);
+        cos = new double[length];
+        sin = new double[length];
+        for (int k = 0; k < length; k++) {
+            cos[k] = Math.cos(Math.PI * k / (2 * length));
+            sin[k] = Math.sin(Math.PI * k / (2 * length));
+        }
+        scratch = ThreadLocal.withInitial(() -> new Workspace(length, plan.getSpectrumLength()));
+    }
+
+    /**
+     * A method returning the length of the transforms performed with this plan.
+     *
+     * @return The length of the plan
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of this plan, without the scratch buffers kept per thread and without
+     * the real plan, which is counted by the cache it was taken from.
+     *
+     * @return The approximate memory of the plan
+     */
+    long getMemory() {
+        return 16L * length;
+    }
+
+    /**
+     * Computes the DCT-II of the input, or the DST-II if sine is set. The input and output may be the same array.
+     */
+    void forward(double[] in, double[] out, Normalization normalization, boolean sine) {
+        Workspace work = scratch.get();
+        double[] v = work.signal;
+        for (int n = 0; 2 * n < length; n++) {
+            v[n] = in[2 * n];
+        }
+        for (int n = 0; 2 * n + 1 < length; n++) {
+            v[length - 1 - n] = sine ? -in[2 * n + 1] : in[2 * n + 1];
+        }
+
+        plan.forward(v, work.spectrum);
+        double[] re = work.spectrum.getRealCoefficients();
+        double[] im = work.spectrum.getImagCoefficients();
+
+        double first = normalization == Normalization.ORTHONORMAL ? Math.sqrt(1.0 / length) : 1;
+        double rest = normalization == Normalization.ORTHONORMAL ? Math.sqrt(2.0 / length) : 1;
+        for (int k = 0; k < length; k++) {
+            // bins above n/2 are the conjugates of the bins below it
+            double value = 2 * k <= length
+                    ? cos[k] * re[k] + sin[k] * im[k]
+                    : cos[k] * re[length - k] - sin[k] * im[length - k];
+            value *= k == 0 ? first : rest;
+            out[sine ? length - 1 - k : k] = value;
+        }
+    }
+
+    /**
+     * Computes the inverse of {@link #forward(double[], double[], Normalization, boolean)}, which is a scaled DCT-III
+     * or DST-III. The input and output may be the same array.
+     */
+    void inverse(double[] in, double[] out, Normalization normalization, boolean sine) {
+        Workspace work = scratch.get();
+        double[] re = work.spectrum.getRealCoefficients();
+        double[] im = work.spectrum.getImagCoefficients();
+
+        double first = normalization == Normalization.ORTHONORMAL ? Math.sqrt(length) : 1;
+        double rest = normalization == Normalization.ORTHONORMAL ? Math.sqrt(length / 2.0) : 1;
+        for (int k = 0; 2 * k <= length; k++) {
+            // V[k] = e^(i pi k / 2n) (X[k] - i X[n-k]) with X[n] = 0
+            double x = (sine ? in[length - 1 - k] : in[k]) * (k == 0 ? first : rest);
+            double y = k == 0 ? 0 : (sine ? in[k - 1] : in[length - k]) * rest;
+            re[k] = cos[k] * x + sin[k] * y;
+            im[k] = sin[k] * x - cos[k] * y;
+        }
+
+        double[] v = work.signal;
+        plan.inverse(work.spectrum, v);
+        for (int n = 0; 2 * n < length; n++) {
+            out[2 * n] = v[n];
+        }
+        for (int n = 0; 2 * n + 1 < length; n++) {
+            out[2 * n + 1] = sine ? -v[length - 1 - n] : v[length - 1 - n];
+        }
+    }
+
+    private static class Workspace {
+
+        private final double[] signal;
+        private final ComplexBuffer spectrum;
+
+        private Workspace(int length, int spectrumLength) {
+            signal = new double[length];
+            spectrum = new ComplexBuffer(spectrumLength);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.jiang.math.fourier;
+
+/**
+ * An enum representing the trend removed from every segment of a signal before it is windowed and transformed, so that
+ * an offset or a slow drift does not leak into the low frequency bins of a spectral estimate.
+ */
+public enum Detrend {
+    /**
+     * Leaves the segment unchanged
+     */
+    NONE {
+        @Override
+        void remove(double[] segment) {
+        }
+    },
+    /**
+     * Subtracts the mean of the segment
+     */
+    CONSTANT {
+        @Override
+        void remove(double[] segment) {
+            double sum = 0;
+            for (double value : segment) {
+                sum += value;
+            }
+            double mean = sum / segment.length;
+            for (int j = 0; j < segment.length; j++) {
+                segment[j] -= mean;
+            }
+        }
+    },
+    /**
+     * Subtracts the least squares line through the segment
+     */
+    LINEAR {
+        @Override
+        void remove(double[] segment) {
+            int n = segment.length;
+            double center = (n - 1) / 2.0;
+            double sum = 0;
+            double moment = 0;
+            for (int j = 0; j < n; j++) {
+                sum += segment[j];
+                moment += (j - center) * segment[j];
+            }
+            double mean = sum / n;
+            // the sum of (j - center)^2 over the segment is n(n^2 - 1) / 12
+            double spread = n * ((double) n * n - 1) / 12;
+            double slope = spread == 0 ? 0 : moment / spread;
+            for (int j = 0; j < n; j++) {
+                segment[j] -= mean + slope * (j - center);
+            }
+        }
+    };
+
+    /**
+     * Removes the trend from the segment in place.
+     */
+    abstract void remove(double[] segment);
+}
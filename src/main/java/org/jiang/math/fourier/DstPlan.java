@@ -0,0 +1,97 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+/**
+ * A reusable plan for the fast discrete sine transform of type I (DST-I) of one fixed length. The input is extended
+ * to an odd sequence of length 2(n+1), whose real fourier transform is purely imaginary and contains the DST-I. The
+ * DST-I is its own inverse up to a factor of 2/(n+1). A plan is immutable and can be shared between threads.
+ */
+public class DstPlan {
+
+    private final int length;
+
+    /**
+     * The real plan of length 2(n+1) for the odd extension
+     */
+    private final RealFftPlan plan;
+
+    private final ThreadLocal<Workspace> scratch;
+
+    /**
+     * Constructs a plan for DST-I transforms of the given length.
+     *
+     * @param length The length of the transforms performed with this plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public DstPlan(int length) throws IllegalArgumentException {
+        this(length, FftPlanCache.getDefault());
+    }
+
+    /**
+     * Constructs a plan for DST-I transforms of the given length, taking its real plan from the given cache.
+     *
+     * @param length The length of the transforms performed with this plan
+     * @param cache  The cache the real plan is taken from
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    DstPlan(int length, FftPlanCache cache) throws IllegalArgumentException {
+        if (length <= 0)
+            throw new IllegalArgumentException("The length of the plan has to be positive.");
+        this.length = length;
+        plan = cache.getRealFftPlan(2 * (length + 1));
+        scratch = ThreadLocal.withInitial(() -> new Workspace(plan.getLength(), plan.getSpectrumLength()));
+    }
+
+    /**
+     * A method returning the length of the transforms performed with this plan.
+     *
+     * @return The length of the plan
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of this plan, without the scratch buffers kept per thread. The plan
+     * has no tables of its own, its real plan is counted by the cache it was taken from.
+     *
+     * @return The approximate memory of the plan
+     */
+    long getMemory() {
+        return 0;
+    }
+
+    /**
+     * Computes the DST-I of the input scaled by the given factor. The input and output may be the same array.
+     */
+    void transform(double[] in, double[] out, double scale) {
+        Workspace work = scratch.get();
+        double[] y = work.signal;
+        int size = y.length;
+        y[0] = 0;
+        y[length + 1] = 0;
+        for (int n = 0; n < length; n++) {
+            y[n + 1] = in[n];
+            y[size - 1 - n] = -in[n];
+        }
+
+        plan.forward(y, work.spectrum);
+        // Y[k+1] = -2i X[k]
+        double[] im = work.spectrum.getImagCoefficients();
+        for (int k = 0; k < length; k++) {
+            out[k] = -im[k + 1] / 2 * scale;
+        }
+    }
+
+    private static class Workspace {
+
+        private final double[] signal;
+        private final ComplexBuffer spectrum;
+
+        private Workspace(int length, int spectrumLength) {
+            signal = new double[length];
+            spectrum = new ComplexBuffer(spectrumLength);
+        }
+    }
+}
@@ -0,0 +1,786 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+/**
+ * A reusable plan for the fast fourier transform of one fixed length. The plan precomputes everything that only
+ * depends on the length once, so repeated transforms of the same size never recompute any trigonometry.
+ * <ul>
+ *     <li>Powers of two use radix-4 Cooley-Tukey butterflies, each fusing two radix-2 passes, after a bit-reversal
+ *     permutation.</li>
+ *     <li>Lengths that only contain the prime factors 2, 3 and 5 use mixed radix 2/3/4/5 Cooley-Tukey butterflies
+ *     after a digit-reversal permutation.</li>
+ *     <li>Every other length uses Bluestein's chirp-z algorithm on top of a power of two plan.</li>
+ * </ul>
+ * Every length is therefore transformed in O(n log n). Forward and inverse transforms share the same tables; the inverse
+ * conjugates the twiddles and folds the division by n into its last pass. A plan is immutable and can be shared
+ * between threads.
+ */
+public class FftPlan {
+
+    private static final double SIN_PI_3 = Math.sin(Math.PI / 3);
+    private static final double COS_2PI_5 = Math.cos(2 * Math.PI / 5);
+    private static final double COS_4PI_5 = Math.cos(4 * Math.PI / 5);
+    private static final double SIN_2PI_5 = Math.sin(2 * Math.PI / 5);
+    private static final double SIN_4PI_5 = Math.sin(4 * Math.PI / 5);
+
+    /**
+     * The largest number of strided signals gathered into contiguous scratch at once
+     */
+    private static final int GATHER_SIGNALS = 8;
+
+    /**
+     * The number of values the gathered signals are kept under, so that they stay in the cache
+     */
+    private static final int GATHER_VALUES = 1 << 14;
+
+    private final int length;
+
+    /**
+     * For powers of two the twiddles of every radix-2 pass one after the other, cos(&pi;k/h) at index h-1+k for every
+     * half size h and k in [0, h), so every pass reads its twiddles contiguously. For mixed radix lengths cos(2&pi;k/n)
+     * for k in [0, n).
+     */
+    private final double[] cos;
+
+    /**
+     * The sines of the same angles as {@link #cos}
+     */
+    private final double[] sin;
+
+    /**
+     * The index every element is moved to before the butterflies are applied. Only used for powers of two.
+     */
+    private final int[] bitReversal;
+
+    /**
+     * The radices of the butterfly passes from the innermost to the outermost pass. Only used for mixed radix lengths.
+     */
+    private final int[] factors;
+
+    /**
+     * The digit-reversal permutation as consecutive pairs of indices to swap. Only used for mixed radix lengths.
+     */
+    private final int[] swaps;
+
+    /**
+     * The chirp-z transform used for lengths with a prime factor larger than five
+     */
+    private final Bluestein bluestein;
+
+    /**
+     * The contiguous scratch strided signals of a batch are gathered into, created on first use
+     */
+    private final ThreadLocal<ComplexBuffer> gather;
+
+    /**
+     * Constructs a plan for transforms of the given length.
+     *
+     * @param length The length of the transforms performed with this plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public FftPlan(int length) throws IllegalArgumentException {
+        if (length <= 0)
+            throw new IllegalArgumentException("The length of the plan has to be positive.");
+        this.length = length;
+
+        if ((length & (length - 1)) == 0) {
+            cos = stageTwiddles(length, true);
+            sin = stageTwiddles(length, false);
+            bitReversal = new int[length];
+            int bits = Integer.numberOfTrailingZeros(length);
+            for (int i = 0; i < length; i++) {
+                bitReversal[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (Integer.SIZE - bits);
+            }
+            factors = null;
+            swaps = null;
+            bluestein = null;
+        } else if ((factors = factorize(length)) != null) {
+            cos = twiddles(length, length, true);
+            sin = twiddles(length, length, false);
+            swaps = digitReversalSwaps(length, factors);
+            bitReversal = null;
+            bluestein = null;
+        } else {
+            cos = null;
+            sin = null;
+            bitReversal = null;
+            swaps = null;
+            bluestein = new Bluestein(length);
+        }
+        gather = ThreadLocal.withInitial(() -> new ComplexBuffer(getGatherSignals() * length));
+    }
+
+    /**
+     * A method returning the length of the transforms performed with this plan.
+     *
+     * @return The length of the plan
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Computes the smallest length of at least the given minimum that only has the prime factors 2, 3 and 5, which
+     * are the lengths transformed with the fast mixed radix butterflies instead of Bluestein's algorithm. Padding a
+     * signal to such a length is the cheapest way to transform it when its exact length does not matter.
+     *
+     * @param minimum The smallest length allowed
+     * @return The smallest 5-smooth length of at least the minimum
+     * @throws IllegalArgumentException Thrown if the minimum is not positive or larger than 2<sup>30</sup>.
+     */
+    public static int nextFastLength(int minimum) throws IllegalArgumentException {
+        if (minimum <= 0 || minimum > 1 << 30)
+            throw new IllegalArgumentException("The minimum length has to be inside [1, 2^30].");
+        if (minimum == 1) return 1;
+        // the next power of two is an upper bound
+        long best = (long) Integer.highestOneBit(minimum - 1) << 1;
+        for (long p5 = 1; p5 < best; p5 *= 5) {
+            for (long p35 = p5; p35 < best; p35 *= 3) {
+                long length = p35;
+                while (length < minimum) length <<= 1;
+                best = Math.min(best, length);
+            }
+        }
+        return (int) best;
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of this plan, without the scratch buffers kept per thread.
+     *
+     * @return The approximate memory of the plan
+     */
+    long getMemory() {
+        long bytes = 64;
+        if (cos != null) bytes += 16L * cos.length;
+        if (bitReversal != null) bytes += 4L * bitReversal.length;
+        if (swaps != null) bytes += 4L * swaps.length;
+        if (bluestein != null) bytes += bluestein.getMemory();
+        return bytes;
+    }
+
+    /**
+     * Performs an in-place forward transform on the first {@link #getLength()} values of the given arrays.
+     *
+     * @param re The real parts of the data
+     * @param im The imaginary parts of the data
+     */
+    void transform(double[] re, double[] im) {
+        transform(re, im, false);
+    }
+
+    /**
+     * Performs an in-place transform on the first {@link #getLength()} values of the given arrays. The inverse
+     * transform includes the division by n.
+     *
+     * @param re      The real parts of the data
+     * @param im      The imaginary parts of the data
+     * @param inverse Whether the inverse transform is performed
+     */
+    void transform(double[] re, double[] im, boolean inverse) {
+        transform(re, im, inverse, Parallelism.sequential());
+    }
+
+    /**
+     * Performs an in-place transform on the first {@link #getLength()} values of the given arrays, splitting the work
+     * across threads if the length reaches the parallelism's threshold. The inverse transform includes the division
+     * by n.
+     *
+     * @param re          The real parts of the data
+     * @param im          The imaginary parts of the data
+     * @param inverse     Whether the inverse transform is performed
+     * @param parallelism How the work may be split across threads
+     */
+    void transform(double[] re, double[] im, boolean inverse, Parallelism parallelism) {
+        transform(re, im, 0, inverse, parallelism);
+    }
+
+    /**
+     * Performs an in-place transform on the {@link #getLength()} values of the given arrays starting at the offset,
+     * splitting the work across threads if the length reaches the parallelism's threshold. The inverse transform
+     * includes the division by n.
+     *
+     * @param re          The real parts of the data
+     * @param im          The imaginary parts of the data
+     * @param offset      The index of the first value of the data
+     * @param inverse     Whether the inverse transform is performed
+     * @param parallelism How the work may be split across threads
+     */
+    void transform(double[] re, double[] im, int offset, boolean inverse, Parallelism parallelism) {
+        if (bitReversal != null) {
+            radix2(re, im, offset, inverse, parallelism);
+        } else if (factors != null) {
+            mixedRadix(re, im, offset, inverse, parallelism);
+        } else {
+            bluestein.transform(re, im, offset, inverse, parallelism);
+        }
+    }
+
+    /**
+     * Performs an in-place transform on every signal of a batch stored with the given layout, sharing the tables of
+     * this plan. Contiguous signals are transformed where they are. Strided signals are gathered in blocks of
+     * consecutive signals into contiguous scratch, so that interleaved channels are read and written a whole cache
+     * line at a time, and scattered back after being transformed. Signals or blocks are split across threads if the
+     * batch reaches the parallelism's threshold. The inverse transform includes the division by n.
+     *
+     * @param re          The real parts of the data
+     * @param im          The imaginary parts of the data
+     * @param layout      Where the signals are stored in the arrays
+     * @param inverse     Whether the inverse transform is performed
+     * @param parallelism How the work may be split across threads
+     */
+    void transform(double[] re, double[] im, BatchLayout layout, boolean inverse, Parallelism parallelism) {
+        int count = layout.getCount();
+        int tasks = parallelism.getTasks((long) count * length);
+        if (layout.getStride() == 1) {
+            if (count < tasks) {
+                // too few signals to go around, so every signal splits its own work instead
+                for (int s = 0; s < count; s++) {
+                    transform(re, im, layout.getOffset() + s * layout.getDistance(), inverse, parallelism);
+                }
+                return;
+            }
+            parallelism.forEach(tasks, t -> {
+                for (int s = (int) ((long) t * count / tasks); s < (long) (t + 1) * count / tasks; s++) {
+                    transform(re, im, layout.getOffset() + s * layout.getDistance(), inverse, Parallelism.sequential());
+                }
+            });
+            return;
+        }
+
+        int signals = getGatherSignals();
+        int blocks = (count + signals - 1) / signals;
+        int chunks = Math.min(tasks, blocks);
+        parallelism.forEach(chunks, t -> {
+            for (int b = (int) ((long) t * blocks / chunks); b < (long) (t + 1) * blocks / chunks; b++) {
+                int first = b * signals;
+                transformGathered(re, im, layout, first, Math.min(count, first + signals), inverse);
+            }
+        });
+    }
+
+    private void transformGathered(double[] re, double[] im, BatchLayout layout, int from, int to, boolean inverse) {
+        ComplexBuffer work = gather.get();
+        double[] wr = work.getRealCoefficients();
+        double[] wi = work.getImagCoefficients();
+        int stride = layout.getStride();
+        int distance = layout.getDistance();
+        int base = layout.getOffset() + from * distance;
+        int signals = to - from;
+
+        // sample j of all signals of the block before sample j + 1, which is sequential for interleaved channels
+        for (int j = 0, row = base; j < length; j++, row += stride) {
+            for (int s = 0, i = row; s < signals; s++, i += distance) {
+                wr[s * length + j] = re[i];
+                wi[s * length + j] = im[i];
+            }
+        }
+        for (int s = 0; s < signals; s++) {
+            transform(wr, wi, s * length, inverse, Parallelism.sequential());
+        }
+        for (int j = 0, row = base; j < length; j++, row += stride) {
+            for (int s = 0, i = row; s < signals; s++, i += distance) {
+                re[i] = wr[s * length + j];
+                im[i] = wi[s * length + j];
+            }
+        }
+    }
+
+    /**
+     * The number of signals of a batch gathered at once, which is a single signal for long signals
+     */
+    private int getGatherSignals() {
+        return Math.max(1, Math.min(GATHER_SIGNALS, GATHER_VALUES / length));
+    }
+
+    /**
+     * The power of two transform. Pairs of consecutive radix-2 passes are fused into radix-4 passes, which halves the
+     * number of sweeps over the data and saves a quarter of the twiddle multiplications; an odd number of passes
+     * leaves one radix-2 pass. In parallel the array is split into blocks which run all passes that stay inside a
+     * block independently, after which every remaining pass splits its butterflies across the tasks.
+     */
+    private void radix2(double[] re, double[] im, int offset, boolean inverse, Parallelism parallelism) {
+        int tasks = parallelism.getTasks(length);
+        if (tasks == 1) {
+            bitReverse(re, im, offset, 0, length);
+            radix2Passes(re, im, offset, 0, length, inverse);
+            return;
+        }
+
+        int block = length / tasks;
+        parallelism.forEach(tasks, t -> bitReverse(re, im, offset, t * block, (t + 1) * block));
+        parallelism.forEach(tasks, t -> radix2Passes(re, im, offset, t * block, block, inverse));
+        int half = block;
+        if (Integer.numberOfTrailingZeros(length / block) % 2 != 0) {
+            int pass = half;
+            int chunk = length / 2 / tasks;
+            parallelism.forEach(tasks, t -> radix2Butterflies(re, im, offset, pass, t * chunk, (t + 1) * chunk, inverse));
+            half <<= 1;
+        }
+        for (; half < length; half <<= 2) {
+            int pass = half;
+            int chunk = length / 4 / tasks;
+            parallelism.forEach(tasks, t -> radix4Butterflies(re, im, offset, pass, t * chunk, (t + 1) * chunk, inverse));
+        }
+    }
+
+    private void bitReverse(double[] re, double[] im, int offset, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int j = bitReversal[i];
+            if (i < j) {
+                swap(re, im, offset + i, offset + j);
+            }
+        }
+    }
+
+    /**
+     * Runs every pass whose butterflies stay inside the block [start, start + size) of the data, starting with a
+     * radix-2 pass if the block has an odd number of passes and fusing the remaining ones into radix-4 passes.
+     */
+    private void radix2Passes(double[] re, double[] im, int offset, int start, int size, boolean inverse) {
+        int end = offset + start + size;
+        int half = 1;
+        if (Integer.numberOfTrailingZeros(size) % 2 != 0) {
+            if (inverse && length == 2) {
+                scaledPass(re, im, offset, 1, 0, 1, 0.5);
+                return;
+            }
+            // the first pass only has the twiddle 1
+            half = 2;
+            for (int a = offset + start; a < end; a += 2) {
+                double tr = re[a + 1];
+                double ti = im[a + 1];
+                re[a + 1] = re[a] - tr;
+                im[a + 1] = im[a] - ti;
+                re[a] += tr;
+                im[a] += ti;
+            }
+        }
+        for (; half < size; half <<= 2) {
+            double scale = inverse && 4 * half == length ? 1.0 / length : 1;
+            for (int block = offset + start; block < end; block += 4 * half) {
+                radix4(re, im, block, half, 0, half, inverse, scale);
+            }
+        }
+    }
+
+    /**
+     * The butterflies k in [from, to) of the block of a radix-4 pass, which fuses the radix-2 pass combining halves of
+     * the given size with the following pass. The four values k, k + h, k + 2h and k + 3h are combined with the
+     * twiddles W<sub>2h</sub><sup>k</sup> and W<sub>4h</sub><sup>k</sup>; the twiddle W<sub>4h</sub><sup>k+h</sup> of
+     * the second pass is W<sub>4h</sub><sup>k</sup> rotated by a quarter turn, which costs no multiplications. Like
+     * {@link #butterflies(double[], double[], int, int, int, int, boolean)} every array is read with unit stride.
+     * The outputs are multiplied by the scale, which is only different from one in the last pass of the inverse.
+     */
+    private void radix4(double[] re, double[] im, int block, int half, int from, int to, boolean inverse, double scale) {
+        double sign = inverse ? 1 : -1;
+        for (int k = from, a = block + from, t = half - 1 + from, u = 2 * half - 1 + from; k < to; k++, a++, t++, u++) {
+            int b = a + half;
+            int c = b + half;
+            int d = c + half;
+            double w1r = cos[t];
+            double w1i = sign * sin[t];
+            double w2r = cos[u];
+            double w2i = sign * sin[u];
+
+            // the first radix-2 pass on (a, b) and (c, d)
+            double tr = w1r * re[b] - w1i * im[b];
+            double ti = w1r * im[b] + w1i * re[b];
+            double ar = re[a] + tr;
+            double ai = im[a] + ti;
+            double br = re[a] - tr;
+            double bi = im[a] - ti;
+            tr = w1r * re[d] - w1i * im[d];
+            ti = w1r * im[d] + w1i * re[d];
+            double cr = re[c] + tr;
+            double ci = im[c] + ti;
+            double dr = re[c] - tr;
+            double di = im[c] - ti;
+
+            // the second radix-2 pass on (a, c) with W^k and (b, d) with W^(k+h) = W^k times -i, or i for the inverse
+            tr = w2r * cr - w2i * ci;
+            ti = w2r * ci + w2i * cr;
+            double sr = w2r * dr - w2i * di;
+            double si = w2r * di + w2i * dr;
+            double qr = -sign * si;
+            double qi = sign * sr;
+            if (scale != 1) {
+                ar *= scale;
+                ai *= scale;
+                br *= scale;
+                bi *= scale;
+                tr *= scale;
+                ti *= scale;
+                qr *= scale;
+                qi *= scale;
+            }
+            re[a] = ar + tr;
+            im[a] = ai + ti;
+            re[c] = ar - tr;
+            im[c] = ai - ti;
+            re[b] = br + qr;
+            im[b] = bi + qi;
+            re[d] = br - qr;
+            im[d] = bi - qi;
+        }
+    }
+
+    /**
+     * The butterflies k in [from, to) of the block of a radix-2 pass combining halves of the given size. Data and
+     * twiddles are all read with unit stride and the iterations are independent, so the loop can be compiled into
+     * vector instructions by the JIT.
+     */
+    private void butterflies(double[] re, double[] im, int block, int half, int from, int to, boolean inverse) {
+        double sign = inverse ? 1 : -1;
+        for (int k = from, a = block + from, t = half - 1 + from; k < to; k++, a++, t++) {
+            int b = a + half;
+            double wr = cos[t];
+            double wi = sign * sin[t];
+            double tr = wr * re[b] - wi * im[b];
+            double ti = wr * im[b] + wi * re[b];
+            re[b] = re[a] - tr;
+            im[b] = im[a] - ti;
+            re[a] += tr;
+            im[a] += ti;
+        }
+    }
+
+    /**
+     * Runs the butterflies [from, to) of the radix-2 pass combining halves of the given size.
+     */
+    private void radix2Butterflies(double[] re, double[] im, int offset, int half, int from, int to, boolean inverse) {
+        if (inverse && 2 * half == length) {
+            scaledPass(re, im, offset, half, from, to, 1.0 / length);
+            return;
+        }
+        // butterfly t belongs to block t / half, so the range is split into runs within one block
+        for (int t = from; t < to; ) {
+            int k = t & (half - 1);
+            int run = Math.min(to - t, half - k);
+            butterflies(re, im, offset + 2 * (t - k), half, k, k + run, inverse);
+            t += run;
+        }
+    }
+
+    /**
+     * Runs the butterflies [from, to) of the radix-4 pass whose first radix-2 pass combines halves of the given size.
+     */
+    private void radix4Butterflies(double[] re, double[] im, int offset, int half, int from, int to, boolean inverse) {
+        double scale = inverse && 4 * half == length ? 1.0 / length : 1;
+        // butterfly t belongs to block t / half, so the range is split into runs within one block
+        for (int t = from; t < to; ) {
+            int k = t & (half - 1);
+            int run = Math.min(to - t, half - k);
+            radix4(re, im, offset + 4 * (t - k), half, k, k + run, inverse, scale);
+            t += run;
+        }
+    }
+
+    /**
+     * The butterflies [from, to) of the last radix-2 pass of the inverse transform, which also divides every value
+     * by n.
+     */
+    private void scaledPass(double[] re, double[] im, int offset, int half, int from, int to, double scale) {
+        for (int k = from, t = half - 1 + from; k < to; k++, t++) {
+            double wr = cos[t] * scale;
+            double wi = sin[t] * scale;
+            int a = offset + k;
+            int b = a + half;
+            double ar = re[a] * scale;
+            double ai = im[a] * scale;
+            double tr = wr * re[b] - wi * im[b];
+            double ti = wr * im[b] + wi * re[b];
+            re[b] = ar - tr;
+            im[b] = ai - ti;
+            re[a] = ar + tr;
+            im[a] = ai + ti;
+        }
+    }
+
+    /**
+     * The mixed radix transform. In parallel the innermost passes run independently on blocks whose size is a product
+     * of the innermost radices, after which every remaining pass splits its butterflies across the tasks.
+     */
+    private void mixedRadix(double[] re, double[] im, int offset, boolean inverse, Parallelism parallelism) {
+        for (int i = 0; i < swaps.length; i += 2) {
+            swap(re, im, offset + swaps[i], offset + swaps[i + 1]);
+        }
+
+        int tasks = parallelism.getTasks(length);
+        int inner = 0;
+        int block = 1;
+        while (inner < factors.length && (long) block * factors[inner] * tasks <= length) {
+            block *= factors[inner++];
+        }
+        if (tasks == 1) {
+            mixedRadixPasses(re, im, offset, length, factors.length, inverse);
+            return;
+        }
+
+        int size = block;
+        int blocks = length / size;
+        int passes = inner;
+        int blockTasks = Math.min(tasks, blocks);
+        parallelism.forEach(blockTasks, t -> {
+            int from = (int) ((long) t * blocks / blockTasks);
+            int to = (int) ((long) (t + 1) * blocks / blockTasks);
+            for (int b = from; b < to; b++) {
+                mixedRadixPasses(re, im, offset + b * size, size, passes, inverse);
+            }
+        });
+        for (int f = inner, m = size; f < factors.length; m *= factors[f++]) {
+            int pass = f;
+            int span = m;
+            int butterflies = length / factors[f];
+            parallelism.forEach(tasks, t -> mixedRadixButterflies(re, im, offset, pass, span,
+                    (int) ((long) t * butterflies / tasks), (int) ((long) (t + 1) * butterflies / tasks), inverse));
+        }
+    }
+
+    /**
+     * Runs the first passes of the mixed radix transform on the block [start, start + size) of the arrays.
+     */
+    private void mixedRadixPasses(double[] re, double[] im, int start, int size, int passes, boolean inverse) {
+        for (int f = 0, m = 1; f < passes; f++) {
+            int span = factors[f] * m;
+            for (int block = start; block < start + size; block += span) {
+                for (int k = 0; k < m; k++) {
+                    butterfly(re, im, f, block + k, m, k, inverse);
+                }
+            }
+            m = span;
+        }
+    }
+
+    /**
+     * Runs the butterflies [from, to) of the given pass of the mixed radix transform, whose subtransforms have size m.
+     */
+    private void mixedRadixButterflies(double[] re, double[] im, int offset, int pass, int m, int from, int to, boolean inverse) {
+        int span = factors[pass] * m;
+        for (int t = from; t < to; t++) {
+            int k = t % m;
+            butterfly(re, im, pass, offset + (t - k) / m * span + k, m, k, inverse);
+        }
+    }
+
+    private void butterfly(double[] re, double[] im, int pass, int i0, int m, int k, boolean inverse) {
+        int radix = factors[pass];
+        int t = k * (length / (radix * m));
+        double sign = inverse ? -1 : 1;
+        double scale = inverse && pass == factors.length - 1 ? 1.0 / length : 1;
+        switch (radix) {
+            case 2:
+                butterfly2(re, im, i0, m, t, sign, scale);
+                break;
+            case 3:
+                butterfly3(re, im, i0, m, t, sign, scale);
+                break;
+            case 4:
+                butterfly4(re, im, i0, m, t, sign, scale);
+                break;
+            default:
+                butterfly5(re, im, i0, m, t, sign, scale);
+                break;
+        }
+    }
+
+    private void butterfly2(double[] re, double[] im, int i0, int m, int t, double sign, double scale) {
+        int i1 = i0 + m;
+        double r1 = re[i1] * cos[t] + im[i1] * sign * sin[t];
+        double m1 = im[i1] * cos[t] - re[i1] * sign * sin[t];
+        re[i1] = (re[i0] - r1) * scale;
+        im[i1] = (im[i0] - m1) * scale;
+        re[i0] = (re[i0] + r1) * scale;
+        im[i0] = (im[i0] + m1) * scale;
+    }
+
+    private void butterfly3(double[] re, double[] im, int i0, int m, int t, double sign, double scale) {
+        int i1 = i0 + m;
+        int i2 = i1 + m;
+        double r1 = re[i1] * cos[t] + im[i1] * sign * sin[t];
+        double m1 = im[i1] * cos[t] - re[i1] * sign * sin[t];
+        double r2 = re[i2] * cos[2 * t] + im[i2] * sign * sin[2 * t];
+        double m2 = im[i2] * cos[2 * t] - re[i2] * sign * sin[2 * t];
+
+        double sr = r1 + r2;
+        double si = m1 + m2;
+        double dr = (r1 - r2) * SIN_PI_3 * sign;
+        double di = (m1 - m2) * SIN_PI_3 * sign;
+        double hr = re[i0] - 0.5 * sr;
+        double hi = im[i0] - 0.5 * si;
+
+        re[i0] = (re[i0] + sr) * scale;
+        im[i0] = (im[i0] + si) * scale;
+        re[i1] = (hr + di) * scale;
+        im[i1] = (hi - dr) * scale;
+        re[i2] = (hr - di) * scale;
+        im[i2] = (hi + dr) * scale;
+    }
+
+    private void butterfly4(double[] re, double[] im, int i0, int m, int t, double sign, double scale) {
+        int i1 = i0 + m;
+        int i2 = i1 + m;
+        int i3 = i2 + m;
+        double r1 = re[i1] * cos[t] + im[i1] * sign * sin[t];
+        double m1 = im[i1] * cos[t] - re[i1] * sign * sin[t];
+        double r2 = re[i2] * cos[2 * t] + im[i2] * sign * sin[2 * t];
+        double m2 = im[i2] * cos[2 * t] - re[i2] * sign * sin[2 * t];
+        double r3 = re[i3] * cos[3 * t] + im[i3] * sign * sin[3 * t];
+        double m3 = im[i3] * cos[3 * t] - re[i3] * sign * sin[3 * t];
+
+        double ar = re[i0] + r2;
+        double ai = im[i0] + m2;
+        double br = re[i0] - r2;
+        double bi = im[i0] - m2;
+        double cr = r1 + r3;
+        double ci = m1 + m3;
+        double dr = (r1 - r3) * sign;
+        double di = (m1 - m3) * sign;
+
+        re[i0] = (ar + cr) * scale;
+        im[i0] = (ai + ci) * scale;
+        re[i1] = (br + di) * scale;
+        im[i1] = (bi - dr) * scale;
+        re[i2] = (ar - cr) * scale;
+        im[i2] = (ai - ci) * scale;
+        re[i3] = (br - di) * scale;
+        im[i3] = (bi + dr) * scale;
+    }
+
+    private void butterfly5(double[] re, double[] im, int i0, int m, int t, double sign, double scale) {
+        int i1 = i0 + m;
+        int i2 = i1 + m;
+        int i3 = i2 + m;
+        int i4 = i3 + m;
+        double r1 = re[i1] * cos[t] + im[i1] * sign * sin[t];
+        double m1 = im[i1] * cos[t] - re[i1] * sign * sin[t];
+        double r2 = re[i2] * cos[2 * t] + im[i2] * sign * sin[2 * t];
+        double m2 = im[i2] * cos[2 * t] - re[i2] * sign * sin[2 * t];
+        double r3 = re[i3] * cos[3 * t] + im[i3] * sign * sin[3 * t];
+        double m3 = im[i3] * cos[3 * t] - re[i3] * sign * sin[3 * t];
+        double r4 = re[i4] * cos[4 * t] + im[i4] * sign * sin[4 * t];
+        double m4 = im[i4] * cos[4 * t] - re[i4] * sign * sin[4 * t];
+
+        double s1r = r1 + r4;
+        double s1i = m1 + m4;
+        double d1r = r1 - r4;
+        double d1i = m1 - m4;
+        double s2r = r2 + r3;
+        double s2i = m2 + m3;
+        double d2r = r2 - r3;
+        double d2i = m2 - m3;
+
+        double ar = re[i0] + COS_2PI_5 * s1r + COS_4PI_5 * s2r;
+        double ai = im[i0] + COS_2PI_5 * s1i + COS_4PI_5 * s2i;
+        double br = re[i0] + COS_4PI_5 * s1r + COS_2PI_5 * s2r;
+        double bi = im[i0] + COS_4PI_5 * s1i + COS_2PI_5 * s2i;
+        // the odd parts are multiplied by -i for the forward and by i for the inverse transform
+        double er = (SIN_2PI_5 * d1i + SIN_4PI_5 * d2i) * sign;
+        double ei = -(SIN_2PI_5 * d1r + SIN_4PI_5 * d2r) * sign;
+        double fr = (SIN_4PI_5 * d1i - SIN_2PI_5 * d2i) * sign;
+        double fi = -(SIN_4PI_5 * d1r - SIN_2PI_5 * d2r) * sign;
+
+        re[i0] = (re[i0] + s1r + s2r) * scale;
+        im[i0] = (im[i0] + s1i + s2i) * scale;
+        re[i1] = (ar + er) * scale;
+        im[i1] = (ai + ei) * scale;
+        re[i4] = (ar - er) * scale;
+        im[i4] = (ai - ei) * scale;
+        re[i2] = (br + fr) * scale;
+        im[i2] = (bi + fi) * scale;
+        re[i3] = (br - fr) * scale;
+        im[i3] = (bi - fi) * scale;
+    }
+
+    private static void swap(double[] re, double[] im, int i, int j) {
+        double tmp = re[i];
+        re[i] = re[j];
+        re[j] = tmp;
+        tmp = im[i];
+        im[i] = im[j];
+        im[j] = tmp;
+    }
+
+    /**
+     * Computes the twiddles of every radix-2 pass of a power of two length one after the other.
+     */
+    private static double[] stageTwiddles(int length, boolean cosine) {
+        double[] table = new double[length - 1];
+        for (int half = 1; half < length; half <<= 1) {
+            for (int k = 0; k < half; k++) {
+                double theta = Math.PI * k / half;
+                table[half - 1 + k] = cosine ? Math.cos(theta) : Math.sin(theta);
+            }
+        }
+        return table;
+    }
+
+    private static double[] twiddles(int length, int count, boolean cosine) {
+        double[] table = new double[count];
+        for (int k = 0; k < count && k < length; k++) {
+            double theta = 2 * Math.PI * k / length;
+            table[k] = cosine ? Math.cos(theta) : Math.sin(theta);
+        }
+        return table;
+    }
+
+    /**
+     * Splits a length into the radices 4, 2, 3 and 5.
+     *
+     * @param length The length to factorize
+     * @return The radices ordered from the innermost to the outermost pass, or null if the length has a prime factor
+     * larger than five
+     */
+    static int[] factorize(int length) {
+        int[] radices = new int[32];
+        int count = 0;
+        for (int radix : new int[]{4, 2, 3, 5}) {
+            while (length % radix == 0) {
+                radices[count++] = radix;
+                length /= radix;
+            }
+        }
+        if (length != 1) return null;
+        int[] factors = new int[count];
+        System.arraycopy(radices, 0, factors, 0, count);
+        return factors;
+    }
+
+    /**
+     * Computes the permutation that puts the input in the order the butterfly passes expect. The outermost pass splits
+     * the input into radix interleaved subsequences, so an index is the mixed radix reversal of its position.
+     */
+    static int[] digitReversalSwaps(int length, int[] factors) {
+        int[] source = new int[length];
+        for (int p = 0; p < length; p++) {
+            int rest = p;
+            int size = length;
+            int index = 0;
+            int weight = 1;
+            for (int f = factors.length - 1; f >= 0; f--) {
+                size /= factors[f];
+                index += rest / size * weight;
+                rest %= size;
+                weight *= factors[f];
+            }
+            source[p] = index;
+        }
+
+        // follow every cycle of the permutation once and record the swaps that rotate it into place
+        int[] swaps = new int[2 * length];
+        int count = 0;
+        boolean[] visited = new boolean[length];
+        for (int start = 0; start < length; start++) {
+            if (visited[start]) continue;
+            visited[start] = true;
+            for (int j = start; source[j] != start; j = source[j]) {
+                swaps[count++] = j;
+                swaps[count++] = source[j];
+                visited[source[j]] = true;
+            }
+        }
+        int[] trimmed = new int[count];
+        System.arraycopy(swaps, 0, trimmed, 0, count);
+        return trimmed;
+    }
+}
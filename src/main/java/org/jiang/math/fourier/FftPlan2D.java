@@ -0,0 +1,193 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.jiang.math.matrix.MatrixUtil;
+
+/**
+ * A reusable plan for the two-dimensional fast fourier transform of matrices of one fixed size, using the row-column
+ * method. Every row is transformed as one batch, the matrix is transposed with a cache-blocked transpose so that the
+ * columns become contiguous, every column is transformed as a second batch and the matrix is transposed back. Rows,
+ * columns and transposes are split across threads. Real matrices only produce the cols/2+1 non-redundant columns of
+ * the spectrum. A plan is immutable and can be shared between threads.
+ */
+public class FftPlan2D {
+
+    /**
+     * The number of rows of a real inverse gathered from the transposed spectrum at once
+     */
+    private static final int GATHER_ROWS = 8;
+
+    private final int rows;
+    private final int cols;
+
+    /**
+     * The plan for the rows of complex matrices, of length cols
+     */
+    private final FftPlan rowPlan;
+
+    /**
+     * The plan for the columns of every matrix, of length rows
+     */
+    private final FftPlan columnPlan;
+
+    /**
+     * The plan for the rows of real matrices, of length cols
+     */
+    private final RealFftPlan realRowPlan;
+
+    /**
+     * Constructs a plan for two-dimensional transforms of matrices of the given size.
+     *
+     * @param rows The number of rows of the matrices transformed with this plan
+     * @param cols The number of columns of the matrices transformed with this plan
+     * @throws IllegalArgumentException Thrown if the number of rows or columns is not positive.
+     */
+    public FftPlan2D(int rows, int cols) throws IllegalArgumentException {
+        this(rows, cols, FftPlanCache.getDefault());
+    }
+
+    /**
+     * Constructs a plan for two-dimensional transforms of matrices of the given size, taking its row and column plans
+     * from the given cache.
+     *
+     * @param rows  The number of rows of the matrices transformed with this plan
+     * @param cols  The number of columns of the matrices transformed with this plan
+     * @param cache The cache the row and column plans are taken from
+     * @throws IllegalArgumentException Thrown if the number of rows or columns is not positive.
+     */
+    FftPlan2D(int rows, int cols, FftPlanCache cache) throws IllegalArgumentException {
+        if (rows <= 0 || cols <= 0)
+            throw new IllegalArgumentException("The number of rows and columns of the plan has to be positive.");
+        this.rows = rows;
+        this.cols = cols;
+        rowPlan = cache.getFftPlan(cols);
+        columnPlan = cache.getFftPlan(rows);
+        realRowPlan = cache.getRealFftPlan(cols);
+    }
+
+    /**
+     * A method returning the number of rows of the matrices transformed with this plan.
+     *
+     * @return The number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * A method returning the number of columns of the matrices transformed with this plan.
+     *
+     * @return The number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * A method returning the number of non-redundant columns of the spectrum of a real matrix, cols/2+1.
+     *
+     * @return The number of columns of the spectrum of a real matrix
+     */
+    public int getSpectrumCols() {
+        return realRowPlan.getSpectrumLength();
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of this plan. The plan has no tables of its own, its row and column
+     * plans are counted by the cache they were taken from. The plan keeps no scratch either, every transform allocates
+     * the matrix it transposes into and releases it when it returns.
+     *
+     * @return The approximate memory of the plan
+     */
+    long getMemory() {
+        return 0;
+    }
+
+    /**
+     * Performs an in-place transform on a matrix stored row after row in the first rows * cols values of the buffer.
+     * The inverse transform includes the division by rows * cols.
+     */
+    void transform(ComplexBuffer data, boolean inverse, Parallelism parallelism) {
+        double[] re = data.getRealCoefficients();
+        double[] im = data.getImagCoefficients();
+        rowPlan.transform(re, im, BatchLayout.contiguous(rows, cols), inverse, parallelism);
+        ComplexBuffer work = new ComplexBuffer(rows * cols);
+        transformColumns(re, im, cols, work, inverse, parallelism);
+        transpose(work.getRealCoefficients(), work.getImagCoefficients(), re, im, cols, rows, parallelism);
+    }
+
+    /**
+     * Transforms a real matrix into the rows * (cols/2+1) values of the non-redundant half of its spectrum, stored row
+     * after row in the buffer.
+     */
+    void forward(double[][] in, ComplexBuffer out, Parallelism parallelism) {
+        double[] re = out.getRealCoefficients();
+        double[] im = out.getImagCoefficients();
+        int width = getSpectrumCols();
+        int tasks = Math.min(rows, parallelism.getTasks((long) rows * cols));
+        parallelism.forEach(tasks, t -> {
+            for (int r = (int) ((long) t * rows / tasks); r < (long) (t + 1) * rows / tasks; r++) {
+                realRowPlan.forward(in[r], re, im, r * width);
+            }
+        });
+        ComplexBuffer work = new ComplexBuffer(rows * width);
+        transformColumns(re, im, width, work, false, parallelism);
+        transpose(work.getRealCoefficients(), work.getImagCoefficients(), re, im, width, rows, parallelism);
+    }
+
+    /**
+     * Transforms the non-redundant half of the spectrum of a real matrix, stored row after row in the buffer, back into
+     * the matrix, including the division by rows * cols. The spectrum is left unchanged. The rows are read straight out
+     * of the transposed columns, a few at a time, so no second copy of the spectrum is needed.
+     */
+    void inverse(ComplexBuffer in, double[][] out, Parallelism parallelism) {
+        int width = getSpectrumCols();
+        int blocks = (rows + GATHER_ROWS - 1) / GATHER_ROWS;
+        int tasks = Math.min(blocks, parallelism.getTasks((long) rows * cols));
+        // the columns are transformed into the first rows * width values and every task gathers its rows behind them
+        ComplexBuffer work = new ComplexBuffer((rows + tasks * GATHER_ROWS) * width);
+        double[] re = work.getRealCoefficients();
+        double[] im = work.getImagCoefficients();
+        transformColumns(in.getRealCoefficients(), in.getImagCoefficients(), width, work, true, parallelism);
+        parallelism.forEach(tasks, t -> {
+            int gather = (rows + t * GATHER_ROWS) * width;
+            for (int b = (int) ((long) t * blocks / tasks); b < (long) (t + 1) * blocks / tasks; b++) {
+                int first = b * GATHER_ROWS;
+                int count = Math.min(GATHER_ROWS, rows - first);
+                for (int k = 0; k < width; k++) {
+                    for (int j = 0; j < count; j++) {
+                        re[gather + j * width + k] = re[k * rows + first + j];
+                        im[gather + j * width + k] = im[k * rows + first + j];
+                    }
+                }
+                for (int j = 0; j < count; j++) {
+                    realRowPlan.inverse(re, im, gather + j * width, out[first + j]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Transforms every column of a rows by width matrix by transposing it into the work buffer and transforming the now
+     * contiguous columns as one batch. The transformed columns are left in the first rows * width values of the work
+     * buffer, column after column.
+     */
+    private void transformColumns(double[] inRe, double[] inIm, int width, ComplexBuffer work,
+                                  boolean inverse, Parallelism parallelism) {
+        double[] re = work.getRealCoefficients();
+        double[] im = work.getImagCoefficients();
+        transpose(inRe, inIm, re, im, rows, width, parallelism);
+        columnPlan.transform(re, im, BatchLayout.contiguous(width, rows), inverse, parallelism);
+    }
+
+    private static void transpose(double[] srcRe, double[] srcIm, double[] dstRe, double[] dstIm,
+                                  int rows, int cols, Parallelism parallelism) {
+        int tasks = Math.min(rows, parallelism.getTasks((long) rows * cols));
+        parallelism.forEach(tasks, t -> {
+            int from = (int) ((long) t * rows / tasks);
+            int to = (int) ((long) (t + 1) * rows / tasks);
+            MatrixUtil.transpose(srcRe, dstRe, rows, cols, from, to);
+            MatrixUtil.transpose(srcIm, dstIm, rows, cols, from, to);
+        });
+    }
+}
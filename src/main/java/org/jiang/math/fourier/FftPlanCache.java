@@ -0,0 +1,342 @@
+package org.jiang.math.fourier;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache of plans keyed by their type and size, so that callers transforming many different lengths only
+ * compute the tables of every length once. The cache holds plans up to a memory cap and evicts the least recently used
+ * plans when it is exceeded. Lookups never take a global lock: plans are stored in a concurrent map and every hit only
+ * stamps its entry with a global access clock, so the least recently used order is approximate under contention. The
+ * hits, misses and evictions are counted for monitoring. A plan whose tables alone exceed the memory cap is returned
+ * without being cached. Plans of both directions are shared, since every plan performs the forward and the inverse
+ * transform with the same tables. Plans built on other plans, such as the real, cosine, sine and two-dimensional plans,
+ * take those from the same cache and only count their own tables, so tables shared by several plans are built and
+ * counted once. An inner plan evicted while an outer plan still holds it stays in memory until the outer plan is
+ * evicted as well.
+ */
+public class FftPlanCache {
+
+    /**
+     * The memory cap of the {@link #getDefault() default cache}, 64 MiB
+     */
+    public static final long DEFAULT_MAX_MEMORY = 64L << 20;
+
+    private static final FftPlanCache DEFAULT = new FftPlanCache(DEFAULT_MAX_MEMORY);
+
+    private final long maxMemory;
+
+    private final ConcurrentHashMap<Key, Entry> plans = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong memory = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs an empty cache holding plans up to the given memory.
+     *
+     * @param maxMemory The approximate number of bytes the tables of the cached plans may take
+     * @throws IllegalArgumentException Thrown if the memory cap is negative.
+     */
+    public FftPlanCache(long maxMemory) throws IllegalArgumentException {
+        if (maxMemory < 0)
+            throw new IllegalArgumentException("The memory cap cannot be negative.");
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * A method returning the process-wide cache used by the methods of {@link Fourier} which are not given a plan.
+     *
+     * @return The default cache
+     */
+    public static FftPlanCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * A method returning the plan for complex transforms of the given length, creating it on a miss.
+     *
+     * @param length The length of the transforms
+     * @return The cached plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public FftPlan getFftPlan(int length) throws IllegalArgumentException {
+        return get(Type.FFT, length, FftPlan::new, FftPlan::getMemory);
+    }
+
+    /**
+     * A method returning the plan for real transforms of the given length, creating it on a miss.
+     *
+     * @param length The length of the real input of the transforms
+     * @return The cached plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public RealFftPlan getRealFftPlan(int length) throws IllegalArgumentException {
+        return get(Type.REAL_FFT, length, n -> new RealFftPlan(n, this), RealFftPlan::getMemory);
+    }
+
+    /**
+     * A method returning the plan for cosine and sine transforms of the given length, creating it on a miss.
+     *
+     * @param length The length of the transforms
+     * @return The cached plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public DctPlan getDctPlan(int length) throws IllegalArgumentException {
+        return get(Type.DCT, length, n -> new DctPlan(n, this), DctPlan::getMemory);
+    }
+
+    /**
+     * A method returning the plan for DST-I transforms of the given length, creating it on a miss.
+     *
+     * @param length The length of the transforms
+     * @return The cached plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public DstPlan getDstPlan(int length) throws IllegalArgumentException {
+        return get(Type.DST, length, n -> new DstPlan(n, this), DstPlan::getMemory);
+    }
+
+    /**
+     * A method returning the plan for single precision complex transforms of the given length, creating it on a miss.
+     *
+     * @param length The length of the transforms
+     * @return The cached plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public FloatFftPlan getFloatFftPlan(int length) throws IllegalArgumentException {
+        return get(Type.FLOAT_FFT, length, FloatFftPlan::new, FloatFftPlan::getMemory);
+    }
+
+    /**
+     * A method returning the plan for single precision real transforms of the given length, creating it on a miss.
+     *
+     * @param length The length of the real input of the transforms
+     * @return The cached plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public FloatRealFftPlan getFloatRealFftPlan(int length) throws IllegalArgumentException {
+        return get(Type.FLOAT_REAL_FFT, length, n -> new FloatRealFftPlan(n, this), FloatRealFftPlan::getMemory);
+    }
+
+    /**
+     * A method returning the plan for single precision cosine and sine transforms of the given length, creating it on
+     * a miss.
+     *
+     * @param length The length of the transforms
+     * @return The cached plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public FloatDctPlan getFloatDctPlan(int length) throws IllegalArgumentException {
+        return get(Type.FLOAT_DCT, length, n -> new FloatDctPlan(n, this), FloatDctPlan::getMemory);
+    }
+
+    /**
+     * A method returning the plan for two-dimensional transforms of matrices of the given size, creating it on a miss.
+     *
+     * @param rows The number of rows of the matrices
+     * @param cols The number of columns of the matrices
+     * @return The cached plan
+     * @throws IllegalArgumentException Thrown if the number of rows or columns is not positive.
+     */
+    public FftPlan2D getFftPlan2D(int rows, int cols) throws IllegalArgumentException {
+        return get(new Key(Type.FFT_2D, rows, cols), () -> new FftPlan2D(rows, cols, this), FftPlan2D::getMemory);
+    }
+
+    /**
+     * A method returning the polyphase filter bank of a {@link PolyphaseResampler} of the given reduced ratio, creating
+     * it on a miss. The bank is never written to once it is designed, so it is shared by every resampler of the ratio.
+     *
+     * @param up            The reduced factor the sample rate is multiplied by
+     * @param down          The reduced factor the sample rate is divided by
+     * @param zeroCrossings The number of zero crossings of the sinc on each side of its center
+     * @return The up phases of the filter
+     */
+    double[][] getFilterBank(int up, int down, int zeroCrossings) {
+        return get(new Key(Type.FILTER_BANK, up, down, zeroCrossings), () -> PolyphaseResampler.filterBank(up, down,
+                zeroCrossings), bank -> 8L * bank.length * bank[0].length);
+    }
+
+    /**
+     * A method returning the number of lookups which found a cached plan.
+     *
+     * @return The number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * A method returning the number of lookups which had to create a plan.
+     *
+     * @return The number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * A method returning the number of plans removed to stay under the memory cap.
+     *
+     * @return The number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * A method returning the approximate number of bytes the tables of the cached plans take.
+     *
+     * @return The memory of the cached plans
+     */
+    public long getMemory() {
+        return memory.get();
+    }
+
+    /**
+     * A method returning the approximate number of bytes the tables of the cached plans may take.
+     *
+     * @return The memory cap
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * A method returning the number of cached plans.
+     *
+     * @return The size of the cache
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    /**
+     * Removes every cached plan. The counters are left unchanged.
+     */
+    public void clear() {
+        for (Map.Entry<Key, Entry> entry : plans.entrySet()) {
+            if (plans.remove(entry.getKey(), entry.getValue())) {
+                memory.addAndGet(-entry.getValue().memory);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FftPlanCache[size=" + size() + ", memory=" + getMemory() + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "]";
+    }
+
+    private <T> T get(Type type, int length, IntFunction<T> factory, ToLongFunction<T> size) {
+        return get(new Key(type, length), () -> factory.apply(length), size);
+    }
+
+    private <T> T get(Key key, Supplier<T> factory, ToLongFunction<T> size) {
+        Entry entry = plans.get(key);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            // the plan is built outside the map, so a slow construction never blocks lookups of other keys
+            T plan = factory.get();
+            Entry created = new Entry(plan, size.applyAsLong(plan));
+            if (created.memory > maxMemory) {
+                // a plan larger than the whole cache would evict every other plan and then itself
+                misses.increment();
+                return plan;
+            }
+            entry = plans.putIfAbsent(key, created);
+            if (entry == null) {
+                misses.increment();
+                entry = created;
+                memory.addAndGet(created.memory);
+                entry.lastAccess = clock.incrementAndGet();
+                evict();
+            } else {
+                hits.increment();
+            }
+        }
+        entry.lastAccess = clock.incrementAndGet();
+        @SuppressWarnings("unchecked")
+        T plan = (T) entry.plan;
+        return plan;
+    }
+
+    /**
+     * Removes the least recently used plans until the cache is under its memory cap. Evictions are serialized so that
+     * concurrent misses do not evict more than needed, while lookups continue without waiting. Finding the least
+     * recently used plan scans every entry, which is cheap because the cache holds one plan per size rather than many
+     * small objects, and only happens on misses that exceed the cap.
+     */
+    private void evict() {
+        if (memory.get() <= maxMemory) return;
+        synchronized (this) {
+            while (memory.get() > maxMemory) {
+                Map.Entry<Key, Entry> oldest = null;
+                for (Map.Entry<Key, Entry> entry : plans.entrySet()) {
+                    if (oldest == null || entry.getValue().lastAccess < oldest.getValue().lastAccess) {
+                        oldest = entry;
+                    }
+                }
+                if (oldest == null) return;
+                if (plans.remove(oldest.getKey(), oldest.getValue())) {
+                    memory.addAndGet(-oldest.getValue().memory);
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private enum Type {
+        FFT, REAL_FFT, DCT, DST, FLOAT_FFT, FLOAT_REAL_FFT, FLOAT_DCT, FFT_2D, FILTER_BANK
+    }
+
+    private static final class Key {
+
+        private final Type type;
+
+        /**
+         * The length of one-dimensional plans, the rows and columns of two-dimensional plans or the reduced ratio and
+         * zero crossings of filter banks
+         */
+        private final int[] sizes;
+
+        private Key(Type type, int... sizes) {
+            this.type = type;
+            this.sizes = sizes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return type == key.type && Arrays.equals(sizes, key.sizes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + Arrays.hashCode(sizes);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object plan;
+        private final long memory;
+        private volatile long lastAccess;
+
+        private Entry(Object plan, long memory) {
+            this.plan = plan;
+            this.memory = memory;
+        }
+    }
+}
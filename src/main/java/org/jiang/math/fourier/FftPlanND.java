@@ -0,0 +1,133 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A reusable plan for the multi-dimensional fast fourier transform of arrays of one fixed shape, stored flat in row-major
+ * order so that the last axis is contiguous. Any subset of the axes can be transformed, one axis after the other, with
+ * batched one-dimensional transforms:
+ * <ul>
+ *     <li>Signals along the last axis are contiguous and transformed where they are.</li>
+ *     <li>Signals along every other axis have the stride of the values after that axis. For every index of the axes
+ *     before it they form a batch of interleaved signals, which is gathered in blocks of neighbouring signals so that
+ *     the strided values are read a whole cache line at a time.</li>
+ * </ul>
+ * The work is split across threads over the axes that are not being transformed. A plan is immutable and can be shared
+ * between threads.
+ */
+public class FftPlanND {
+
+    private final int[] shape;
+    private final int size;
+
+    /**
+     * The plan of every axis, shared between axes of the same length
+     */
+    private final FftPlan[] plans;
+
+    /**
+     * Constructs a plan for multi-dimensional transforms of arrays of the given shape.
+     *
+     * @param shape The length of every axis, from the outermost to the contiguous axis
+     * @throws IllegalArgumentException Thrown if there are no axes, a length is not positive or the array does not fit
+     *                                  into a buffer.
+     */
+    public FftPlanND(int... shape) throws IllegalArgumentException {
+        if (shape.length == 0)
+            throw new IllegalArgumentException("The plan has to have at least one axis.");
+        long size = 1;
+        for (int length : shape) {
+            if (length <= 0)
+                throw new IllegalArgumentException("The length of every axis of the plan has to be positive.");
+            size *= length;
+            if (size > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("The number of values of the plan has to fit into a buffer.");
+        }
+        this.shape = shape.clone();
+        this.size = (int) size;
+
+        plans = new FftPlan[shape.length];
+        for (int axis = 0; axis < shape.length; axis++) {
+            for (int other = 0; other < axis && plans[axis] == null; other++) {
+                if (shape[other] == shape[axis]) plans[axis] = plans[other];
+            }
+            if (plans[axis] == null) plans[axis] = new FftPlan(shape[axis]);
+        }
+    }
+
+    /**
+     * A method returning the length of every axis of the arrays transformed with this plan.
+     *
+     * @return A copy of the shape
+     */
+    public int[] getShape() {
+        return shape.clone();
+    }
+
+    /**
+     * A method returning the number of axes of the arrays transformed with this plan.
+     *
+     * @return The number of dimensions
+     */
+    public int getDimensions() {
+        return shape.length;
+    }
+
+    /**
+     * A method returning the number of values of the arrays transformed with this plan, the product of the shape.
+     *
+     * @return The size of the arrays
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "FftPlanND" + Arrays.toString(shape);
+    }
+
+    /**
+     * Performs an in-place transform along the given axes of an array stored in the first {@link #getSize()} values of
+     * the buffer. The inverse transform includes the division by the length of every transformed axis.
+     */
+    void transform(ComplexBuffer data, int[] axes, boolean inverse, Parallelism parallelism) {
+        double[] re = data.getRealCoefficients();
+        double[] im = data.getImagCoefficients();
+        for (int axis : axes) {
+            transformAxis(re, im, axis, inverse, parallelism);
+        }
+    }
+
+    private void transformAxis(double[] re, double[] im, int axis, boolean inverse, Parallelism parallelism) {
+        FftPlan plan = plans[axis];
+        int length = shape[axis];
+        int inner = 1;
+        for (int a = axis + 1; a < shape.length; a++) {
+            inner *= shape[a];
+        }
+        int outer = size / length / inner;
+
+        if (inner == 1) {
+            plan.transform(re, im, BatchLayout.contiguous(outer, length), inverse, parallelism);
+            return;
+        }
+        int tasks = parallelism.getTasks(size);
+        int block = length * inner;
+        if (outer < tasks) {
+            // too few outer indices to go around, so every batch splits its gathered blocks instead
+            for (int o = 0; o < outer; o++) {
+                plan.transform(re, im, new BatchLayout(inner, o * block, inner, 1), inverse, parallelism);
+            }
+            return;
+        }
+        int stride = inner;
+        parallelism.forEach(tasks, t -> {
+            for (int o = (int) ((long) t * outer / tasks); o < (long) (t + 1) * outer / tasks; o++) {
+                plan.transform(re, im, new BatchLayout(stride, o * block, stride, 1), inverse, Parallelism.sequential());
+            }
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A streaming finite impulse response (FIR) filter, which convolves an unbounded signal with a fixed kernel of m taps
+ * using the overlap-save method. The spectrum of the kernel is computed once. Every block of b input samples is
+ * transformed together with the last m-1 samples before it, multiplied by the kernel's spectrum and transformed back,
+ * and the b outputs which did not wrap around are kept. Filtering therefore costs O(log m) per sample instead of the
+ * O(m) of a direct convolution. The outputs of a block are returned while the next block is collected, so every
+ * output is delayed by exactly b samples. A filter keeps the state of one stream and cannot be shared between threads.
+ */
+public class FirFilter {
+
+    private final int kernelLength;
+    private final int blockSize;
+
+    private final RealFftPlan plan;
+    private final ComplexBuffer kernelSpectrum;
+
+    /**
+     * The m-1 samples before the current block, followed by the current block and zeros up to the plan's length
+     */
+    private final double[] segment;
+    private final ComplexBuffer spectrum;
+    private final double[] result;
+
+    /**
+     * The outputs of the last completed block
+     */
+    private final double[] output;
+
+    /**
+     * The number of samples of the current block
+     */
+    private int fill;
+
+    /**
+     * Constructs a filter with a block size chosen for the length of the kernel.
+     *
+     * @param kernel The taps of the filter
+     * @throws IllegalArgumentException Thrown if the kernel is empty.
+     */
+    public FirFilter(double[] kernel) throws IllegalArgumentException {
+        this(kernel, kernel.length == 0 ? 1 : segmentLength(kernel.length) - kernel.length + 1);
+    }
+
+    /**
+     * Constructs a filter collecting the given number of samples per block, which is also its latency.
+     *
+     * @param kernel    The taps of the filter
+     * @param blockSize The number of samples transformed at once
+     * @throws IllegalArgumentException Thrown if the kernel is empty or the block size is not positive.
+     */
+    public FirFilter(double[] kernel, int blockSize) throws IllegalArgumentException {
+        if (kernel.length == 0)
+            throw new IllegalArgumentException("The kernel cannot be empty.");
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("The block size has to be positive.");
+        kernelLength = kernel.length;
+        this.blockSize = blockSize;
+        plan = FftPlanCache.getDefault().getRealFftPlan(ConvolutionMethod.realLength(blockSize + kernelLength - 1));
+
+        segment = new double[plan.getLength()];
+        spectrum = new ComplexBuffer(plan.getSpectrumLength());
+        result = new double[plan.getLength()];
+        output = new double[blockSize];
+
+        kernelSpectrum = new ComplexBuffer(plan.getSpectrumLength());
+        System.arraycopy(kernel, 0, segment, 0, kernelLength);
+        plan.forward(segment, kernelSpectrum);
+        Arrays.fill(segment, 0);
+    }
+
+    /**
+     * A method returning the number of taps of the filter.
+     *
+     * @return The length of the kernel
+     */
+    public int getKernelLength() {
+        return kernelLength;
+    }
+
+    /**
+     * A method returning the number of samples transformed at once.
+     *
+     * @return The block size
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * A method returning the number of samples every output is delayed by, which is the block size. The output for
+     * the i-th input sample is returned together with the (i + latency)-th input sample.
+     *
+     * @return The latency of the filter
+     */
+    public int getLatency() {
+        return blockSize;
+    }
+
+    /**
+     * Filters the next samples of the signal into a new array of the same length.
+     *
+     * @param in The next samples of the signal
+     * @return The next outputs of the filter
+     */
+    public double[] process(double[] in) {
+        double[] out = new double[in.length];
+        process(in, 0, out, 0, in.length);
+        return out;
+    }
+
+    /**
+     * Filters the next samples of the signal, writing one output per input. The output may be the input array.
+     *
+     * @param in        The array holding the next samples of the signal
+     * @param inOffset  The index of the first sample to filter
+     * @param out       The array the outputs are written to
+     * @param outOffset The index the first output is written to
+     * @param count     The number of samples to filter
+     * @throws IllegalArgumentException Thrown if a range is not inside its array.
+     */
+    public void process(double[] in, int inOffset, double[] out, int outOffset, int count) throws IllegalArgumentException {
+        if (inOffset < 0 || outOffset < 0 || count < 0 || inOffset > in.length - count || outOffset > out.length - count)
+            throw new IllegalArgumentException("The ranges of samples have to be inside the arrays.");
+        while (count > 0) {
+            int step = Math.min(count, blockSize - fill);
+            System.arraycopy(in, inOffset, segment, kernelLength - 1 + fill, step);
+            System.arraycopy(output, fill, out, outOffset, step);
+            inOffset += step;
+            outOffset += step;
+            count -= step;
+            fill += step;
+            if (fill == blockSize) {
+                filterBlock();
+                fill = 0;
+            }
+        }
+    }
+
+    /**
+     * Discards every sample of the signal, so the filter starts over with an empty history.
+     */
+    public void reset() {
+        Arrays.fill(segment, 0);
+        Arrays.fill(output, 0);
+        fill = 0;
+    }
+
+    /**
+     * Writes the full linear convolution of a whole signal with the kernel, of length n+m-1, into the output without
+     * any latency. The filter is reset before and after.
+     */
+    void convolve(double[] signal, double[] out) {
+        reset();
+        for (int start = 0; start < out.length; start += blockSize) {
+            int count = Math.max(0, Math.min(blockSize, signal.length - start));
+            System.arraycopy(signal, Math.min(start, signal.length), segment, kernelLength - 1, count);
+            Arrays.fill(segment, kernelLength - 1 + count, kernelLength - 1 + blockSize, 0);
+            filterBlock();
+            System.arraycopy(output, 0, out, start, Math.min(blockSize, out.length - start));
+        }
+        reset();
+    }
+
+    /**
+     * Convolves the current segment with the kernel, keeps the outputs of the current block and moves the last m-1
+     * samples to the front of the segment.
+     */
+    private void filterBlock() {
+        plan.forward(segment, spectrum);
+        multiply(spectrum, kernelSpectrum);
+        plan.inverse(spectrum, result);
+        System.arraycopy(result, kernelLength - 1, output, 0, blockSize);
+        System.arraycopy(segment, blockSize, segment, 0, kernelLength - 1);
+    }
+
+    /**
+     * The length of the segments transformed for a kernel of the given length when no block size is given. Longer
+     * segments waste fewer outputs per transform, so four times the kernel keeps about three quarters of every segment.
+     */
+    static int segmentLength(int kernelLength) {
+        return ConvolutionMethod.realLength(Math.max(64, 4 * kernelLength));
+    }
+
+    /**
+     * Multiplies a spectrum by another one of the same length in place.
+     */
+    static void multiply(ComplexBuffer spectrum, ComplexBuffer by) {
+        double[] re = spectrum.getRealCoefficients();
+        double[] im = spectrum.getImagCoefficients();
+        double[] byRe = by.getRealCoefficients();
+        double[] byIm = by.getImagCoefficients();
+        for (int k = 0; k < spectrum.getLength(); k++) {
+            double r = re[k] * byRe[k] - im[k] * byIm[k];
+            im[k] = re[k] * byIm[k] + im[k] * byRe[k];
+            re[k] = r;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.FloatComplexBuffer;
+
+/**
+ * The single precision counterpart of {@link Bluestein}. The chirp is computed in double precision and stored as
+ * floats, and the kernel is transformed with the same power of two plan as the convolution.
+ */
+class FloatBluestein {
+
+    private final int length;
+
+    /**
+     * The power of two plan used for the convolution
+     */
+    private final FloatFftPlan plan;
+
+    /**
+     * cos(&pi;n<sup>2</sup>/N) and sin(&pi;n<sup>2</sup>/N) of the chirp
+     */
+    private final float[] chirpCos;
+    private final float[] chirpSin;
+
+    /**
+     * The transformed chirp convolution kernel
+     */
+    private final float[] kernelRe;
+    private final float[] kernelIm;
+
+    private final ThreadLocal<FloatComplexBuffer> scratch;
+
+    FloatBluestein(int length) {
+        this.length = length;
+        int size = Integer.highestOneBit(2 * length - 1);
+        if (size < 2 * length - 1) size <<= 1;
+        plan = new FloatFftPlan(size);
+
+        chirpCos = new float[length];
+        chirpSin = new float[length];
+        for (int n = 0; n < length; n++) {
+            // n^2 is reduced modulo 2N first, so large indices keep full precision
+            double theta = Math.PI * ((long) n * n % (2L * length)) / length;
+            chirpCos[n] = (float) Math.cos(theta);
+            chirpSin[n] = (float) Math.sin(theta);
+        }
+
+        kernelRe = new float[size];
+        kernelIm = new float[size];
+        for (int n = 0; n < length; n++) {
+            kernelRe[n] = chirpCos[n];
+            kernelIm[n] = chirpSin[n];
+            if (n > 0) {
+                kernelRe[size - n] = kernelRe[n];
+                kernelIm[size - n] = kernelIm[n];
+            }
+        }
+        plan.transform(kernelRe, kernelIm);
+
+        scratch = ThreadLocal.withInitial(() -> new FloatComplexBuffer(plan.getLength()));
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of the algorithm, including its power of two plan.
+     */
+    long getMemory() {
+        return 8L * length + 8L * kernelRe.length + plan.getMemory();
+    }
+
+    /**
+     * Transforms the data in place. The inverse is computed as conj(DFT(conj(x))) / N, with both conjugations and the
+     * division folded into the chirp multiplications.
+     */
+    void transform(float[] re, float[] im, int offset, boolean inverse) {
+        FloatComplexBuffer work = scratch.get();
+        float[] wr = work.getRealCoefficients();
+        float[] wi = work.getImagCoefficients();
+        float sign = inverse ? -1 : 1;
+        float scale = inverse ? 1f / length : 1;
+
+        for (int n = 0; n < length; n++) {
+            float xr = re[offset + n];
+            float xi = sign * im[offset + n];
+            wr[n] = xr * chirpCos[n] + xi * chirpSin[n];
+            wi[n] = xi * chirpCos[n] - xr * chirpSin[n];
+        }
+        for (int n = length; n < wr.length; n++) {
+            wr[n] = 0;
+            wi[n] = 0;
+        }
+
+        plan.transform(wr, wi, false);
+        for (int n = 0; n < wr.length; n++) {
+            float pr = wr[n] * kernelRe[n] - wi[n] * kernelIm[n];
+            float pi = wr[n] * kernelIm[n] + wi[n] * kernelRe[n];
+            wr[n] = pr;
+            wi[n] = pi;
+        }
+        plan.transform(wr, wi, true);
+
+        for (int k = 0; k < length; k++) {
+            float yr = wr[k] * scale;
+            float yi = wi[k] * scale;
+            re[offset + k] = yr * chirpCos[k] + yi * chirpSin[k];
+            im[offset + k] = sign * (yi * chirpCos[k] - yr * chirpSin[k]);
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package org.jiang.math.fourier;
+
+/**
+ * A reusable plan for the single precision fast fourier transform of one fixed length. The twiddles are computed in
+ * double precision and stored as floats, so the tables and the data take half the memory and bandwidth of an
+ * {@link FftPlan} at about seven significant digits of accuracy.
+ * <ul>
+ *     <li>Powers of two use radix-4 Cooley-Tukey butterflies, each fusing two radix-2 passes, after a bit-reversal
+ *     permutation, like {@link FftPlan}.</li>
+ *     <li>Lengths that only contain the prime factors 2, 3 and 5 use mixed radix 2/3/4/5 Cooley-Tukey butterflies
+ *     after a digit-reversal permutation, like {@link FftPlan}.</li>
+ *     <li>Every other length uses Bluestein's chirp-z algorithm on top of a power of two plan.</li>
+ * </ul>
+ * Every length is therefore transformed in O(n log n). Forward and inverse transforms share the same tables; the inverse
+ * conjugates the twiddles and folds the division by n into its last pass. Unlike {@link FftPlan}, every transform runs
+ * on the calling thread and there are no batched transforms. A plan is immutable and can be shared between threads.
+ */
+public class FloatFftPlan {
+
+    private static final float SIN_PI_3 = (float) Math.sin(Math.PI / 3);
+    private static final float COS_2PI_5 = (float) Math.cos(2 * Math.PI / 5);
+    private static final float COS_4PI_5 = (float) Math.cos(4 * Math.PI / 5);
+    private static final float SIN_2PI_5 = (float) Math.sin(2 * Math.PI / 5);
+    private static final float SIN_4PI_5 = (float) Math.sin(4 * Math.PI / 5);
+
+    private final int length;
+
+    /**
+     * For powers of two the twiddles of every radix-2 pass one after the other, cos(&pi;k/h) at index h-1+k for every
+     * half size h and k in [0, h), so every pass reads its twiddles contiguously. For mixed radix lengths cos(2&pi;k/n) for k in [0, n).
+     */
+    private final float[] cos;
+
+    /**
+     * The sines of the same angles as {@link #cos}
+     */
+    private final float[] sin;
+
+    /**
+     * The index every element is moved to before the butterflies are applied. Only used for powers of two.
+     */
+    private final int[] bitReversal;
+
+    /**
+     * The radices of the butterfly passes from the innermost to the outermost pass. Only used for mixed radix lengths.
+     */
+    private final int[] factors;
+
+    /**
+     * The digit-reversal permutation as consecutive pairs of indices to swap. Only used for mixed radix lengths.
+     */
+    private final int[] swaps;
+
+    /**
+     * The chirp-z transform used for lengths with a prime factor larger than five
+     */
+    private final FloatBluestein bluestein;
+
+    /**
+     * Constructs a plan for single precision transforms of the given length.
+     *
+     * @param length The length of the transforms performed with this plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public FloatFftPlan(int length) throws IllegalArgumentException {
+        if (length <= 0)
+            throw new IllegalArgumentException("The length of the plan has to be positive.");
+        this.length = length;
+
+        if ((length & (length - 1)) == 0) {
+            cos = new float[length - 1];
+            sin = new float[length - 1];
+            for (int half = 1; half < length; half <<= 1) {
+                for (int k = 0; k < half; k++) {
+                    cos[half - 1 + k] = (float) Math.cos(Math.PI * k / half);
+                    sin[half - 1 + k] = (float) Math.sin(Math.PI * k / half);
+                }
+            }
+            bitReversal = new int[length];
+            int bits = Integer.numberOfTrailingZeros(length);
+            for (int i = 0; i < length; i++) {
+                bitReversal[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (Integer.SIZE - bits);
+            }
+            factors = null;
+            swaps = null;
+            bluestein = null;
+        } else if ((factors = FftPlan.factorize(length)) != null) {
+            cos = new float[length];
+            sin = new float[length];
+            for (int k = 0; k < length; k++) {
+                cos[k] = (float) Math.cos(2 * Math.PI * k / length);
+                sin[k] = (float) Math.sin(2 * Math.PI * k / length);
+            }
+            swaps = FftPlan.digitReversalSwaps(length, factors);
+            bitReversal = null;
+            bluestein = null;
+        } else {
+            cos = null;
+            sin = null;
+            bitReversal = null;
+            swaps = null;
+            bluestein = new FloatBluestein(length);
+        }
+    }
+
+    /**
+     * A method returning the length of the transforms performed with this plan.
+     *
+     * @return The length of the plan
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of this plan, without the scratch buffers kept per thread.
+     *
+     * @return The approximate memory of the plan
+     */
+    long getMemory() {
+        long bytes = 64;
+        if (cos != null) bytes += 8L * cos.length;
+        if (bitReversal != null) bytes += 4L * bitReversal.length;
+        if (swaps != null) bytes += 4L * swaps.length;
+        if (bluestein != null) bytes += bluestein.getMemory();
+        return bytes;
+    }
+
+    /**
+     * Performs an in-place forward transform on the first {@link #getLength()} values of the given arrays.
+     *
+     * @param re The real parts of the data
+     * @param im The imaginary parts of the data
+     */
+    void transform(float[] re, float[] im) {
+        transform(re, im, 0, false);
+    }
+
+    /**
+     * Performs an in-place transform on the first {@link #getLength()} values of the given arrays. The inverse
+     * transform includes the division by n.
+     *
+     * @param re      The real parts of the data
+     * @param im      The imaginary parts of the data
+     * @param inverse Whether the inverse transform is performed
+     */
+    void transform(float[] re, float[] im, boolean inverse) {
+        transform(re, im, 0, inverse);
+    }
+
+    /**
+     * Performs an in-place transform on the {@link #getLength()} values of the given arrays starting at the offset.
+     * The inverse transform includes the division by n.
+     *
+     * @param re      The real parts of the data
+     * @param im      The imaginary parts of the data
+     * @param offset  The index of the first value of the data
+     * @param inverse Whether the inverse transform is performed
+     */
+    void transform(float[] re, float[] im, int offset, boolean inverse) {
+        if (bluestein != null) {
+            bluestein.transform(re, im, offset, inverse);
+            return;
+        }
+        if (factors != null) {
+            mixedRadix(re, im, offset, inverse);
+            return;
+        }
+        radix2(re, im, offset, inverse);
+    }
+
+    /**
+     * The power of two transform, which like {@link FftPlan} fuses pairs of consecutive radix-2 passes into radix-4
+     * passes, halving the number of sweeps over the data and saving a quarter of the twiddle multiplications; an odd
+     * number of passes leaves one radix-2 pass first. The passes always run on the calling thread.
+     */
+    private void radix2(float[] re, float[] im, int offset, boolean inverse) {
+        for (int i = 0; i < length; i++) {
+            int j = bitReversal[i];
+            if (i < j) {
+                float tmp = re[offset + i];
+                re[offset + i] = re[offset + j];
+                re[offset + j] = tmp;
+                tmp = im[offset + i];
+                im[offset + i] = im[offset + j];
+                im[offset + j] = tmp;
+            }
+        }
+
+        int end = offset + length;
+        int half = 1;
+        if (Integer.numberOfTrailingZeros(length) % 2 != 0) {
+            if (inverse && length == 2) {
+                // the only pass is also the last pass of the inverse, which divides by n
+                float ar = re[offset] * 0.5f;
+                float ai = im[offset] * 0.5f;
+                float tr = re[offset + 1] * 0.5f;
+                float ti = im[offset + 1] * 0.5f;
+                re[offset + 1] = ar - tr;
+                im[offset + 1] = ai - ti;
+                re[offset] = ar + tr;
+                im[offset] = ai + ti;
+                return;
+            }
+            // the first pass only has the twiddle 1
+            half = 2;
+            for (int a = offset; a < end; a += 2) {
+                float tr = re[a + 1];
+                float ti = im[a + 1];
+                re[a + 1] = re[a] - tr;
+                im[a + 1] = im[a] - ti;
+                re[a] += tr;
+                im[a] += ti;
+            }
+        }
+        for (; half < length; half <<= 2) {
+            float scale = inverse && 4 * half == length ? 1f / length : 1;
+            for (int block = offset; block < end; block += 4 * half) {
+                radix4(re, im, block, half, inverse, scale);
+            }
+        }
+    }
+
+    /**
+     * The butterflies of the block of a radix-4 pass, which fuses the radix-2 pass combining halves of the given size
+     * with the following pass. The four values k, k + h, k + 2h and k + 3h are combined with the twiddles
+     * W<sub>2h</sub><sup>k</sup> and W<sub>4h</sub><sup>k</sup>; the twiddle W<sub>4h</sub><sup>k+h</sup> of the
+     * second pass is W<sub>4h</sub><sup>k</sup> rotated by a quarter turn, which costs no multiplications. The outputs
+     * are multiplied by the scale, which is only different from one in the last pass of the inverse.
+     */
+    private void radix4(float[] re, float[] im, int block, int half, boolean inverse, float scale) {
+        float sign = inverse ? 1 : -1;
+        for (int a = block, t = half - 1, u = 2 * half - 1; a < block + half; a++, t++, u++) {
+            int b = a + half;
+            int c = b + half;
+            int d = c + half;
+            float w1r = cos[t];
+            float w1i = sign * sin[t];
+            float w2r = cos[u];
+            float w2i = sign * sin[u];
+
+            // the first radix-2 pass on (a, b) and (c, d)
+            float tr = w1r * re[b] - w1i * im[b];
+            float ti = w1r * im[b] + w1i * re[b];
+            float ar = re[a] + tr;
+            float ai = im[a] + ti;
+            float br = re[a] - tr;
+            float bi = im[a] - ti;
+            tr = w1r * re[d] - w1i * im[d];
+            ti = w1r * im[d] + w1i * re[d];
+            float cr = re[c] + tr;
+            float ci = im[c] + ti;
+            float dr = re[c] - tr;
+            float di = im[c] - ti;
+
+            // the second radix-2 pass on (a, c) with W^k and (b, d) with W^(k+h) = W^k times -i, or i for the inverse
+            tr = w2r * cr - w2i * ci;
+            ti = w2r * ci + w2i * cr;
+            float sr = w2r * dr - w2i * di;
+            float si = w2r * di + w2i * dr;
+            float qr = -sign * si;
+            float qi = sign * sr;
+            if (scale != 1) {
+                ar *= scale;
+                ai *= scale;
+                br *= scale;
+                bi *= scale;
+                tr *= scale;
+                ti *= scale;
+                qr *= scale;
+                qi *= scale;
+            }
+            re[a] = ar + tr;
+            im[a] = ai + ti;
+            re[c] = ar - tr;
+            im[c] = ai - ti;
+            re[b] = br + qr;
+            im[b] = bi + qi;
+            re[d] = br - qr;
+            im[d] = bi - qi;
+        }
+    }
+
+    /**
+     * The mixed radix transform, running the passes from the innermost to the outermost radix after the digit-reversal
+     * permutation.
+     */
+    private void mixedRadix(float[] re, float[] im, int offset, boolean inverse) {
+        for (int i = 0; i < swaps.length; i += 2) {
+            int a = offset + swaps[i];
+            int b = offset + swaps[i + 1];
+            float tmp = re[a];
+            re[a] = re[b];
+            re[b] = tmp;
+            tmp = im[a];
+            im[a] = im[b];
+            im[b] = tmp;
+        }
+
+        float sign = inverse ? -1 : 1;
+        for (int f = 0, m = 1; f < factors.length; f++) {
+            int radix = factors[f];
+            int span = radix * m;
+            int stride = length / span;
+            float scale = inverse && f == factors.length - 1 ? 1f / length : 1;
+            for (int block = offset; block < offset + length; block += span) {
+                for (int k = 0; k < m; k++) {
+                    switch (radix) {
+                        case 2:
+                            butterfly2(re, im, block + k, m, k * stride, sign, scale);
+                            break;
+                        case 3:
+                            butterfly3(re, im, block + k, m, k * stride, sign, scale);
+                            break;
+                        case 4:
+                            butterfly4(re, im, block + k, m, k * stride, sign, scale);
+                            break;
+                        default:
+                            butterfly5(re, im, block + k, m, k * stride, sign, scale);
+                            break;
+                    }
+                }
+            }
+            m = span;
+        }
+    }
+
+    private void butterfly2(float[] re, float[] im, int i0, int m, int t, float sign, float scale) {
+        int i1 = i0 + m;
+        float r1 = re[i1] * cos[t] + im[i1] * sign * sin[t];
+        float m1 = im[i1] * cos[t] - re[i1] * sign * sin[t];
+        re[i1] = (re[i0] - r1) * scale;
+        im[i1] = (im[i0] - m1) * scale;
+        re[i0] = (re[i0] + r1) * scale;
+        im[i0] = (im[i0] + m1) * scale;
+    }
+
+    private void butterfly3(float[] re, float[] im, int i0, int m, int t, float sign, float scale) {
+        int i1 = i0 + m;
+        int i2 = i1 + m;
+        float r1 = re[i1] * cos[t] + im[i1] * sign * sin[t];
+        float m1 = im[i1] * cos[t] - re[i1] * sign * sin[t];
+        float r2 = re[i2] * cos[2 * t] + im[i2] * sign * sin[2 * t];
+        float m2 = im[i2] * cos[2 * t] - re[i2] * sign * sin[2 * t];
+
+        float sr = r1 + r2;
+        float si = m1 + m2;
+        float dr = (r1 - r2) * SIN_PI_3 * sign;
+        float di = (m1 - m2) * SIN_PI_3 * sign;
+        float hr = re[i0] - 0.5f * sr;
+        float hi = im[i0] - 0.5f * si;
+
+        re[i0] = (re[i0] + sr) * scale;
+        im[i0] = (im[i0] + si) * scale;
+        re[i1] = (hr + di) * scale;
+        im[i1] = (hi - dr) * scale;
+        re[i2] = (hr - di) * scale;
+        im[i2] = (hi + dr) * scale;
+    }
+
+    private void butterfly4(float[] re, float[] im, int i0, int m, int t, float sign, float scale) {
+        int i1 = i0 + m;
+        int i2 = i1 + m;
+        int i3 = i2 + m;
+        float r1 = re[i1] * cos[t] + im[i1] * sign * sin[t];
+        float m1 = im[i1] * cos[t] - re[i1] * sign * sin[t];
+        float r2 = re[i2] * cos[2 * t] + im[i2] * sign * sin[2 * t];
+        float m2 = im[i2] * cos[2 * t] - re[i2] * sign * sin[2 * t];
+        float r3 = re[i3] * cos[3 * t] + im[i3] * sign * sin[3 * t];
+        float m3 = im[i3] * cos[3 * t] - re[i3] * sign * sin[3 * t];
+
+        float ar = re[i0] + r2;
+        float ai = im[i0] + m2;
+        float br = re[i0] - r2;
+        float bi = im[i0] - m2;
+        float cr = r1 + r3;
+        float ci = m1 + m3;
+        float dr = (r1 - r3) * sign;
+        float di = (m1 - m3) * sign;
+
+        re[i0] = (ar + cr) * scale;
+        im[i0] = (ai + ci) * scale;
+        re[i1] = (br + di) * scale;
+        im[i1] = (bi - dr) * scale;
+        re[i2] = (ar - cr) * scale;
+        im[i2] = (ai - ci) * scale;
+        re[i3] = (br - di) * scale;
+        im[i3] = (bi + dr) * scale;
+    }
+
+    private void butterfly5(float[] re, float[] im, int i0, int m, int t, float sign, float scale) {
+        int i1 = i0 + m;
+        int i2 = i1 + m;
+        int i3 = i2 + m;
+        int i4 = i3 + m;
+        float r1 = re[i1] * cos[t] + im[i1] * sign * sin[t];
+        float m1 = im[i1] * cos[t] - re[i1] * sign * sin[t];
+        float r2 = re[i2] * cos[2 * t] + im[i2] * sign * sin[2 * t];
+        float m2 = im[i2] * cos[2 * t] - re[i2] * sign * sin[2 * t];
+        float r3 = re[i3] * cos[3 * t] + im[i3] * sign * sin[3 * t];
+        float m3 = im[i3] * cos[3 * t] - re[i3] * sign * sin[3 * t];
+        float r4 = re[i4] * cos[4 * t] + im[i4] * sign * sin[4 * t];
+        float m4 = im[i4] * cos[4 * t] - re[i4] * sign * sin[4 * t];
+
+        float s1r = r1 + r4;
+        float s1i = m1 + m4;
+        float d1r = r1 - r4;
+        float d1i = m1 - m4;
+        float s2r = r2 + r3;
+        float s2i = m2 + m3;
+        float d2r = r2 - r3;
+        float d2i = m2 - m3;
+
+        float ar = re[i0] + COS_2PI_5 * s1r + COS_4PI_5 * s2r;
+        float ai = im[i0] + COS_2PI_5 * s1i + COS_4PI_5 * s2i;
+        float br = re[i0] + COS_4PI_5 * s1r + COS_2PI_5 * s2r;
+        float bi = im[i0] + COS_4PI_5 * s1i + COS_2PI_5 * s2i;
+        // the odd parts are multiplied by -i for the forward and by i for the inverse transform
+        float er = (SIN_2PI_5 * d1i + SIN_4PI_5 * d2i) * sign;
+        float ei = -(SIN_2PI_5 * d1r + SIN_4PI_5 * d2r) * sign;
+        float fr = (SIN_4PI_5 * d1i - SIN_2PI_5 * d2i) * sign;
+        float fi = -(SIN_4PI_5 * d1r - SIN_2PI_5 * d2r) * sign;
+
+        re[i0] = (re[i0] + s1r + s2r) * scale;
+        im[i0] = (im[i0] + s1i + s2i) * scale;
+        re[i1] = (ar + er) * scale;
+        im[i1] = (ai + ei) * scale;
+        re[i4] = (ar - er) * scale;
+        im[i4] = (ai - ei) * scale;
+        re[i2] = (br + fr) * scale;
+        im[i2] = (bi + fi) * scale;
+        re[i3] = (br - fr) * scale;
+        im[i3] = (bi - fi) * scale;
+    }
+}
@@ -0,0 +1,205 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.FloatComplexBuffer;
+
+import java.util.Arrays;
+
+/**
+ * The single precision counterpart of {@link RealFftPlan}, transforming real input of one fixed length into the
+ * n/2+1 non-redundant bins of its Hermitian spectrum. Even lengths pack the even and odd samples into an n/2 point
+ * {@link FloatFftPlan} and separate the two half spectra with one pass of precomputed twiddles; odd lengths fall back
+ * to a full complex transform. A plan is immutable and can be shared between threads.
+ */
+public class FloatRealFftPlan {
+
+    private final int length;
+
+    /**
+     * The complex plan of length n/2 for even lengths or n for odd lengths
+     */
+    private final FloatFftPlan plan;
+
+    /**
+     * cos(2&pi;k/n) and sin(2&pi;k/n) for k in [0, n/2). Only used for even lengths.
+     */
+    private final float[] cos;
+    private final float[] sin;
+
+    private final ThreadLocal<FloatComplexBuffer> scratch;
+
+    /**
+     * Constructs a plan for single precision real transforms of the given length.
+     *
+     * @param length The length of the real input of the transforms performed with this plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public FloatRealFftPlan(int length) throws IllegalArgumentException {
+        this(length, FftPlanCache.getDefault());
+    }
+
+    /**
+     * Constructs a plan for single precision real transforms of the given length, taking its complex plan from the
+     * given cache.
+     *
+     * @param length The length of the real input of the transforms performed with this plan
+     * @param cache  The cache the complex plan is taken from
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    FloatRealFftPlan(int length, FftPlanCache cache) throws IllegalArgumentException {
+        if (length <= 0)
+            throw new IllegalArgumentException("The length of the plan has to be positive.");
+        this.length = length;
+
+        if (length % 2 == 0) {
+            int half = length / 2;
+            plan = cache.getFloatFftPlan(half);
+            cos = new float[half];
+            sin = new float[half];
+            for (int k = 0; k < half; k++) {
+                cos[k] = (float) Math.cos(2 * Math.PI * k / length);
+                sin[k] = (float) Math.sin(2 * Math.PI * k / length);
+            }
+        } else {
+            plan = cache.getFloatFftPlan(length);
+            cos = null;
+            sin = null;
+        }
+        scratch = ThreadLocal.withInitial(() -> new FloatComplexBuffer(plan.getLength()));
+    }
+
+    /**
+     * A method returning the length of the real input of the transforms performed with this plan.
+     *
+     * @return The length of the plan
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * A method returning the number of non-redundant bins of the spectrum, n/2+1.
+     *
+     * @return The length of the spectrum produced by this plan
+     */
+    public int getSpectrumLength() {
+        return length / 2 + 1;
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of this plan, without the scratch buffers kept per thread and without
+     * the complex plan, which is counted by the cache it was taken from.
+     *
+     * @return The approximate memory of the plan
+     */
+    long getMemory() {
+        return cos == null ? 0 : 8L * cos.length;
+    }
+
+    /**
+     * Transforms the first {@link #getLength()} values of the input into the first {@link #getSpectrumLength()}
+     * values of the output.
+     *
+     * @param in  The real input
+     * @param out The buffer the spectrum is written to
+     */
+    void forward(float[] in, FloatComplexBuffer out) {
+        float[] re = out.getRealCoefficients();
+        float[] im = out.getImagCoefficients();
+        if (cos == null) {
+            FloatComplexBuffer work = scratch.get();
+            float[] wr = work.getRealCoefficients();
+            float[] wi = work.getImagCoefficients();
+            System.arraycopy(in, 0, wr, 0, length);
+            Arrays.fill(wi, 0);
+            plan.transform(wr, wi);
+            System.arraycopy(wr, 0, re, 0, getSpectrumLength());
+            System.arraycopy(wi, 0, im, 0, getSpectrumLength());
+            return;
+        }
+
+        int half = length / 2;
+        for (int j = 0; j < half; j++) {
+            re[j] = in[2 * j];
+            im[j] = in[2 * j + 1];
+        }
+        plan.transform(re, im);
+
+        float zr = re[0];
+        float zi = im[0];
+        re[0] = zr + zi;
+        im[0] = 0;
+        re[half] = zr - zi;
+        im[half] = 0;
+
+        for (int k = 1, j = half - 1; k <= j; k++, j--) {
+            float ar = re[k];
+            float ai = im[k];
+            float br = re[j];
+            float bi = im[j];
+
+            // X[k] = E[k] + W^k O[k] where E and O are the spectra of the even and odd samples
+            float er = (ar + br) / 2;
+            float ei = (ai - bi) / 2;
+            float or = (ai + bi) / 2;
+            float oi = (br - ar) / 2;
+            re[k] = er + cos[k] * or + sin[k] * oi;
+            im[k] = ei + cos[k] * oi - sin[k] * or;
+
+            // X[n/2-k] uses E[n/2-k] = conj(E[k]), O[n/2-k] = conj(O[k]) and W^(n/2-k) = -conj(W^k)
+            re[j] = er - cos[k] * or - sin[k] * oi;
+            im[j] = -ei + cos[k] * oi - sin[k] * or;
+        }
+    }
+
+    /**
+     * Transforms the first {@link #getSpectrumLength()} values of a Hermitian spectrum back into the first
+     * {@link #getLength()} values of the real output, including the division by n. The spectrum is left unchanged.
+     *
+     * @param in  The non-redundant half of the spectrum
+     * @param out The array the real signal is written to
+     */
+    void inverse(FloatComplexBuffer in, float[] out) {
+        float[] re = in.getRealCoefficients();
+        float[] im = in.getImagCoefficients();
+        FloatComplexBuffer work = scratch.get();
+        float[] wr = work.getRealCoefficients();
+        float[] wi = work.getImagCoefficients();
+
+        if (cos == null) {
+            wr[0] = re[0];
+            wi[0] = 0;
+            for (int k = 1; k < getSpectrumLength(); k++) {
+                wr[k] = re[k];
+                wi[k] = im[k];
+                wr[length - k] = re[k];
+                wi[length - k] = -im[k];
+            }
+            plan.transform(wr, wi, true);
+            System.arraycopy(wr, 0, out, 0, length);
+            return;
+        }
+
+        int half = length / 2;
+        for (int k = 0; k < half; k++) {
+            float xr = re[k];
+            float xi = im[k];
+            float yr = re[half - k];
+            float yi = im[half - k];
+
+            // Z[k] = E[k] + i O[k] with E[k] = (X[k] + conj(X[n/2-k])) / 2 and O[k] = (X[k] - conj(X[n/2-k])) / 2 W^-k
+            float er = (xr + yr) / 2;
+            float ei = (xi - yi) / 2;
+            float dr = (xr - yr) / 2;
+            float di = (xi + yi) / 2;
+            float or = dr * cos[k] - di * sin[k];
+            float oi = dr * sin[k] + di * cos[k];
+            wr[k] = er - oi;
+            wi[k] = ei + or;
+        }
+        plan.transform(wr, wi, true);
+        for (int j = 0; j < half; j++) {
+            out[2 * j] = wr[j];
+            out[2 * j + 1] = wi[j];
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package org.jiang.math.fourier;
 
 import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.jiang.math.complex.FloatComplexBuffer;
+import org.jiang.math.matrix.DoubleMatrix;
+import org.jiang.math.matrix.IntegerVector;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Class containing the fourier transformation algorithms
  */
 public class Fourier {
 
+    /**
+     * The number of terms a twiddle factor is rotated by recurrence before it is recomputed exactly. This bounds the
+     * rounding error of the direct transforms while keeping the number of trigonometric calls low.
+     */
+    private static final int TWIDDLE_RESEED = 64;
+
     /**
      * A method calculating the discrete fourier transform (DFT) from a given array of complex numbers.
      * Order of the algorithm is O(n<sup>2</sup>)
@@ -17,19 +31,9 @@ public class Fourier {
      * @return The transformed array after performing the DFT
      */
     public static Complex[] discreteFourierTransform(Complex[] data) {
-        Complex[] transformArr = new Complex[data.length];
-
-        for (int k = 0; k < transformArr.length; k++) {
-            Complex sum = new Complex(0, 0, Complex.Mode.RECTANGULAR);
-            for (int n = 0; n < data.length; n++) {
-                sum.add(
-                        new Complex(data[n])
-                                .multiply(Complex.exp(new Complex(0, (-2 * Math.PI * k * n) / data.length, Complex.Mode.RECTANGULAR)))
-                );
-            }
-            transformArr[k] = sum;
-        }
-        return transformArr;
+        ComplexBuffer out = new ComplexBuffer(data.length);
+        discreteFourierTransform(new ComplexBuffer(data), out);
+        return out.toComplexArray();
     }
 
     /**
@@ -40,19 +44,238 @@ public class Fourier {
      * @return The transformed array after performing the DFT
      */
     public static Complex[] discreteFourierTransform(double[] data) {
-        Complex[] transformArr = new Complex[data.length];
-
-        for (int k = 0; k < transformArr.length; k++) {
-            Complex sum = new Complex();
-            for (int n = 0; n < data.length; n++) {
-                sum.add(
-                        Complex.exp(new Complex(0, (-2 * Math.PI * k * n) / data.length, Complex.Mode.RECTANGULAR))
-                                .multiply(data[n])
-                );
+        ComplexBuffer out = new ComplexBuffer(data.length);
+        discreteFourierTransform(data, out);
+        return out.toComplexArray();
+    }
+
+    /**
+     * A method calculating the discrete fourier transform (DFT) of a buffer of complex numbers into another buffer.
+     * No memory is allocated. The order of the algorithm is O(n<sup>2</sup>)
+     *
+     * @param in  The buffer of complex numbers to perform the DFT on
+     * @param out The buffer the transformed values are written to. It has to be a different buffer than the input.
+     * @throws IllegalArgumentException Thrown if the buffers are not the same length or are the same buffer.
+     */
+    public static void discreteFourierTransform(ComplexBuffer in, ComplexBuffer out) throws IllegalArgumentException {
+        checkBuffers(in.getLength(), in, out);
+        discreteFourierTransform(in.getRealCoefficients(), in.getImagCoefficients(),
+                out.getRealCoefficients(), out.getImagCoefficients(), false);
+    }
+
+    /**
+     * A method calculating the discrete fourier transform (DFT) of an array of real numbers into a buffer.
+     * No memory is allocated. The order of the algorithm is O(n<sup>2</sup>)
+     *
+     * @param in  The array of real numbers to perform the DFT on
+     * @param out The buffer the transformed values are written to
+     * @throws IllegalArgumentException Thrown if the buffer is not the same length as the input array.
+     */
+    public static void discreteFourierTransform(double[] in, ComplexBuffer out) throws IllegalArgumentException {
+        checkBuffers(in.length, null, out);
+        discreteFourierTransform(in, null, out.getRealCoefficients(), out.getImagCoefficients(), false);
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transform (IDFT) from a given array of complex numbers. The
+     * result is divided by n, so it undoes {@link #discreteFourierTransform(Complex[])}.
+     * Order of the algorithm is O(n<sup>2</sup>)
+     *
+     * @param data An array of complex numbers to perform the IDFT on
+     * @return The transformed array after performing the IDFT
+     */
+    public static Complex[] inverseDiscreteFourierTransform(Complex[] data) {
+        ComplexBuffer out = new ComplexBuffer(data.length);
+        inverseDiscreteFourierTransform(new ComplexBuffer(data), out);
+        return out.toComplexArray();
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transform (IDFT) of a buffer of complex numbers into another
+     * buffer. The result is divided by n. No memory is allocated. The order of the algorithm is O(n<sup>2</sup>)
+     *
+     * @param in  The buffer of complex numbers to perform the IDFT on
+     * @param out The buffer the transformed values are written to. It has to be a different buffer than the input.
+     * @throws IllegalArgumentException Thrown if the buffers are not the same length or are the same buffer.
+     */
+    public static void inverseDiscreteFourierTransform(ComplexBuffer in, ComplexBuffer out) throws IllegalArgumentException {
+        checkBuffers(in.getLength(), in, out);
+        discreteFourierTransform(in.getRealCoefficients(), in.getImagCoefficients(),
+                out.getRealCoefficients(), out.getImagCoefficients(), true);
+    }
+
+    private static void discreteFourierTransform(double[] inRe, double[] inIm, double[] outRe, double[] outIm, boolean inverse) {
+        int size = inRe.length;
+        double sign = inverse ? 1 : -1;
+        double scale = inverse ? 1.0 / size : 1;
+        for (int k = 0; k < size; k++) {
+            double sumRe = 0;
+            double sumIm = 0;
+            double wr = 1;
+            double wi = 0;
+            double stepRe = Math.cos(2 * Math.PI * k / size);
+            double stepIm = sign * Math.sin(2 * Math.PI * k / size);
+            for (int n = 0; n < size; n++) {
+                if (n % TWIDDLE_RESEED == 0) {
+                    double theta = sign * 2 * Math.PI * (((long) k * n) % size) / size;
+                    wr = Math.cos(theta);
+                    wi = Math.sin(theta);
+                }
+                double re = inRe[n];
+                double im = inIm == null ? 0 : inIm[n];
+                sumRe += re * wr - im * wi;
+                sumIm += re * wi + im * wr;
+
+                double tmp = wr * stepRe - wi * stepIm;
+                wi = wr * stepIm + wi * stepRe;
+                wr = tmp;
             }
-            transformArr[k] = sum;
+            outRe[k] = sumRe * scale;
+            outIm[k] = sumIm * scale;
+        }
+    }
+
+    /**
+     * A method calculating selected bins of the discrete fourier transform (DFT) of real numbers with the Goertzel
+     * algorithm. Every bin costs one pass of a second order recurrence over the data, so the order of the algorithm is
+     * O(kn) for k bins, which is faster than a full FFT while k is smaller than about log n.
+     *
+     * @param data An array of real numbers to evaluate the bins on
+     * @param bins The bins of the DFT to calculate, each inside [0, n)
+     * @return The values of the bins in the given order
+     * @throws IllegalArgumentException Thrown if the input array is empty or a bin is not inside [0, n).
+     */
+    public static Complex[] goertzel(double[] data, int[] bins) throws IllegalArgumentException {
+        ComplexBuffer out = new ComplexBuffer(bins.length);
+        goertzel(data, bins, out);
+        return out.toComplexArray();
+    }
+
+    /**
+     * A method calculating selected bins of the discrete fourier transform (DFT) of real numbers into a buffer with
+     * the Goertzel algorithm. Four bins are evaluated together in every pass over the data, so the data is read once
+     * per four bins. The order of the algorithm is O(kn) for k bins
+     *
+     * @param data An array of real numbers to evaluate the bins on
+     * @param bins The bins of the DFT to calculate, each inside [0, n)
+     * @param out  The buffer the values of the bins are written to in the given order
+     * @throws IllegalArgumentException Thrown if the input array is empty, a bin is not inside [0, n) or the buffer's
+     *                                  size does not match the number of bins.
+     */
+    public static void goertzel(double[] data, int[] bins, ComplexBuffer out) throws IllegalArgumentException {
+        int size = data.length;
+        if (size == 0)
+            throw new IllegalArgumentException("The input array cannot be empty.");
+        if (out.getLength() != bins.length)
+            throw new IllegalArgumentException("The size of the buffer has to match the number of bins.");
+        double[] omega = new double[bins.length];
+        double[] phase = new double[bins.length];
+        for (int b = 0; b < bins.length; b++) {
+            if (bins[b] < 0 || bins[b] >= size)
+                throw new IllegalArgumentException("Every bin has to be inside [0, n).");
+            omega[b] = 2 * Math.PI * bins[b] / size;
+            phase[b] = 2 * Math.PI * ((long) bins[b] * (size - 1) % size) / size;
+        }
+        goertzel(data, omega, phase, out.getRealCoefficients(), out.getImagCoefficients());
+    }
+
+    /**
+     * A method calculating the discrete-time fourier transform of real numbers at arbitrary frequencies with the
+     * Goertzel algorithm. A frequency f is evaluated as the sum of x[j] e^(-2&pi;ifj/rate), so frequencies between the
+     * bins of the DFT can be evaluated as well. The order of the algorithm is O(kn) for k frequencies
+     *
+     * @param data        An array of real numbers sampled at the sample rate
+     * @param frequencies The frequencies to evaluate, in the unit of the sample rate
+     * @param sampleRate  The number of samples per unit of time
+     * @return The values at the frequencies in the given order
+     * @throws IllegalArgumentException Thrown if the input array is empty or the sample rate is not positive.
+     */
+    public static Complex[] goertzel(double[] data, double[] frequencies, double sampleRate) throws IllegalArgumentException {
+        ComplexBuffer out = new ComplexBuffer(frequencies.length);
+        goertzel(data, frequencies, sampleRate, out);
+        return out.toComplexArray();
+    }
+
+    /**
+     * A method calculating the discrete-time fourier transform of real numbers at arbitrary frequencies into a buffer
+     * with the Goertzel algorithm. The order of the algorithm is O(kn) for k frequencies
+     *
+     * @param data        An array of real numbers sampled at the sample rate
+     * @param frequencies The frequencies to evaluate, in the unit of the sample rate
+     * @param sampleRate  The number of samples per unit of time
+     * @param out         The buffer the values at the frequencies are written to in the given order
+     * @throws IllegalArgumentException Thrown if the input array is empty, the sample rate is not positive or the
+     *                                  buffer's size does not match the number of frequencies.
+     */
+    public static void goertzel(double[] data, double[] frequencies, double sampleRate, ComplexBuffer out) throws IllegalArgumentException {
+        if (data.length == 0)
+            throw new IllegalArgumentException("The input array cannot be empty.");
+        if (!(sampleRate > 0))
+            throw new IllegalArgumentException("The sample rate has to be positive.");
+        if (out.getLength() != frequencies.length)
+            throw new IllegalArgumentException("The size of the buffer has to match the number of frequencies.");
+        double[] omega = new double[frequencies.length];
+        double[] phase = new double[frequencies.length];
+        for (int b = 0; b < frequencies.length; b++) {
+            omega[b] = 2 * Math.PI * frequencies[b] / sampleRate;
+            phase[b] = omega[b] * (data.length - 1);
         }
-        return transformArr;
+        goertzel(data, omega, phase, out.getRealCoefficients(), out.getImagCoefficients());
+    }
+
+    /**
+     * Runs the Goertzel recurrence s[j] = x[j] + 2cos(&omega;) s[j-1] - s[j-2] for every angular frequency, four at a
+     * time, and finishes every one with X = e^(-i phase) (s[n-1] - e^(-i&omega;) s[n-2]) where the phase is
+     * &omega;(n-1).
+     */
+    private static void goertzel(double[] data, double[] omega, double[] phase, double[] outRe, double[] outIm) {
+        int count = omega.length;
+        int b = 0;
+        for (; b + 4 <= count; b += 4) {
+            double c0 = 2 * Math.cos(omega[b]);
+            double c1 = 2 * Math.cos(omega[b + 1]);
+            double c2 = 2 * Math.cos(omega[b + 2]);
+            double c3 = 2 * Math.cos(omega[b + 3]);
+            double p0 = 0, q0 = 0, p1 = 0, q1 = 0, p2 = 0, q2 = 0, p3 = 0, q3 = 0;
+            for (double x : data) {
+                double s0 = x + c0 * p0 - q0;
+                double s1 = x + c1 * p1 - q1;
+                double s2 = x + c2 * p2 - q2;
+                double s3 = x + c3 * p3 - q3;
+                q0 = p0;
+                q1 = p1;
+                q2 = p2;
+                q3 = p3;
+                p0 = s0;
+                p1 = s1;
+                p2 = s2;
+                p3 = s3;
+            }
+            finishGoertzel(omega[b], phase[b], p0, q0, outRe, outIm, b);
+            finishGoertzel(omega[b + 1], phase[b + 1], p1, q1, outRe, outIm, b + 1);
+            finishGoertzel(omega[b + 2], phase[b + 2], p2, q2, outRe, outIm, b + 2);
+            finishGoertzel(omega[b + 3], phase[b + 3], p3, q3, outRe, outIm, b + 3);
+        }
+        for (; b < count; b++) {
+            double c = 2 * Math.cos(omega[b]);
+            double p = 0, q = 0;
+            for (double x : data) {
+                double s = x + c * p - q;
+                q = p;
+                p = s;
+            }
+            finishGoertzel(omega[b], phase[b], p, q, outRe, outIm, b);
+        }
+    }
+
+    private static void finishGoertzel(double omega, double phase, double last, double previous,
+                                       double[] outRe, double[] outIm, int index) {
+        double yr = last - Math.cos(omega) * previous;
+        double yi = Math.sin(omega) * previous;
+        double cos = Math.cos(phase);
+        double sin = Math.sin(phase);
+        outRe[index] = yr * cos + yi * sin;
+        outIm[index] = yi * cos - yr * sin;
     }
 
     /**
@@ -64,59 +287,307 @@ public class Fourier {
      */
     public static double[] discreteCosineTransform(double[] data) {
         double[] transformed = new double[data.length];
-        for (int k = 0; k < transformed.length; k++) {
+        discreteCosineTransform(data, transformed);
+        return transformed;
+    }
+
+    /**
+     * A method calculating the discrete cosine transform (DCT) of an array of real numbers into another array.
+     * No memory is allocated. The order of the algorithm is O(n<sup>2</sup>)
+     *
+     * @param in  An array of real numbers to perform the DCT on
+     * @param out The array the transformed values are written to. It has to be a different array than the input.
+     * @throws IllegalArgumentException Thrown if the arrays are not the same length or are the same array.
+     */
+    public static void discreteCosineTransform(double[] in, double[] out) throws IllegalArgumentException {
+        if (in.length != out.length)
+            throw new IllegalArgumentException("The input and output arrays have to be the same length.");
+        if (in == out)
+            throw new IllegalArgumentException("The input and output arrays have to be different arrays.");
+        for (int k = 0; k < out.length; k++) {
             double sum = 0;
-            for (int n = 0; n < data.length; n++) {
-                sum += data[n] * Math.cos(Math.PI / data.length * (n + 0.5) * k );
+            for (int n = 0; n < in.length; n++) {
+                sum += in[n] * Math.cos(Math.PI / in.length * (n + 0.5) * k);
             }
-            transformed[k] = sum;
+            out[k] = sum;
         }
+    }
+
+    /**
+     * A method calculating the inverse of the discrete cosine transform (DCT), which is a scaled DCT-III, from a given
+     * array of real numbers. It undoes {@link #discreteCosineTransform(double[])}.
+     * The order of the algorithm is O(n<sup>2</sup>)
+     *
+     * @param data An array of DCT coefficients
+     * @return The real numbers whose DCT are the given coefficients
+     */
+    public static double[] inverseDiscreteCosineTransform(double[] data) {
+        double[] transformed = new double[data.length];
+        inverseDiscreteCosineTransform(data, transformed);
         return transformed;
     }
 
-    private static Complex[] cooleyFastFourierTransform(Complex[] data, Complex[] arr, int start, int size, int stride) {
-        if (size == 1) {
-            arr[0] = data[0];
-        } else {
-            System.arraycopy(cooleyFastFourierTransform(data, arr, 0, size / 2, 2 * stride), 0, data, 0, size / 2);
-            System.arraycopy(cooleyFastFourierTransform(data, arr, start + stride, size / 2, 2 * stride), 0, data, size / 2, size / 2);
-            // System.arraycopy(data, 0, cooleyFastFourierTransform(data, arr, 0, size / 2, 2 * stride),0, size / 2);
-            // System.arraycopy(data, size / 2, cooleyFastFourierTransform(data, arr, start + stride, size / 2, 2 * stride), size / 2, size);
-
-            for (int k = 0; k < size / 2 + 1; k++) {
-                Complex p = data[k];
-                Complex q = Complex.exp(
-                        new Complex(0, -2 * Math.PI * k / size, Complex.Mode.RECTANGULAR))
-                        .multiply(data[k + size / 2]);
-                arr[k] = p.add(q);
-                arr[k + size / 2] = p.subtract(q);
+    /**
+     * A method calculating the inverse of the discrete cosine transform (DCT), which is a scaled DCT-III, of an array
+     * of real numbers into another array. No memory is allocated. The order of the algorithm is O(n<sup>2</sup>)
+     *
+     * @param in  An array of DCT coefficients
+     * @param out The array the real numbers are written to. It has to be a different array than the input.
+     * @throws IllegalArgumentException Thrown if the arrays are not the same length or are the same array.
+     */
+    public static void inverseDiscreteCosineTransform(double[] in, double[] out) throws IllegalArgumentException {
+        if (in.length != out.length)
+            throw new IllegalArgumentException("The input and output arrays have to be the same length.");
+        if (in == out)
+            throw new IllegalArgumentException("The input and output arrays have to be different arrays.");
+        for (int n = 0; n < out.length; n++) {
+            double sum = in.length > 0 ? in[0] / 2 : 0;
+            for (int k = 1; k < in.length; k++) {
+                sum += in[k] * Math.cos(Math.PI / in.length * (n + 0.5) * k);
             }
+            out[n] = 2 * sum / in.length;
         }
-        return arr;
     }
 
-    private static void copyToComplex(Complex[] data, Complex[] copy, int start, int end) {
-        // new Complex(data[i], 0, Complex.Mode.RECTANGULAR);
-        if (end - start >= 0) System.arraycopy(data, start, copy, start, end - start);
+    /**
+     * A method calculating the discrete cosine transform (DCT-II) from a given array of real numbers using a fast
+     * fourier transformation. It has the same values as {@link #discreteCosineTransform(double[])}.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param data An array of real numbers to perform the DCT on
+     * @return The transformed array after performing the DCT
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see DctPlan
+     */
+    public static double[] fastCosineTransform(double[] data) throws IllegalArgumentException {
+        double[] out = new double[data.length];
+        fastCosineTransform(data, out, FftPlanCache.getDefault().getDctPlan(data.length), Normalization.NONE);
+        return out;
     }
 
-    private static Complex[] cooleyFastFourierTransform(double[] data, Complex[] arr, int start, int size, int stride) {
-        if (size == 1) {
-            arr[0] = new Complex(data[0], 0, Complex.Mode.RECTANGULAR);
-        } else {
-            copyToComplex(cooleyFastFourierTransform(data, arr, 0, size / 2, size * 2), arr, 0, size / 2);
-            copyToComplex(cooleyFastFourierTransform(data, arr, size / 2, size, stride * 2), arr, size / 2, size);
+    /**
+     * A method calculating the discrete cosine transform (DCT-II) of an array of real numbers into another array with
+     * a precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in            An array of real numbers to perform the DCT on. The size must match the length of the plan.
+     * @param out           The array the transformed values are written to. It may be the input array.
+     * @param plan          The plan for the size of the arrays
+     * @param normalization The scaling of the transform
+     * @throws IllegalArgumentException Thrown if the arrays' sizes do not match the length of the plan.
+     */
+    public static void fastCosineTransform(double[] in, double[] out, DctPlan plan, Normalization normalization) throws IllegalArgumentException {
+        checkPlan(in.length, out.length, plan.getLength());
+        plan.forward(in, out, normalization, false);
+    }
 
-            for (int k = 0; k < size / 2 + 1; k++) {
-                double p = data[k];
-                Complex q = Complex.exp(
-                                new Complex(0, -2 * Math.PI * k / size, Complex.Mode.RECTANGULAR))
-                        .multiply(data[k + size / 2]);
-                arr[k] = q.add(p);
-                arr[k + size / 2] = q.subtract(p);
-            }
-        }
-        return arr;
+    /**
+     * A method calculating the inverse of the discrete cosine transform (DCT-II), which is a scaled DCT-III, using a
+     * fast fourier transformation. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of DCT coefficients as returned by {@link #fastCosineTransform(double[])}
+     * @return The real numbers whose DCT are the given coefficients
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     */
+    public static double[] inverseFastCosineTransform(double[] data) throws IllegalArgumentException {
+        double[] out = new double[data.length];
+        inverseFastCosineTransform(data, out, FftPlanCache.getDefault().getDctPlan(data.length), Normalization.NONE);
+        return out;
+    }
+
+    /**
+     * A method calculating the inverse of the discrete cosine transform (DCT-II), which is a scaled DCT-III, into
+     * another array with a precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in            An array of DCT coefficients. The size must match the length of the plan.
+     * @param out           The array the real numbers are written to. It may be the input array.
+     * @param plan          The plan for the size of the arrays
+     * @param normalization The scaling the coefficients were computed with
+     * @throws IllegalArgumentException Thrown if the arrays' sizes do not match the length of the plan.
+     */
+    public static void inverseFastCosineTransform(double[] in, double[] out, DctPlan plan, Normalization normalization) throws IllegalArgumentException {
+        checkPlan(in.length, out.length, plan.getLength());
+        plan.inverse(in, out, normalization, false);
+    }
+
+    /**
+     * A method calculating the discrete cosine transform (DCT-II) of single precision real numbers using a fast fourier
+     * transformation. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of real numbers to perform the DCT on
+     * @return The transformed array after performing the DCT
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see FloatDctPlan
+     */
+    public static float[] fastCosineTransform(float[] data) throws IllegalArgumentException {
+        float[] out = new float[data.length];
+        fastCosineTransform(data, out, FftPlanCache.getDefault().getFloatDctPlan(data.length), Normalization.NONE);
+        return out;
+    }
+
+    /**
+     * A method calculating the discrete cosine transform (DCT-II) of single precision real numbers into another array
+     * with a precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in            An array of real numbers to perform the DCT on. The size must match the length of the plan.
+     * @param out           The array the transformed values are written to. It may be the input array.
+     * @param plan          The plan for the size of the arrays
+     * @param normalization The scaling of the transform
+     * @throws IllegalArgumentException Thrown if the arrays' sizes do not match the length of the plan.
+     */
+    public static void fastCosineTransform(float[] in, float[] out, FloatDctPlan plan, Normalization normalization) throws IllegalArgumentException {
+        checkPlan(in.length, out.length, plan.getLength());
+        plan.forward(in, out, normalization, false);
+    }
+
+    /**
+     * A method calculating the inverse of the single precision discrete cosine transform (DCT-II), which is a scaled
+     * DCT-III. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of DCT coefficients as returned by {@link #fastCosineTransform(float[])}
+     * @return The real numbers whose DCT are the given coefficients
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     */
+    public static float[] inverseFastCosineTransform(float[] data) throws IllegalArgumentException {
+        float[] out = new float[data.length];
+        inverseFastCosineTransform(data, out, FftPlanCache.getDefault().getFloatDctPlan(data.length), Normalization.NONE);
+        return out;
+    }
+
+    /**
+     * A method calculating the inverse of the single precision discrete cosine transform (DCT-II), which is a scaled
+     * DCT-III, into another array with a precomputed plan. No memory is allocated. The order of the algorithm is
+     * O(n log n)
+     *
+     * @param in            An array of DCT coefficients. The size must match the length of the plan.
+     * @param out           The array the real numbers are written to. It may be the input array.
+     * @param plan          The plan for the size of the arrays
+     * @param normalization The scaling the coefficients were computed with
+     * @throws IllegalArgumentException Thrown if the arrays' sizes do not match the length of the plan.
+     */
+    public static void inverseFastCosineTransform(float[] in, float[] out, FloatDctPlan plan, Normalization normalization) throws IllegalArgumentException {
+        checkPlan(in.length, out.length, plan.getLength());
+        plan.inverse(in, out, normalization, false);
+    }
+
+    /**
+     * A method calculating the discrete sine transform (DST-II) from a given array of real numbers using a fast fourier
+     * transformation. The k-th value is the sum of x[n] sin(&pi;(n+0.5)(k+1)/N). The order of the algorithm is O(n log n)
+     *
+     * @param data An array of real numbers to perform the DST on
+     * @return The transformed array after performing the DST
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see DctPlan
+     */
+    public static double[] fastSineTransform(double[] data) throws IllegalArgumentException {
+        double[] out = new double[data.length];
+        fastSineTransform(data, out, FftPlanCache.getDefault().getDctPlan(data.length), Normalization.NONE);
+        return out;
+    }
+
+    /**
+     * A method calculating the discrete sine transform (DST-II) of an array of real numbers into another array with a
+     * precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in            An array of real numbers to perform the DST on. The size must match the length of the plan.
+     * @param out           The array the transformed values are written to. It may be the input array.
+     * @param plan          The plan for the size of the arrays
+     * @param normalization The scaling of the transform
+     * @throws IllegalArgumentException Thrown if the arrays' sizes do not match the length of the plan.
+     */
+    public static void fastSineTransform(double[] in, double[] out, DctPlan plan, Normalization normalization) throws IllegalArgumentException {
+        checkPlan(in.length, out.length, plan.getLength());
+        plan.forward(in, out, normalization, true);
+    }
+
+    /**
+     * A method calculating the inverse of the discrete sine transform (DST-II), which is a scaled DST-III, using a fast
+     * fourier transformation. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of DST coefficients as returned by {@link #fastSineTransform(double[])}
+     * @return The real numbers whose DST are the given coefficients
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     */
+    public static double[] inverseFastSineTransform(double[] data) throws IllegalArgumentException {
+        double[] out = new double[data.length];
+        inverseFastSineTransform(data, out, FftPlanCache.getDefault().getDctPlan(data.length), Normalization.NONE);
+        return out;
+    }
+
+    /**
+     * A method calculating the inverse of the discrete sine transform (DST-II), which is a scaled DST-III, into another
+     * array with a precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in            An array of DST coefficients. The size must match the length of the plan.
+     * @param out           The array the real numbers are written to. It may be the input array.
+     * @param plan          The plan for the size of the arrays
+     * @param normalization The scaling the coefficients were computed with
+     * @throws IllegalArgumentException Thrown if the arrays' sizes do not match the length of the plan.
+     */
+    public static void inverseFastSineTransform(double[] in, double[] out, DctPlan plan, Normalization normalization) throws IllegalArgumentException {
+        checkPlan(in.length, out.length, plan.getLength());
+        plan.inverse(in, out, normalization, true);
+    }
+
+    /**
+     * A method calculating the discrete sine transform of type I (DST-I) from a given array of real numbers using a
+     * fast fourier transformation. The k-th value is the sum of x[n] sin(&pi;(n+1)(k+1)/(N+1)).
+     * The order of the algorithm is O(n log n)
+     *
+     * @param data An array of real numbers to perform the DST-I on
+     * @return The transformed array after performing the DST-I
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see DstPlan
+     */
+    public static double[] fastSineTransformI(double[] data) throws IllegalArgumentException {
+        double[] out = new double[data.length];
+        fastSineTransformI(data, out, FftPlanCache.getDefault().getDstPlan(data.length), Normalization.NONE);
+        return out;
+    }
+
+    /**
+     * A method calculating the discrete sine transform of type I (DST-I) of an array of real numbers into another
+     * array with a precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in            An array of real numbers to perform the DST-I on. The size must match the length of the plan.
+     * @param out           The array the transformed values are written to. It may be the input array.
+     * @param plan          The plan for the size of the arrays
+     * @param normalization The scaling of the transform
+     * @throws IllegalArgumentException Thrown if the arrays' sizes do not match the length of the plan.
+     */
+    public static void fastSineTransformI(double[] in, double[] out, DstPlan plan, Normalization normalization) throws IllegalArgumentException {
+        checkPlan(in.length, out.length, plan.getLength());
+        plan.transform(in, out, normalization == Normalization.ORTHONORMAL ? Math.sqrt(2.0 / (in.length + 1)) : 1);
+    }
+
+    /**
+     * A method calculating the inverse of the discrete sine transform of type I (DST-I), which is a DST-I scaled by
+     * 2/(N+1), using a fast fourier transformation. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of DST-I coefficients as returned by {@link #fastSineTransformI(double[])}
+     * @return The real numbers whose DST-I are the given coefficients
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     */
+    public static double[] inverseFastSineTransformI(double[] data) throws IllegalArgumentException {
+        double[] out = new double[data.length];
+        inverseFastSineTransformI(data, out, FftPlanCache.getDefault().getDstPlan(data.length), Normalization.NONE);
+        return out;
+    }
+
+    /**
+     * A method calculating the inverse of the discrete sine transform of type I (DST-I) into another array with a
+     * precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in            An array of DST-I coefficients. The size must match the length of the plan.
+     * @param out           The array the real numbers are written to. It may be the input array.
+     * @param plan          The plan for the size of the arrays
+     * @param normalization The scaling the coefficients were computed with
+     * @throws IllegalArgumentException Thrown if the arrays' sizes do not match the length of the plan.
+     */
+    public static void inverseFastSineTransformI(double[] in, double[] out, DstPlan plan, Normalization normalization) throws IllegalArgumentException {
+        checkPlan(in.length, out.length, plan.getLength());
+        plan.transform(in, out, normalization == Normalization.ORTHONORMAL
+                ? Math.sqrt(2.0 / (in.length + 1))
+                : 2.0 / (in.length + 1));
     }
 
     /**
@@ -128,9 +599,9 @@ public class Fourier {
      * @throws IllegalArgumentException Thrown if the input array's size is not a power of two.
      */
     public static Complex[] cooleyFastFourierTransform(Complex[] data) throws IllegalArgumentException {
-        if (data.length != 0 && (data.length & (data.length - 1)) == 0)
-            throw new IllegalArgumentException("The size of the input array has to be a power of two.");
-        return cooleyFastFourierTransform(data, new Complex[data.length], 0, data.length, 1);
+        ComplexBuffer buffer = new ComplexBuffer(data);
+        cooleyFastFourierTransform(buffer);
+        return buffer.toComplexArray();
     }
 
     /**
@@ -142,9 +613,1066 @@ public class Fourier {
      * @throws IllegalArgumentException Thrown if the input array's size is not a power of two.
      */
     public static Complex[] cooleyFastFourierTransform(double[] data) throws IllegalArgumentException {
-        if (data.length != 0 && (data.length & (data.length - 1)) == 0)
+        ComplexBuffer buffer = new ComplexBuffer(data.clone(), new double[data.length]);
+        cooleyFastFourierTransform(buffer);
+        return buffer.toComplexArray();
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of a buffer in place using the iterative
+     * Cooley-Tukey Fast Fourier Transformation algorithm. The values are first put in bit-reversed order and then
+     * combined by log n passes of radix-2 butterflies. The twiddle factors are generated by recurrence, so besides the
+     * buffer itself the algorithm uses O(1) memory. The order of the algorithm is O(n log n)
+     *
+     * @param data The buffer of complex numbers to transform in place. The size must be a power of two.
+     * @throws IllegalArgumentException Thrown if the buffer's size is not a power of two.
+     */
+    public static void cooleyFastFourierTransform(ComplexBuffer data) throws IllegalArgumentException {
+        int size = data.getLength();
+        if (size == 0 || (size & (size - 1)) != 0)
             throw new IllegalArgumentException("The size of the input array has to be a power of two.");
-        return cooleyFastFourierTransform(data, new Complex[data.length], 0, data.length, 1);
+        double[] re = data.getRealCoefficients();
+        double[] im = data.getImagCoefficients();
+
+        for (int i = 0, j = 0; i < size; i++) {
+            if (i < j) {
+                double tmp = re[i];
+                re[i] = re[j];
+                re[j] = tmp;
+                tmp = im[i];
+                im[i] = im[j];
+                im[j] = tmp;
+            }
+            int bit = size >> 1;
+            while (bit > 0 && (j & bit) != 0) {
+                j ^= bit;
+                bit >>= 1;
+            }
+            j |= bit;
+        }
+
+        for (int half = 1; half < size; half <<= 1) {
+            // w is advanced by w += w * (stepRe + i stepIm), which keeps the rounding error of the recurrence small
+            double sinHalf = Math.sin(Math.PI / (2 * half));
+            double stepRe = -2 * sinHalf * sinHalf;
+            double stepIm = -Math.sin(Math.PI / half);
+            double wr = 1;
+            double wi = 0;
+            for (int k = 0; k < half; k++) {
+                for (int a = k; a < size; a += 2 * half) {
+                    int b = a + half;
+                    double tr = wr * re[b] - wi * im[b];
+                    double ti = wr * im[b] + wi * re[b];
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+                double tmp = wr;
+                wr += wr * stepRe - wi * stepIm;
+                wi += wi * stepRe + tmp * stepIm;
+            }
+        }
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) using the Cooley-Tukey Fast Fourier Transformation
+     * algorithm with a precomputed plan. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of complex numbers to perform the FFT on. The size must match the length of the plan.
+     * @param plan The plan holding the twiddle factors for the size of the array
+     * @return The transformed array after performing the Cooley-Tukey FFT
+     * @throws IllegalArgumentException Thrown if the input array's size does not match the length of the plan.
+     */
+    public static Complex[] cooleyFastFourierTransform(Complex[] data, FftPlan plan) throws IllegalArgumentException {
+        ComplexBuffer buffer = new ComplexBuffer(data);
+        cooleyFastFourierTransform(buffer, buffer, plan);
+        return buffer.toComplexArray();
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) using the Cooley-Tukey Fast Fourier Transformation
+     * algorithm with a precomputed plan. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of doubles to perform the FFT on. The size must match the length of the plan.
+     * @param plan The plan holding the twiddle factors for the size of the array
+     * @return The transformed array after performing the Cooley-Tukey FFT
+     * @throws IllegalArgumentException Thrown if the input array's size does not match the length of the plan.
+     */
+    public static Complex[] cooleyFastFourierTransform(double[] data, FftPlan plan) throws IllegalArgumentException {
+        ComplexBuffer buffer = new ComplexBuffer(data.length);
+        cooleyFastFourierTransform(data, buffer, plan);
+        return buffer.toComplexArray();
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of a buffer using the Cooley-Tukey Fast Fourier
+     * Transformation algorithm with a precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in   The buffer of complex numbers to perform the FFT on. The size must match the length of the plan.
+     * @param out  The buffer the transformed values are written to. It may be the input buffer to transform in place.
+     * @param plan The plan holding the twiddle factors for the size of the buffers
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the length of the plan.
+     */
+    public static void cooleyFastFourierTransform(ComplexBuffer in, ComplexBuffer out, FftPlan plan) throws IllegalArgumentException {
+        fastFourierTransform(in, out, plan);
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of an array of doubles into a buffer using the
+     * Cooley-Tukey Fast Fourier Transformation algorithm with a precomputed plan. No memory is allocated.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param in   The array of doubles to perform the FFT on. The size must match the length of the plan.
+     * @param out  The buffer the transformed values are written to
+     * @param plan The plan holding the twiddle factors for the size of the array
+     * @throws IllegalArgumentException Thrown if the array's or the buffer's size does not match the length of the plan.
+     */
+    public static void cooleyFastFourierTransform(double[] in, ComplexBuffer out, FftPlan plan) throws IllegalArgumentException {
+        fastFourierTransform(in, out, plan);
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of an array of any size using the fast fourier
+     * transformation. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of complex numbers to perform the FFT on
+     * @return The transformed array after performing the FFT
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see FftPlan
+     */
+    public static Complex[] fastFourierTransform(Complex[] data) throws IllegalArgumentException {
+        ComplexBuffer buffer = new ComplexBuffer(data);
+        fastFourierTransform(buffer, buffer, FftPlanCache.getDefault().getFftPlan(data.length));
+        return buffer.toComplexArray();
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of an array of any size using the fast fourier
+     * transformation. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of doubles to perform the FFT on
+     * @return The transformed array after performing the FFT
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see FftPlan
+     */
+    public static Complex[] fastFourierTransform(double[] data) throws IllegalArgumentException {
+        ComplexBuffer buffer = new ComplexBuffer(data.length);
+        fastFourierTransform(data, buffer, FftPlanCache.getDefault().getFftPlan(data.length));
+        return buffer.toComplexArray();
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of a buffer using the fast fourier transformation
+     * with a precomputed plan of any length. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in   The buffer of complex numbers to perform the FFT on. The size must match the length of the plan.
+     * @param out  The buffer the transformed values are written to. It may be the input buffer to transform in place.
+     * @param plan The plan for the size of the buffers
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the length of the plan.
+     */
+    public static void fastFourierTransform(ComplexBuffer in, ComplexBuffer out, FftPlan plan) throws IllegalArgumentException {
+        fastFourierTransform(in, out, plan, Parallelism.sequential());
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of a buffer using the fast fourier transformation
+     * with a precomputed plan of any length. Transforms of at least the parallelism's threshold are split across the
+     * threads of its pool. The order of the algorithm is O(n log n)
+     *
+     * @param in          The buffer of complex numbers to perform the FFT on. The size must match the length of the plan.
+     * @param out         The buffer the transformed values are written to. It may be the input buffer to transform in place.
+     * @param plan        The plan for the size of the buffers
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the length of the plan.
+     */
+    public static void fastFourierTransform(ComplexBuffer in, ComplexBuffer out, FftPlan plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkPlan(in.getLength(), out, plan.getLength());
+        if (in != out) out.copyFrom(in);
+        plan.transform(out.getRealCoefficients(), out.getImagCoefficients(), false, parallelism);
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transformation (IDFT) of an array of any size using the fast
+     * fourier transformation. The result is divided by n, so it undoes {@link #fastFourierTransform(Complex[])}.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param data An array of complex numbers to perform the inverse FFT on
+     * @return The transformed array after performing the inverse FFT
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     */
+    public static Complex[] inverseFastFourierTransform(Complex[] data) throws IllegalArgumentException {
+        ComplexBuffer buffer = new ComplexBuffer(data);
+        inverseFastFourierTransform(buffer, buffer, FftPlanCache.getDefault().getFftPlan(data.length));
+        return buffer.toComplexArray();
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transformation (IDFT) of a buffer using the fast fourier
+     * transformation with the same plan as the forward transform. The division by n is folded into the last butterfly
+     * pass, so a round trip costs two transforms. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in   The buffer of complex numbers to perform the inverse FFT on. The size must match the length of the plan.
+     * @param out  The buffer the transformed values are written to. It may be the input buffer to transform in place.
+     * @param plan The plan for the size of the buffers
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the length of the plan.
+     */
+    public static void inverseFastFourierTransform(ComplexBuffer in, ComplexBuffer out, FftPlan plan) throws IllegalArgumentException {
+        inverseFastFourierTransform(in, out, plan, Parallelism.sequential());
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transformation (IDFT) of a buffer using the fast fourier
+     * transformation with the same plan as the forward transform. Transforms of at least the parallelism's threshold
+     * are split across the threads of its pool. The order of the algorithm is O(n log n)
+     *
+     * @param in          The buffer of complex numbers to perform the inverse FFT on. The size must match the length of the plan.
+     * @param out         The buffer the transformed values are written to. It may be the input buffer to transform in place.
+     * @param plan        The plan for the size of the buffers
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the length of the plan.
+     */
+    public static void inverseFastFourierTransform(ComplexBuffer in, ComplexBuffer out, FftPlan plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkPlan(in.getLength(), out, plan.getLength());
+        if (in != out) out.copyFrom(in);
+        plan.transform(out.getRealCoefficients(), out.getImagCoefficients(), true, parallelism);
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of every signal of a batch stored in one buffer
+     * in place. All signals share the tables of one plan, and the batch is split across the threads of the
+     * parallelism's pool if it holds at least the parallelism's threshold of values. No memory is allocated besides
+     * the scratch kept per thread by the plan. The order of the algorithm is O(kn log n) for k signals
+     *
+     * @param data        The buffer holding the signals, which are overwritten by their transforms
+     * @param layout      Where the signals are stored in the buffer
+     * @param plan        The plan for the length of every signal
+     * @param parallelism How the batch may be split across threads
+     * @throws IllegalArgumentException Thrown if the layout does not fit into the buffer.
+     */
+    public static void fastFourierTransform(ComplexBuffer data, BatchLayout layout, FftPlan plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkBatch(data, layout, plan.getLength());
+        plan.transform(data.getRealCoefficients(), data.getImagCoefficients(), layout, false, parallelism);
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transformation (IDFT) of every signal of a batch stored in one
+     * buffer in place. The result is divided by n, so it undoes
+     * {@link #fastFourierTransform(ComplexBuffer, BatchLayout, FftPlan, Parallelism)}.
+     * The order of the algorithm is O(kn log n) for k signals
+     *
+     * @param data        The buffer holding the spectra, which are overwritten by their inverse transforms
+     * @param layout      Where the spectra are stored in the buffer
+     * @param plan        The plan for the length of every spectrum
+     * @param parallelism How the batch may be split across threads
+     * @throws IllegalArgumentException Thrown if the layout does not fit into the buffer.
+     */
+    public static void inverseFastFourierTransform(ComplexBuffer data, BatchLayout layout, FftPlan plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkBatch(data, layout, plan.getLength());
+        plan.transform(data.getRealCoefficients(), data.getImagCoefficients(), layout, true, parallelism);
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of an array of doubles into a buffer using the
+     * fast fourier transformation with a precomputed plan of any length. No memory is allocated.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param in   The array of doubles to perform the FFT on. The size must match the length of the plan.
+     * @param out  The buffer the transformed values are written to
+     * @param plan The plan for the size of the array
+     * @throws IllegalArgumentException Thrown if the array's or the buffer's size does not match the length of the plan.
+     */
+    public static void fastFourierTransform(double[] in, ComplexBuffer out, FftPlan plan) throws IllegalArgumentException {
+        checkPlan(in.length, out, plan.getLength());
+        System.arraycopy(in, 0, out.getRealCoefficients(), 0, in.length);
+        Arrays.fill(out.getImagCoefficients(), 0);
+        plan.transform(out.getRealCoefficients(), out.getImagCoefficients());
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of a signal stored in a file, which may be far
+     * larger than the memory of the process, with the four-step algorithm. Both files hold interleaved little-endian
+     * complex doubles. Only blocks of the signal within the plan's memory budget are held in memory at once.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param in          The file holding the signal, which is left unchanged
+     * @param out         The file the transformed signal is written to, which is created or overwritten
+     * @param plan        The plan for the length of the signal
+     * @param parallelism How the blocks may be split across threads
+     * @throws IOException              Thrown if a file cannot be read, written or mapped.
+     * @throws IllegalArgumentException Thrown if the input file is shorter than the plan or is the output file.
+     * @see OutOfCoreFftPlan
+     */
+    public static void fastFourierTransform(Path in, Path out, OutOfCoreFftPlan plan, Parallelism parallelism) throws IOException, IllegalArgumentException {
+        plan.transform(in, out, false, parallelism);
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transformation (IDFT) of a spectrum stored in a file with the
+     * four-step algorithm. The result is divided by n, so it undoes
+     * {@link #fastFourierTransform(Path, Path, OutOfCoreFftPlan, Parallelism)}. The order of the algorithm is O(n log n)
+     *
+     * @param in          The file holding the spectrum, which is left unchanged
+     * @param out         The file the transformed signal is written to, which is created or overwritten
+     * @param plan        The plan for the length of the spectrum
+     * @param parallelism How the blocks may be split across threads
+     * @throws IOException              Thrown if a file cannot be read, written or mapped.
+     * @throws IllegalArgumentException Thrown if the input file is shorter than the plan or is the output file.
+     */
+    public static void inverseFastFourierTransform(Path in, Path out, OutOfCoreFftPlan plan, Parallelism parallelism) throws IOException, IllegalArgumentException {
+        plan.transform(in, out, true, parallelism);
+    }
+
+    /**
+     * A method calculating the non-redundant half of the discrete fourier transformation (DFT) of real numbers. The
+     * spectrum of real input satisfies X[n-k] = conj(X[k]), so only the first n/2+1 bins are returned.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param data An array of real numbers to perform the FFT on
+     * @return The first n/2+1 values of the transformed array
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see RealFftPlan
+     */
+    public static Complex[] realFastFourierTransform(double[] data) throws IllegalArgumentException {
+        RealFftPlan plan = FftPlanCache.getDefault().getRealFftPlan(data.length);
+        ComplexBuffer out = new ComplexBuffer(plan.getSpectrumLength());
+        realFastFourierTransform(data, out, plan);
+        return out.toComplexArray();
+    }
+
+    /**
+     * A method calculating the non-redundant half of the discrete fourier transformation (DFT) of real numbers into a
+     * buffer with a precomputed plan. No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in   The array of real numbers to perform the FFT on. The size must match the length of the plan.
+     * @param out  The buffer the first n/2+1 values of the transformed array are written to
+     * @param plan The plan for the size of the array
+     * @throws IllegalArgumentException Thrown if the array's size does not match the length of the plan or the buffer
+     *                                  does not have a size of n/2+1.
+     */
+    public static void realFastFourierTransform(double[] in, ComplexBuffer out, RealFftPlan plan) throws IllegalArgumentException {
+        checkRealPlan(in.length, out, plan);
+        plan.forward(in, out);
+    }
+
+    /**
+     * A method calculating the real numbers whose discrete fourier transformation has the given non-redundant half.
+     * This is the inverse of {@link #realFastFourierTransform(double[])}. The order of the algorithm is O(n log n)
+     *
+     * @param spectrum The first n/2+1 values of a spectrum satisfying X[n-k] = conj(X[k])
+     * @param length   The length n of the real signal, either 2(m-1) or 2(m-1)+1 for a spectrum of size m
+     * @return The real signal of the spectrum
+     * @throws IllegalArgumentException Thrown if the spectrum does not have a size of n/2+1.
+     */
+    public static double[] inverseRealFastFourierTransform(Complex[] spectrum, int length) throws IllegalArgumentException {
+        double[] out = new double[length];
+        inverseRealFastFourierTransform(new ComplexBuffer(spectrum), out, FftPlanCache.getDefault().getRealFftPlan(length));
+        return out;
+    }
+
+    /**
+     * A method calculating the real numbers whose discrete fourier transformation has the given non-redundant half
+     * with a precomputed plan. The input buffer is left unchanged and no memory is allocated.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param in   The first n/2+1 values of a spectrum satisfying X[n-k] = conj(X[k])
+     * @param out  The array the real signal is written to. The size must match the length of the plan.
+     * @param plan The plan for the size of the real signal
+     * @throws IllegalArgumentException Thrown if the array's size does not match the length of the plan or the buffer
+     *                                  does not have a size of n/2+1.
+     */
+    public static void inverseRealFastFourierTransform(ComplexBuffer in, double[] out, RealFftPlan plan) throws IllegalArgumentException {
+        checkRealPlan(out.length, in, plan);
+        plan.inverse(in, out);
+    }
+
+    /**
+     * A method calculating a real valued spectrum, such as the magnitude or power, of the first n/2+1 bins of the
+     * discrete fourier transformation (DFT) of real numbers. No complex values are returned or created.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param data An array of real numbers to perform the FFT on
+     * @param type The spectrum computed from the bins
+     * @return The n/2+1 values of the spectrum
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see SpectrumType
+     */
+    public static double[] spectrum(double[] data, SpectrumType type) throws IllegalArgumentException {
+        RealFftPlan plan = FftPlanCache.getDefault().getRealFftPlan(data.length);
+        double[] out = new double[plan.getSpectrumLength()];
+        spectrum(data, out, plan, type);
+        return out;
+    }
+
+    /**
+     * A method calculating a real valued spectrum, such as the magnitude or power, of the first n/2+1 bins of the
+     * discrete fourier transformation (DFT) of real numbers with a precomputed plan. Every value is computed in the
+     * last pass of the transform, so there is no extra pass over the bins and no memory is allocated.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param in   The array of real numbers to perform the FFT on. The size must match the length of the plan.
+     * @param out  The array the n/2+1 values of the spectrum are written to
+     * @param plan The plan for the size of the input
+     * @param type The spectrum computed from the bins
+     * @throws IllegalArgumentException Thrown if the input's size does not match the length of the plan or the output
+     *                                  does not have a size of n/2+1.
+     */
+    public static void spectrum(double[] in, double[] out, RealFftPlan plan, SpectrumType type) throws IllegalArgumentException {
+        checkRealPlan(in.length, out.length, plan.getLength(), plan.getSpectrumLength());
+        plan.forward(in, type, out);
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation (DFT) of a single precision buffer using the fast
+     * fourier transformation with a precomputed plan of any length. The data and twiddles take half the memory of the
+     * double precision transform at about seven significant digits. No memory is allocated.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param in   The buffer of complex numbers to perform the FFT on. The size must match the length of the plan.
+     * @param out  The buffer the transformed values are written to. It may be the input buffer to transform in place.
+     * @param plan The plan for the size of the buffers
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the length of the plan.
+     */
+    public static void fastFourierTransform(FloatComplexBuffer in, FloatComplexBuffer out, FloatFftPlan plan) throws IllegalArgumentException {
+        checkPlan(in.getLength(), out.getLength(), plan.getLength());
+        if (in != out) out.copyFrom(in);
+        plan.transform(out.getRealCoefficients(), out.getImagCoefficients(), false);
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transformation (IDFT) of a single precision buffer using the
+     * fast fourier transformation with the same plan as the forward transform. The result is divided by n.
+     * No memory is allocated. The order of the algorithm is O(n log n)
+     *
+     * @param in   The buffer of complex numbers to perform the inverse FFT on. The size must match the length of the plan.
+     * @param out  The buffer the transformed values are written to. It may be the input buffer to transform in place.
+     * @param plan The plan for the size of the buffers
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the length of the plan.
+     */
+    public static void inverseFastFourierTransform(FloatComplexBuffer in, FloatComplexBuffer out, FloatFftPlan plan) throws IllegalArgumentException {
+        checkPlan(in.getLength(), out.getLength(), plan.getLength());
+        if (in != out) out.copyFrom(in);
+        plan.transform(out.getRealCoefficients(), out.getImagCoefficients(), true);
+    }
+
+    /**
+     * A method calculating the non-redundant half of the discrete fourier transformation (DFT) of single precision
+     * real numbers. Only the first n/2+1 bins are returned. The order of the algorithm is O(n log n)
+     *
+     * @param data An array of real numbers to perform the FFT on
+     * @return The first n/2+1 values of the transformed array
+     * @throws IllegalArgumentException Thrown if the input array is empty.
+     * @see FloatRealFftPlan
+     */
+    public static FloatComplexBuffer realFastFourierTransform(float[] data) throws IllegalArgumentException {
+        FloatRealFftPlan plan = FftPlanCache.getDefault().getFloatRealFftPlan(data.length);
+        FloatComplexBuffer out = new FloatComplexBuffer(plan.getSpectrumLength());
+        realFastFourierTransform(data, out, plan);
+        return out;
+    }
+
+    /**
+     * A method calculating the non-redundant half of the discrete fourier transformation (DFT) of single precision
+     * real numbers into a buffer with a precomputed plan. No memory is allocated. The order of the algorithm is
+     * O(n log n)
+     *
+     * @param in   The array of real numbers to perform the FFT on. The size must match the length of the plan.
+     * @param out  The buffer the first n/2+1 values of the transformed array are written to
+     * @param plan The plan for the size of the array
+     * @throws IllegalArgumentException Thrown if the array's size does not match the length of the plan or the buffer
+     *                                  does not have a size of n/2+1.
+     */
+    public static void realFastFourierTransform(float[] in, FloatComplexBuffer out, FloatRealFftPlan plan) throws IllegalArgumentException {
+        checkRealPlan(in.length, out.getLength(), plan.getLength(), plan.getSpectrumLength());
+        plan.forward(in, out);
+    }
+
+    /**
+     * A method calculating the single precision real numbers whose discrete fourier transformation has the given
+     * non-redundant half. This is the inverse of {@link #realFastFourierTransform(float[])}.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param spectrum The first n/2+1 values of a spectrum satisfying X[n-k] = conj(X[k])
+     * @param length   The length n of the real signal, either 2(m-1) or 2(m-1)+1 for a spectrum of size m
+     * @return The real signal of the spectrum
+     * @throws IllegalArgumentException Thrown if the spectrum does not have a size of n/2+1.
+     */
+    public static float[] inverseRealFastFourierTransform(FloatComplexBuffer spectrum, int length) throws IllegalArgumentException {
+        float[] out = new float[length];
+        inverseRealFastFourierTransform(spectrum, out, FftPlanCache.getDefault().getFloatRealFftPlan(length));
+        return out;
+    }
+
+    /**
+     * A method calculating the single precision real numbers whose discrete fourier transformation has the given
+     * non-redundant half with a precomputed plan. The input buffer is left unchanged and no memory is allocated.
+     * The order of the algorithm is O(n log n)
+     *
+     * @param in   The first n/2+1 values of a spectrum satisfying X[n-k] = conj(X[k])
+     * @param out  The array the real signal is written to. The size must match the length of the plan.
+     * @param plan The plan for the size of the real signal
+     * @throws IllegalArgumentException Thrown if the array's size does not match the length of the plan or the buffer
+     *                                  does not have a size of n/2+1.
+     */
+    public static void inverseRealFastFourierTransform(FloatComplexBuffer in, float[] out, FloatRealFftPlan plan) throws IllegalArgumentException {
+        checkRealPlan(out.length, in.getLength(), plan.getLength(), plan.getSpectrumLength());
+        plan.inverse(in, out);
+    }
+
+    /**
+     * A method resampling a whole signal by the rational factor up/down in the frequency domain. The output has
+     * ceil(n * up / down) samples. See {@link #resample(double[], int)}.
+     *
+     * @param data The samples of the signal
+     * @param up   The factor the sample rate is multiplied by
+     * @param down The factor the sample rate is divided by
+     * @return The resampled signal
+     * @throws IllegalArgumentException Thrown if the signal is empty, a factor is not positive or the output does not
+     *                                  fit into an array.
+     * @see PolyphaseResampler
+     */
+    public static double[] resample(double[] data, int up, int down) throws IllegalArgumentException {
+        if (up <= 0 || down <= 0)
+            throw new IllegalArgumentException("The resampling factors have to be positive.");
+        long length = ((long) data.length * up + down - 1) / down;
+        if (length > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The resampled signal has to fit into an array.");
+        return resample(data, (int) length);
+    }
+
+    /**
+     * A method resampling a whole signal to the given number of samples in the frequency domain. The real spectrum of
+     * the signal is truncated or padded with zeros to the spectrum of the new length and transformed back, which
+     * treats the signal as periodic and is exact for signals band-limited below both Nyquist frequencies. A Nyquist
+     * bin that is split or merged is halved or doubled, so a real signal stays real. Both plans come from the default
+     * plan cache. The order of the algorithm is O((n + m) log (n + m))
+     *
+     * @param data   The samples of the signal
+     * @param length The number of samples m of the resampled signal
+     * @return The resampled signal
+     * @throws IllegalArgumentException Thrown if the signal is empty or the length is not positive.
+     */
+    public static double[] resample(double[] data, int length) throws IllegalArgumentException {
+        if (data.length == 0 || length <= 0)
+            throw new IllegalArgumentException("The signal and the resampled length have to be non-empty.");
+        int n = data.length;
+        RealFftPlan in = FftPlanCache.getDefault().getRealFftPlan(n);
+        RealFftPlan out = FftPlanCache.getDefault().getRealFftPlan(length);
+        ComplexBuffer spectrum = new ComplexBuffer(Math.max(in.getSpectrumLength(), out.getSpectrumLength()));
+        double[] re = spectrum.getRealCoefficients();
+        double[] im = spectrum.getImagCoefficients();
+        in.forward(data, re, im, 0);
+
+        // the bins shared by both lengths are kept, scaled by m / n so the amplitudes survive the division by m
+        int shared = Math.min(n, length);
+        double scale = (double) length / n;
+        for (int k = 0; k <= shared / 2; k++) {
+            re[k] *= scale;
+            im[k] *= scale;
+        }
+        if (shared % 2 == 0) {
+            int nyquist = shared / 2;
+            // downsampling folds bins k and n - k = conj(X[k]) into the new Nyquist bin, which is therefore real, while
+            // upsampling splits the old Nyquist bin into two halves
+            if (length < n) {
+                re[nyquist] *= 2;
+                im[nyquist] = 0;
+            } else if (length > n) {
+                re[nyquist] *= 0.5;
+                im[nyquist] *= 0.5;
+            }
+        }
+        for (int k = shared / 2 + 1; k < re.length; k++) {
+            re[k] = 0;
+            im[k] = 0;
+        }
+
+        double[] result = new double[length];
+        out.inverse(re, im, 0, result);
+        return result;
+    }
+
+    /**
+     * A method calculating the exact full linear convolution of two sequences of integers, such as the coefficients of
+     * two polynomials whose product is wanted. See {@link #convolve(long[], long[])}.
+     *
+     * @param a The first sequence of length n
+     * @param b The second sequence of length m
+     * @return The n+m-1 values of the convolution
+     * @throws IllegalArgumentException Thrown if a sequence is empty.
+     */
+    public static long[] convolve(int[] a, int[] b) throws IllegalArgumentException {
+        return convolve(toLongs(a), toLongs(b));
+    }
+
+    /**
+     * A method calculating the exact full linear convolution of two integer vectors. See
+     * {@link #convolve(long[], long[])}.
+     *
+     * @param a The first vector of length n
+     * @param b The second vector of length m
+     * @return The n+m-1 values of the convolution
+     * @throws IllegalArgumentException Thrown if a vector is empty.
+     */
+    public static long[] convolve(IntegerVector a, IntegerVector b) throws IllegalArgumentException {
+        return convolve(a.toArray(), b.toArray());
+    }
+
+    /**
+     * A method calculating the exact full linear convolution of two sequences of integers with the number-theoretic
+     * transform. The convolution is computed modulo as many NTT-friendly primes as the largest possible value needs
+     * and recombined with the Chinese remainder theorem, so there is no rounding error at any size. Convolutions
+     * longer than 2<sup>23</sup> are split into blocks. The order of the algorithm is O((n + m) log (n + m))
+     *
+     * @param a The first sequence of length n
+     * @param b The second sequence of length m
+     * @return The n+m-1 values of the convolution
+     * @throws IllegalArgumentException Thrown if a sequence is empty.
+     * @throws ArithmeticException      Thrown if a value of the convolution does not fit into a long.
+     */
+    public static long[] convolve(long[] a, long[] b) throws IllegalArgumentException, ArithmeticException {
+        if (a.length == 0 || b.length == 0)
+            throw new IllegalArgumentException("The sequences cannot be empty.");
+        if ((long) a.length + b.length - 1 > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The convolution has to fit into an array.");
+        return NumberTheoreticTransform.convolve(a, b);
+    }
+
+    /**
+     * A method calculating the full linear convolution of a signal with a kernel, choosing the fastest method for their
+     * lengths. Short kernels are convolved directly, while long kernels use the FFT.
+     *
+     * @param signal The signal of length n
+     * @param kernel The kernel of length m
+     * @return The n+m-1 values of the convolution
+     * @throws IllegalArgumentException Thrown if the signal or kernel is empty.
+     * @see ConvolutionMethod
+     */
+    public static double[] convolve(double[] signal, double[] kernel) throws IllegalArgumentException {
+        return convolve(signal, kernel, ConvolutionMethod.AUTO);
+    }
+
+    /**
+     * A method calculating the full linear convolution y[i] = sum of x[i-j] h[j] of a signal with a kernel using the
+     * given method. The kernel's spectrum is computed once and reused for every block of the overlap methods.
+     *
+     * @param signal The signal of length n
+     * @param kernel The kernel of length m
+     * @param method The algorithm the convolution is computed with
+     * @return The n+m-1 values of the convolution
+     * @throws IllegalArgumentException Thrown if the signal or kernel is empty.
+     */
+    public static double[] convolve(double[] signal, double[] kernel, ConvolutionMethod method) throws IllegalArgumentException {
+        if (signal.length == 0 || kernel.length == 0)
+            throw new IllegalArgumentException("The signal and kernel cannot be empty.");
+        if (kernel.length > signal.length) {
+            // the convolution is commutative, so the shorter array is always the kernel
+            double[] tmp = signal;
+            signal = kernel;
+            kernel = tmp;
+        }
+        if (method == ConvolutionMethod.AUTO) {
+            method = ConvolutionMethod.choose(signal.length, kernel.length);
+        }
+
+        double[] out = new double[signal.length + kernel.length - 1];
+        switch (method) {
+            case DIRECT:
+                for (int i = 0; i < out.length; i++) {
+                    double sum = 0;
+                    for (int j = Math.max(0, i - signal.length + 1); j <= Math.min(i, kernel.length - 1); j++) {
+                        sum += signal[i - j] * kernel[j];
+                    }
+                    out[i] = sum;
+                }
+                break;
+            case FFT:
+                convolveBlocks(signal, kernel, ConvolutionMethod.realLength(out.length), out);
+                break;
+            case OVERLAP_ADD:
+                convolveBlocks(signal, kernel, FirFilter.segmentLength(kernel.length), out);
+                break;
+            default:
+                new FirFilter(kernel).convolve(signal, out);
+                break;
+        }
+        return out;
+    }
+
+    /**
+     * A method calculating the full cross-correlation of a signal with a kernel, choosing the fastest method for their
+     * lengths. Value i of the result is the sum of x[i+j-(m-1)] h[j], so index m-1 holds the correlation at lag zero.
+     *
+     * @param signal The signal of length n
+     * @param kernel The kernel of length m
+     * @return The n+m-1 values of the correlation
+     * @throws IllegalArgumentException Thrown if the signal or kernel is empty.
+     */
+    public static double[] correlate(double[] signal, double[] kernel) throws IllegalArgumentException {
+        return correlate(signal, kernel, ConvolutionMethod.AUTO);
+    }
+
+    /**
+     * A method calculating the full cross-correlation of a signal with a kernel using the given method, which is the
+     * convolution with the reversed kernel. Value i of the result is the sum of x[i+j-(m-1)] h[j], so index m-1 holds
+     * the correlation at lag zero.
+     *
+     * @param signal The signal of length n
+     * @param kernel The kernel of length m
+     * @param method The algorithm the correlation is computed with
+     * @return The n+m-1 values of the correlation
+     * @throws IllegalArgumentException Thrown if the signal or kernel is empty.
+     */
+    public static double[] correlate(double[] signal, double[] kernel, ConvolutionMethod method) throws IllegalArgumentException {
+        double[] reversed = new double[kernel.length];
+        for (int j = 0; j < kernel.length; j++) {
+            reversed[j] = kernel[kernel.length - 1 - j];
+        }
+        return convolve(signal, reversed, method);
+    }
+
+    /**
+     * Convolves the signal with the kernel with the overlap-add method on segments of the given even length. The
+     * signal is split into blocks of length - m + 1 samples, so a segment of at least n+m-1 is a single FFT convolution.
+     */
+    private static void convolveBlocks(double[] signal, double[] kernel, int length, double[] out) {
+        RealFftPlan plan = FftPlanCache.getDefault().getRealFftPlan(length);
+        int block = length - kernel.length + 1;
+        double[] segment = new double[length];
+        double[] result = new double[length];
+        ComplexBuffer spectrum = new ComplexBuffer(plan.getSpectrumLength());
+
+        ComplexBuffer kernelSpectrum = new ComplexBuffer(plan.getSpectrumLength());
+        System.arraycopy(kernel, 0, segment, 0, kernel.length);
+        plan.forward(segment, kernelSpectrum);
+
+        for (int start = 0; start < signal.length; start += block) {
+            int count = Math.min(block, signal.length - start);
+            System.arraycopy(signal, start, segment, 0, count);
+            Arrays.fill(segment, count, length, 0);
+            plan.forward(segment, spectrum);
+            FirFilter.multiply(spectrum, kernelSpectrum);
+            plan.inverse(spectrum, result);
+            for (int i = 0, end = Math.min(count + kernel.length - 1, out.length - start); i < end; i++) {
+                out[start + i] += result[i];
+            }
+        }
+    }
+
+    /**
+     * A method calculating the short-time fourier transformation (STFT) of a whole signal. Every frame of frameLength
+     * samples starting a multiple of hopSize into the signal is multiplied by the window and transformed with a real
+     * FFT. Use {@link ShortTimeFourierTransform} directly to transform a signal as it arrives.
+     *
+     * @param data        The signal to transform
+     * @param frameLength The number of samples of every frame
+     * @param hopSize     The number of samples between the starts of two consecutive frames
+     * @param window      The window every frame is multiplied by
+     * @return The first frameLength/2+1 bins of the spectrum of every frame which fits into the signal
+     * @throws IllegalArgumentException Thrown if the frame length or hop size is not positive.
+     */
+    public static Complex[][] shortTimeFourierTransform(double[] data, int frameLength, int hopSize, Window window) throws IllegalArgumentException {
+        List<Complex[]> frames = new ArrayList<>();
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(frameLength, hopSize, window,
+                (frame, spectrum) -> frames.add(spectrum.toComplexArray()));
+        stft.push(data);
+        return frames.toArray(new Complex[0][]);
+    }
+
+    /**
+     * A method calculating the two-dimensional discrete fourier transformation of a rectangular matrix of complex
+     * numbers using the row-column method. The order of the algorithm is O(mn log mn)
+     *
+     * @param data A rectangular matrix of complex numbers to perform the 2-D FFT on
+     * @return The transformed matrix
+     * @throws IllegalArgumentException Thrown if the matrix is empty or not rectangular.
+     * @see FftPlan2D
+     */
+    public static Complex[][] fastFourierTransform2D(Complex[][] data) throws IllegalArgumentException {
+        ComplexBuffer buffer = toBuffer(data);
+        FftPlan2D plan = FftPlanCache.getDefault().getFftPlan2D(data.length, data[0].length);
+        fastFourierTransform2D(buffer, buffer, plan, Parallelism.sequential());
+        return toMatrix(buffer, plan.getRows(), plan.getCols());
+    }
+
+    /**
+     * A method calculating the two-dimensional discrete fourier transformation of a matrix stored row after row in a
+     * buffer with a precomputed plan. The rows are transformed, the matrix is transposed with a cache-blocked
+     * transpose, the columns are transformed and the matrix is transposed back. Every step is split across the threads
+     * of the parallelism's pool if the matrix reaches its threshold. The order of the algorithm is O(mn log mn)
+     *
+     * @param in          The buffer of the rows * cols complex numbers to perform the 2-D FFT on
+     * @param out         The buffer the transformed matrix is written to. It may be the input buffer to transform in place.
+     * @param plan        The plan for the size of the matrix
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the size of the plan.
+     */
+    public static void fastFourierTransform2D(ComplexBuffer in, ComplexBuffer out, FftPlan2D plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkPlan(in.getLength(), out, plan.getRows() * plan.getCols());
+        if (in != out) out.copyFrom(in);
+        plan.transform(out, false, parallelism);
+    }
+
+    /**
+     * A method calculating the inverse two-dimensional discrete fourier transformation of a rectangular matrix of
+     * complex numbers. The result is divided by the number of values, so it undoes
+     * {@link #fastFourierTransform2D(Complex[][])}. The order of the algorithm is O(mn log mn)
+     *
+     * @param data A rectangular matrix of complex numbers to perform the inverse 2-D FFT on
+     * @return The transformed matrix
+     * @throws IllegalArgumentException Thrown if the matrix is empty or not rectangular.
+     */
+    public static Complex[][] inverseFastFourierTransform2D(Complex[][] data) throws IllegalArgumentException {
+        ComplexBuffer buffer = toBuffer(data);
+        FftPlan2D plan = FftPlanCache.getDefault().getFftPlan2D(data.length, data[0].length);
+        inverseFastFourierTransform2D(buffer, buffer, plan, Parallelism.sequential());
+        return toMatrix(buffer, plan.getRows(), plan.getCols());
+    }
+
+    /**
+     * A method calculating the inverse two-dimensional discrete fourier transformation of a matrix stored row after row
+     * in a buffer with a precomputed plan. The result is divided by rows * cols. The order of the algorithm is
+     * O(mn log mn)
+     *
+     * @param in          The buffer of the rows * cols complex numbers to perform the inverse 2-D FFT on
+     * @param out         The buffer the transformed matrix is written to. It may be the input buffer to transform in place.
+     * @param plan        The plan for the size of the matrix
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the size of the plan.
+     */
+    public static void inverseFastFourierTransform2D(ComplexBuffer in, ComplexBuffer out, FftPlan2D plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkPlan(in.getLength(), out, plan.getRows() * plan.getCols());
+        if (in != out) out.copyFrom(in);
+        plan.transform(out, true, parallelism);
+    }
+
+    /**
+     * A method calculating the multi-dimensional discrete fourier transformation of an array stored flat in row-major
+     * order in a buffer, along every axis of the plan. The order of the algorithm is O(N log N) for N values.
+     *
+     * @param in          The buffer of the complex numbers to perform the N-D FFT on
+     * @param out         The buffer the transformed array is written to. It may be the input buffer to transform in place.
+     * @param plan        The plan for the shape of the array
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the size of the plan.
+     */
+    public static void fastFourierTransformND(ComplexBuffer in, ComplexBuffer out, FftPlanND plan, Parallelism parallelism) throws IllegalArgumentException {
+        fastFourierTransformND(in, out, allAxes(plan), plan, parallelism);
+    }
+
+    /**
+     * A method calculating the discrete fourier transformation of an array stored flat in row-major order in a buffer
+     * along the given axes only, such as the two spatial axes of every slice of a volume. Every axis is transformed
+     * as a batch of one-dimensional transforms; strided axes are gathered in cache-line sized blocks and the batches
+     * are split across threads over the axes that are not being transformed. The order of the algorithm is
+     * O(N log M) for N values and M the product of the lengths of the transformed axes.
+     *
+     * @param in          The buffer of the complex numbers to perform the FFT on
+     * @param out         The buffer the transformed array is written to. It may be the input buffer to transform in place.
+     * @param axes        The distinct axes to transform, where 0 is the outermost axis
+     * @param plan        The plan for the shape of the array
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the size of the plan or an axis is out
+     *                                  of range or repeated.
+     */
+    public static void fastFourierTransformND(ComplexBuffer in, ComplexBuffer out, int[] axes, FftPlanND plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkPlan(in.getLength(), out, plan.getSize());
+        checkAxes(axes, plan.getDimensions());
+        if (in != out) out.copyFrom(in);
+        plan.transform(out, axes, false, parallelism);
+    }
+
+    /**
+     * A method calculating the inverse multi-dimensional discrete fourier transformation of an array stored flat in
+     * row-major order in a buffer, along every axis of the plan. The result is divided by the number of values, so it
+     * undoes {@link #fastFourierTransformND(ComplexBuffer, ComplexBuffer, FftPlanND, Parallelism)}.
+     * The order of the algorithm is O(N log N) for N values.
+     *
+     * @param in          The buffer of the complex numbers to perform the inverse N-D FFT on
+     * @param out         The buffer the transformed array is written to. It may be the input buffer to transform in place.
+     * @param plan        The plan for the shape of the array
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the size of the plan.
+     */
+    public static void inverseFastFourierTransformND(ComplexBuffer in, ComplexBuffer out, FftPlanND plan, Parallelism parallelism) throws IllegalArgumentException {
+        inverseFastFourierTransformND(in, out, allAxes(plan), plan, parallelism);
+    }
+
+    /**
+     * A method calculating the inverse discrete fourier transformation of an array stored flat in row-major order in a
+     * buffer along the given axes only. The result is divided by the length of every transformed axis.
+     * The order of the algorithm is O(N log M) for N values and M the product of the lengths of the transformed axes.
+     *
+     * @param in          The buffer of the complex numbers to perform the inverse FFT on
+     * @param out         The buffer the transformed array is written to. It may be the input buffer to transform in place.
+     * @param axes        The distinct axes to transform, where 0 is the outermost axis
+     * @param plan        The plan for the shape of the array
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the buffers' sizes do not match the size of the plan or an axis is out
+     *                                  of range or repeated.
+     */
+    public static void inverseFastFourierTransformND(ComplexBuffer in, ComplexBuffer out, int[] axes, FftPlanND plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkPlan(in.getLength(), out, plan.getSize());
+        checkAxes(axes, plan.getDimensions());
+        if (in != out) out.copyFrom(in);
+        plan.transform(out, axes, true, parallelism);
+    }
+
+    /**
+     * A method calculating the non-redundant half of the two-dimensional discrete fourier transformation of a real
+     * matrix. The spectrum of a real matrix satisfies X[m-j][n-k] = conj(X[j][k]), so only the first cols/2+1
+     * columns are returned. The order of the algorithm is O(mn log mn)
+     *
+     * @param data The real matrix to perform the 2-D FFT on
+     * @return The first cols/2+1 columns of every row of the transformed matrix
+     */
+    public static Complex[][] realFastFourierTransform2D(DoubleMatrix data) {
+        FftPlan2D plan = FftPlanCache.getDefault().getFftPlan2D(data.getRows(), data.getCols());
+        ComplexBuffer out = new ComplexBuffer(plan.getRows() * plan.getSpectrumCols());
+        realFastFourierTransform2D(data, out, plan, Parallelism.sequential());
+        return toMatrix(out, plan.getRows(), plan.getSpectrumCols());
+    }
+
+    /**
+     * A method calculating the non-redundant half of the two-dimensional discrete fourier transformation of a real
+     * matrix into a buffer with a precomputed plan. Every row is transformed with a real FFT before the cols/2+1
+     * remaining columns are transformed. The order of the algorithm is O(mn log mn)
+     *
+     * @param in          The real matrix to perform the 2-D FFT on. The size must match the size of the plan.
+     * @param out         The buffer the rows * (cols/2+1) values of the spectrum are written to row after row
+     * @param plan        The plan for the size of the matrix
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the matrix's size does not match the size of the plan or the buffer
+     *                                  does not have a size of rows * (cols/2+1).
+     */
+    public static void realFastFourierTransform2D(DoubleMatrix in, ComplexBuffer out, FftPlan2D plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkRealPlan2D(in, out, plan);
+        plan.forward(in.matrix, out, parallelism);
+    }
+
+    /**
+     * A method calculating the real matrix whose two-dimensional discrete fourier transformation has the given
+     * non-redundant half. This is the inverse of {@link #realFastFourierTransform2D(DoubleMatrix)}.
+     * The order of the algorithm is O(mn log mn)
+     *
+     * @param spectrum The first cols/2+1 columns of every row of a spectrum satisfying X[m-j][n-k] = conj(X[j][k])
+     * @param cols     The number of columns of the real matrix
+     * @return The real matrix of the spectrum
+     * @throws IllegalArgumentException Thrown if the spectrum is not rectangular or does not have cols/2+1 columns.
+     */
+    public static DoubleMatrix inverseRealFastFourierTransform2D(Complex[][] spectrum, int cols) throws IllegalArgumentException {
+        DoubleMatrix out = new DoubleMatrix(spectrum.length, cols);
+        FftPlan2D plan = FftPlanCache.getDefault().getFftPlan2D(spectrum.length, cols);
+        inverseRealFastFourierTransform2D(toBuffer(spectrum), out, plan, Parallelism.sequential());
+        return out;
+    }
+
+    /**
+     * A method calculating the real matrix whose two-dimensional discrete fourier transformation has the given
+     * non-redundant half with a precomputed plan. The input buffer is left unchanged.
+     * The order of the algorithm is O(mn log mn)
+     *
+     * @param in          The rows * (cols/2+1) values of the spectrum stored row after row
+     * @param out         The matrix the real values are written to. The size must match the size of the plan.
+     * @param plan        The plan for the size of the real matrix
+     * @param parallelism How the transform may be split across threads
+     * @throws IllegalArgumentException Thrown if the matrix's size does not match the size of the plan or the buffer
+     *                                  does not have a size of rows * (cols/2+1).
+     */
+    public static void inverseRealFastFourierTransform2D(ComplexBuffer in, DoubleMatrix out, FftPlan2D plan, Parallelism parallelism) throws IllegalArgumentException {
+        checkRealPlan2D(out, in, plan);
+        plan.inverse(in, out.matrix, parallelism);
+    }
+
+    private static ComplexBuffer toBuffer(Complex[][] matrix) throws IllegalArgumentException {
+        if (matrix.length == 0 || matrix[0].length == 0)
+            throw new IllegalArgumentException("The matrix cannot be empty.");
+        int cols = matrix[0].length;
+        ComplexBuffer buffer = new ComplexBuffer(matrix.length * cols);
+        for (int i = 0; i < matrix.length; i++) {
+            if (matrix[i].length != cols)
+                throw new IllegalArgumentException("Matrix has to be Rectangular!");
+            for (int j = 0; j < cols; j++) {
+                buffer.set(i * cols + j, matrix[i][j]);
+            }
+        }
+        return buffer;
+    }
+
+    private static Complex[][] toMatrix(ComplexBuffer buffer, int rows, int cols) {
+        Complex[][] matrix = new Complex[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix[i][j] = buffer.get(i * cols + j);
+            }
+        }
+        return matrix;
+    }
+
+    private static void checkBuffers(int length, ComplexBuffer in, ComplexBuffer out) throws IllegalArgumentException {
+        if (out.getLength() != length)
+            throw new IllegalArgumentException("The input and output buffers have to be the same length.");
+        if (in == out)
+            throw new IllegalArgumentException("The input and output buffers have to be different buffers.");
+    }
+
+    private static void checkPlan(int length, ComplexBuffer out, int planLength) throws IllegalArgumentException {
+        if (length != planLength || out.getLength() != planLength)
+            throw new IllegalArgumentException("The size of the input and output has to match the length of the plan.");
+    }
+
+    private static void checkPlan(int inLength, int outLength, int planLength) throws IllegalArgumentException {
+        if (inLength != planLength || outLength != planLength)
+            throw new IllegalArgumentException("The size of the input and output has to match the length of the plan.");
+    }
+
+    private static void checkBatch(ComplexBuffer data, BatchLayout layout, int length) throws IllegalArgumentException {
+        if (layout.getExtent(length) > data.getLength())
+            throw new IllegalArgumentException("The batch of signals does not fit into the buffer.");
+        if (layout.getCount() > 1 && layout.getDistance() == 0)
+            throw new IllegalArgumentException("The signals of the batch cannot overlap.");
+    }
+
+    private static long[] toLongs(int[] values) {
+        long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            longs[i] = values[i];
+        }
+        return longs;
+    }
+
+    private static int[] allAxes(FftPlanND plan) {
+        int[] axes = new int[plan.getDimensions()];
+        for (int a = 0; a < axes.length; a++) {
+            axes[a] = a;
+        }
+        return axes;
+    }
+
+    private static void checkAxes(int[] axes, int dimensions) throws IllegalArgumentException {
+        boolean[] seen = new boolean[dimensions];
+        for (int axis : axes) {
+            if (axis < 0 || axis >= dimensions)
+                throw new IllegalArgumentException("The axis " + axis + " is out of range for " + dimensions + " dimensions.");
+            if (seen[axis])
+                throw new IllegalArgumentException("The axis " + axis + " cannot be transformed twice.");
+            seen[axis] = true;
+        }
+    }
+
+    private static void checkRealPlan2D(DoubleMatrix matrix, ComplexBuffer spectrum, FftPlan2D plan) throws IllegalArgumentException {
+        if (matrix.getRows() != plan.getRows() || matrix.getCols() != plan.getCols()
+                || spectrum.getLength() != plan.getRows() * plan.getSpectrumCols())
+            throw new IllegalArgumentException("The size of the matrix has to match the size of the plan and the spectrum has to have half of its columns plus one.");
+    }
+
+    private static void checkRealPlan(int length, ComplexBuffer spectrum, RealFftPlan plan) throws IllegalArgumentException {
+        checkRealPlan(length, spectrum.getLength(), plan.getLength(), plan.getSpectrumLength());
+    }
+
+    private static void checkRealPlan(int length, int spectrumLength, int planLength, int planSpectrumLength) throws IllegalArgumentException {
+        if (length != planLength || spectrumLength != planSpectrumLength)
+            throw new IllegalArgumentException("The size of the signal has to match the length of the plan and the size of the spectrum has to be half of it plus one.");
     }
 
 }
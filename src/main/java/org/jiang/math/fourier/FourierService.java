@@ -0,0 +1,294 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An asynchronous facade over {@link Fourier} for services handling many concurrent requests. Transforms are
+ * CPU-bound, so they run on a fixed pool of worker threads sized to the processors instead of a thread per request.
+ * Blocking work such as reading a signal from a file or socket runs on a separate I/O executor, which uses virtual
+ * threads when the runtime has them and a cached pool of daemon threads otherwise, so waiting callers never occupy a
+ * worker. Every result is a {@link CompletableFuture}.
+ * <p>
+ * The number of requests in flight is bounded by the number of workers plus the queue capacity. When it is reached,
+ * {@link #submit(Callable)} blocks the caller until a request completes, while {@link #trySubmit(Callable)} fails fast
+ * with a {@link RejectedExecutionException}. A service is thread-safe and should be closed when it is no longer needed.
+ */
+public class FourierService implements AutoCloseable {
+
+    /**
+     * The number of requests waiting for a worker used when no capacity is given
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final int workers;
+    private final int queueCapacity;
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService io;
+
+    /**
+     * The remaining number of requests that can be in flight
+     */
+    private final Semaphore permits;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs a service with a worker per processor and the {@link #DEFAULT_QUEUE_CAPACITY}.
+     */
+    public FourierService() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructs a service with the given number of workers and queued requests.
+     *
+     * @param workers       The number of threads transforms run on
+     * @param queueCapacity The number of requests that may wait for a worker
+     * @throws IllegalArgumentException Thrown if the number of workers is not positive or the capacity is negative.
+     */
+    public FourierService(int workers, int queueCapacity) throws IllegalArgumentException {
+        if (workers <= 0)
+            throw new IllegalArgumentException("The number of workers has to be positive.");
+        if (queueCapacity < 0)
+            throw new IllegalArgumentException("The queue capacity cannot be negative.");
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        // the permits already bound the requests in flight, so the queue never rejects a task while the service is open
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory("fourier-worker-"));
+        io = newIoExecutor();
+        permits = new Semaphore(workers + queueCapacity);
+    }
+
+    /**
+     * A method returning the number of threads transforms run on.
+     *
+     * @return The number of workers
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * A method returning the number of requests that may wait for a worker.
+     *
+     * @return The queue capacity
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * A method returning the number of submitted requests which have not completed yet.
+     *
+     * @return The number of requests in flight
+     */
+    public int getPending() {
+        return workers + queueCapacity - permits.availablePermits();
+    }
+
+    /**
+     * Runs a CPU-bound task on the workers, waiting for room if the service is at capacity.
+     *
+     * @param task The task to run
+     * @param <T>  The type of the result
+     * @return The future completed with the result or exception of the task
+     * @throws InterruptedException Thrown if the caller is interrupted while waiting for room.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) throws InterruptedException {
+        permits.acquire();
+        return admit(() -> call(task, pool));
+    }
+
+    /**
+     * Runs a CPU-bound task on the workers if the service has room for it.
+     *
+     * @param task The task to run
+     * @param <T>  The type of the result
+     * @return The future completed with the result or exception of the task, or failed with a
+     * {@link RejectedExecutionException} if the service is at capacity
+     */
+    public <T> CompletableFuture<T> trySubmit(Callable<T> task) {
+        if (!permits.tryAcquire()) return rejected("The service has no room for another request.");
+        return admit(() -> call(task, pool));
+    }
+
+    /**
+     * Runs a blocking task, such as reading a signal, on the I/O executor and then transforms its result on the
+     * workers, waiting for room if the service is at capacity. The request holds its room until the transform
+     * completes.
+     *
+     * @param load      The blocking task producing the input
+     * @param transform The CPU-bound work done on the input
+     * @param <T>       The type of the input
+     * @param <R>       The type of the result
+     * @return The future completed with the result of the transform, or the exception of either step
+     * @throws InterruptedException Thrown if the caller is interrupted while waiting for room.
+     */
+    public <T, R> CompletableFuture<R> submit(Callable<T> load, Function<? super T, ? extends R> transform) throws InterruptedException {
+        permits.acquire();
+        return admit(() -> pipeline(load, transform));
+    }
+
+    /**
+     * Runs a blocking task on the I/O executor and then transforms its result on the workers if the service has room
+     * for the request.
+     *
+     * @param load      The blocking task producing the input
+     * @param transform The CPU-bound work done on the input
+     * @param <T>       The type of the input
+     * @param <R>       The type of the result
+     * @return The future completed with the result of the transform or the exception of either step, or failed with a
+     * {@link RejectedExecutionException} if the service is at capacity
+     */
+    public <T, R> CompletableFuture<R> trySubmit(Callable<T> load, Function<? super T, ? extends R> transform) {
+        if (!permits.tryAcquire()) return rejected("The service has no room for another request.");
+        return admit(() -> pipeline(load, transform));
+    }
+
+    /**
+     * Computes {@link Fourier#fastFourierTransform(double[])} on the workers, waiting for room if the service is at
+     * capacity.
+     *
+     * @param data An array of real numbers to perform the FFT on
+     * @return The future completed with the transformed array
+     * @throws InterruptedException Thrown if the caller is interrupted while waiting for room.
+     */
+    public CompletableFuture<Complex[]> fastFourierTransform(double[] data) throws InterruptedException {
+        return submit(() -> Fourier.fastFourierTransform(data));
+    }
+
+    /**
+     * Computes {@link Fourier#spectrum(double[], SpectrumType)} on the workers, waiting for room if the service is at
+     * capacity.
+     *
+     * @param data An array of real numbers to perform the FFT on
+     * @param type The spectrum computed from the bins
+     * @return The future completed with the n/2+1 values of the spectrum
+     * @throws InterruptedException Thrown if the caller is interrupted while waiting for room.
+     */
+    public CompletableFuture<double[]> spectrum(double[] data, SpectrumType type) throws InterruptedException {
+        return submit(() -> Fourier.spectrum(data, type));
+    }
+
+    /**
+     * Stops accepting requests. Requests already submitted still complete, including the transform step of a request
+     * whose load is still running; later ones fail with a {@link RejectedExecutionException}. The workers shut down
+     * once the last request in flight has completed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        io.shutdown();
+        if (getPending() == 0) pool.shutdown();
+    }
+
+    /**
+     * Waits until every submitted request has completed after the service was closed.
+     *
+     * @param timeout The longest time to wait
+     * @param unit    The unit of the timeout
+     * @return Whether every request completed before the timeout
+     * @throws InterruptedException Thrown if the caller is interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return io.awaitTermination(timeout, unit)
+                && pool.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private <T, R> CompletableFuture<R> pipeline(Callable<T> load, Function<? super T, ? extends R> transform) {
+        return call(load, io).thenCompose(input -> call(() -> transform.apply(input), pool));
+    }
+
+    /**
+     * Starts the work of a request holding a permit, or gives the permit back if the service has been closed. The
+     * returned copy of the future gives the request's room back once the work completes, and shuts the workers down
+     * after the last request of a closed service. Cancelling the copy does not give the room back early, since the
+     * work itself keeps running.
+     */
+    private <T> CompletableFuture<T> admit(Supplier<CompletableFuture<T>> start) {
+        if (closed) {
+            permits.release();
+            return rejected("The service has been closed.");
+        }
+        CompletableFuture<T> work = start.get();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        work.whenComplete((value, exception) -> {
+            permits.release();
+            if (closed && getPending() == 0) pool.shutdown();
+            if (exception != null) result.completeExceptionally(exception);
+            else result.complete(value);
+        });
+        return result;
+    }
+
+    private static <T> CompletableFuture<T> call(Callable<T> task, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static <T> CompletableFuture<T> rejected(String message) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(new RejectedExecutionException(message));
+        return future;
+    }
+
+    /**
+     * Creates an executor running every task on a new virtual thread if the runtime supports them, looked up
+     * reflectively so the library still runs on older runtimes, or a cached pool of daemon threads otherwise.
+     */
+    private static ExecutorService newIoExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new DaemonThreadFactory("fourier-io-"));
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.jiang.math.fourier;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A view of a file of complex numbers stored as interleaved little-endian doubles (real part, then imaginary part),
+ * which may be larger than any array. A single mapping cannot exceed 2 GiB, so the file is mapped in chunks of
+ * {@link #CHUNK} complex numbers and every access is split at the chunk boundaries.
+ */
+class MappedComplexArray {
+
+    /**
+     * The number of complex numbers of one mapped chunk, 1 GiB
+     */
+    private static final int CHUNK = 1 << 26;
+
+    private final long length;
+    private final MappedByteBuffer[] mappings;
+    private final DoubleBuffer[] chunks;
+
+    /**
+     * Maps the first length complex numbers of the file.
+     *
+     * @param channel  The channel of the file
+     * @param mode     Whether the file is mapped for reading only or for reading and writing
+     * @param length   The number of complex numbers to map
+     * @throws IOException Thrown if the file cannot be mapped.
+     */
+    MappedComplexArray(FileChannel channel, FileChannel.MapMode mode, long length) throws IOException {
+        this.length = length;
+        mappings = new MappedByteBuffer[(int) ((length + CHUNK - 1) / CHUNK)];
+        chunks = new DoubleBuffer[mappings.length];
+        for (int c = 0; c < chunks.length; c++) {
+            long start = (long) c * CHUNK;
+            long size = Math.min(CHUNK, length - start);
+            mappings[c] = channel.map(mode, 16 * start, 16 * size);
+            chunks[c] = mappings[c].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * A method returning the number of mapped complex numbers.
+     *
+     * @return The length of the array
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Reads count consecutive complex numbers starting at the index into re[offset + i * stride] and
+     * im[offset + i * stride].
+     */
+    void read(long index, int count, double[] re, double[] im, int offset, int stride) {
+        while (count > 0) {
+            DoubleBuffer chunk = chunks[(int) (index / CHUNK)];
+            int from = (int) (index % CHUNK);
+            int step = Math.min(count, CHUNK - from);
+            for (int i = 0, j = 2 * from, k = offset; i < step; i++, j += 2, k += stride) {
+                re[k] = chunk.get(j);
+                im[k] = chunk.get(j + 1);
+            }
+            index += step;
+            count -= step;
+            offset += step * stride;
+        }
+    }
+
+    /**
+     * Writes re[offset + i * stride] and im[offset + i * stride] into count consecutive complex numbers starting at the
+     * index.
+     */
+    void write(long index, int count, double[] re, double[] im, int offset, int stride) {
+        while (count > 0) {
+            DoubleBuffer chunk = chunks[(int) (index / CHUNK)];
+            int from = (int) (index % CHUNK);
+            int step = Math.min(count, CHUNK - from);
+            for (int i = 0, j = 2 * from, k = offset; i < step; i++, j += 2, k += stride) {
+                chunk.put(j, re[k]);
+                chunk.put(j + 1, im[k]);
+            }
+            index += step;
+            count -= step;
+            offset += step * stride;
+        }
+    }
+
+    /**
+     * Writes every change of the mapped chunks to the storage device of the file.
+     */
+    void force() {
+        for (MappedByteBuffer mapping : mappings) {
+            mapping.force();
+        }
+    }
+}
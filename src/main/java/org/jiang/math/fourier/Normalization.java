@@ -0,0 +1,17 @@
+package org.jiang.math.fourier;
+
+/**
+ * An enum representing the scaling applied to the trigonometric transforms
+ */
+public enum Normalization {
+    /**
+     * Uses the plain sums of the definition of the transform, like {@link Fourier#discreteCosineTransform(double[])}.
+     * The inverse transforms carry the whole scaling.
+     */
+    NONE,
+    /**
+     * Scales the transform so that it is orthogonal. The forward and inverse transforms are then each other's transpose
+     * and preserve the energy of the signal.
+     */
+    ORTHONORMAL
+}
@@ -0,0 +1,286 @@
+package org.jiang.math.fourier;
+
+import java.math.BigInteger;
+
+/**
+ * The number-theoretic transform (NTT), the discrete fourier transform over the integers modulo a prime p of the form
+ * c 2<sup>e</sup> + 1. A primitive root of unity of every power of two order up to 2<sup>e</sup> exists modulo such a
+ * prime, so the radix-2 algorithm carries over unchanged with exact modular arithmetic instead of floating point
+ * twiddles. Convolutions are computed modulo several primes below 2<sup>30</sup> and the residues are combined with
+ * the Chinese remainder theorem (Garner's algorithm), using just enough primes for the largest possible result.
+ * <p>
+ * Twiddle multiplications use Shoup's method: for a fixed twiddle w the quotient floor(w 2<sup>32</sup> / p) is
+ * precomputed, so x w mod p costs two multiplications and a conditional subtraction instead of a division.
+ */
+class NumberTheoreticTransform {
+
+    /**
+     * The primes the convolutions are computed modulo, all below 2<sup>30</sup> and of the form c 2<sup>e</sup> + 1
+     * with e at least 23. The first three are the classic 998244353 = 119 2<sup>23</sup> + 1, 167772161 =
+     * 5 2<sup>25</sup> + 1 and 469762049 = 7 2<sup>26</sup> + 1.
+     */
+    private static final int[] PRIMES = {998244353, 167772161, 469762049, 754974721, 595591169, 645922817, 897581057};
+
+    /**
+     * A primitive root modulo every prime
+     */
+    private static final int[] GENERATORS = {3, 3, 3, 11, 3, 3, 3};
+
+    /**
+     * The longest transform supported by every prime, 2<sup>23</sup>
+     */
+    static final int MAX_LENGTH = 1 << 23;
+
+    /**
+     * The number of bits of the product of the first k primes for every k
+     */
+    private static final double[] PRODUCT_BITS = new double[PRIMES.length + 1];
+
+    /**
+     * INVERSES[i][j] is the inverse of the i-th prime modulo the j-th prime for i &lt; j
+     */
+    private static final long[][] INVERSES = new long[PRIMES.length][PRIMES.length];
+
+    /**
+     * HALVES[k] holds the mixed radix digits of (M - 1) / 2 for the product M of the first k primes
+     */
+    private static final int[][] HALVES = new int[PRIMES.length + 1][];
+
+    /**
+     * Convolutions whose shorter sequence has at most this length are computed directly when no partial sum can
+     * overflow
+     */
+    private static final int DIRECT_THRESHOLD = 64;
+
+    static {
+        BigInteger product = BigInteger.ONE;
+        for (int k = 1; k <= PRIMES.length; k++) {
+            product = product.multiply(BigInteger.valueOf(PRIMES[k - 1]));
+            PRODUCT_BITS[k] = PRODUCT_BITS[k - 1] + Math.log(PRIMES[k - 1]) / Math.log(2);
+            BigInteger half = product.subtract(BigInteger.ONE).shiftRight(1);
+            HALVES[k] = new int[k];
+            for (int j = 0; j < k; j++) {
+                BigInteger[] division = half.divideAndRemainder(BigInteger.valueOf(PRIMES[j]));
+                HALVES[k][j] = division[1].intValue();
+                half = division[0];
+            }
+        }
+        for (int i = 0; i < PRIMES.length; i++) {
+            for (int j = i + 1; j < PRIMES.length; j++) {
+                INVERSES[i][j] = BigInteger.valueOf(PRIMES[i]).modInverse(BigInteger.valueOf(PRIMES[j])).longValue();
+            }
+        }
+    }
+
+    private final int length;
+    private final int modulus;
+
+    /**
+     * The twiddles of every radix-2 pass one after the other, w<sub>2h</sub><sup>k</sup> at index h-1+k, and their
+     * Shoup quotients
+     */
+    private final int[] roots;
+    private final long[] quotients;
+
+    /**
+     * Constructs the tables for transforms of the given power of two length modulo the given prime.
+     */
+    private NumberTheoreticTransform(int length, int prime) {
+        this.length = length;
+        this.modulus = PRIMES[prime];
+        roots = new int[Math.max(1, length - 1)];
+        quotients = new long[roots.length];
+        for (int half = 1; half < length; half <<= 1) {
+            // a primitive root of order 2h is g^((p-1)/2h)
+            long step = power(GENERATORS[prime], (modulus - 1) / (2 * half), modulus);
+            long w = 1;
+            for (int k = 0; k < half; k++) {
+                roots[half - 1 + k] = (int) w;
+                quotients[half - 1 + k] = (w << 32) / modulus;
+                w = w * step % modulus;
+            }
+        }
+    }
+
+    /**
+     * Computes the exact linear convolution of two sequences of integers, of length n+m-1.
+     *
+     * @throws ArithmeticException Thrown if a value of the convolution does not fit into a long.
+     */
+    static long[] convolve(long[] a, long[] b) throws ArithmeticException {
+        int n = a.length;
+        int m = b.length;
+        long[] result = new long[n + m - 1];
+
+        // |c[k]| is at most min(n, m) max|a| max|b|, which decides how many primes are needed
+        double bound = Math.min(n, m) * maxAbs(a) * maxAbs(b);
+        if (bound == 0) return result;
+        if (Math.min(n, m) <= DIRECT_THRESHOLD && bound < 0x1p62) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < m; j++) {
+                    result[i + j] += a[i] * b[j];
+                }
+            }
+            return result;
+        }
+
+        int primes = 1;
+        while (PRODUCT_BITS[primes] < Math.log(bound) / Math.log(2) + 2) {
+            primes++;
+        }
+        int[][] residues = new int[primes][];
+        for (int p = 0; p < primes; p++) {
+            residues[p] = convolve(a, b, p);
+        }
+
+        int[] digits = new int[primes];
+        for (int k = 0; k < result.length; k++) {
+            for (int j = 0; j < primes; j++) {
+                long x = residues[j][k];
+                for (int i = 0; i < j; i++) {
+                    x = (x - digits[i] % PRIMES[j] + PRIMES[j]) % PRIMES[j] * INVERSES[i][j] % PRIMES[j];
+                }
+                digits[j] = (int) x;
+            }
+            result[k] = combine(digits, primes);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the convolution of two sequences modulo the given prime. Convolutions longer than {@link #MAX_LENGTH}
+     * are split into blocks of both sequences whose products are added modulo the prime.
+     */
+    private static int[] convolve(long[] a, long[] b, int prime) {
+        int modulus = PRIMES[prime];
+        int[] result = new int[a.length + b.length - 1];
+        int blockA = a.length;
+        int blockB = b.length;
+        if (blockA + blockB - 1 > MAX_LENGTH) {
+            // a short sequence stays whole, while two long sequences are both split in halves of the longest transform
+            blockB = Math.min(b.length, Math.max(MAX_LENGTH / 2, MAX_LENGTH + 1 - a.length));
+            blockA = Math.min(a.length, MAX_LENGTH + 1 - blockB);
+        }
+        int size = Integer.highestOneBit(blockA + blockB - 1);
+        if (size < blockA + blockB - 1) size <<= 1;
+        NumberTheoreticTransform ntt = new NumberTheoreticTransform(size, prime);
+        long inverse = power(size, modulus - 2, modulus);
+        long inverseQuotient = (inverse << 32) / modulus;
+
+        int[] x = new int[size];
+        int[] y = new int[size];
+        for (int i = 0; i < a.length; i += blockA) {
+            int countA = Math.min(blockA, a.length - i);
+            ntt.load(a, i, countA, x);
+            ntt.transform(x);
+            for (int j = 0; j < b.length; j += blockB) {
+                int countB = Math.min(blockB, b.length - j);
+                ntt.load(b, j, countB, y);
+                ntt.transform(y);
+                for (int k = 0; k < size; k++) {
+                    y[k] = ntt.multiply((int) ((long) x[k] * y[k] % modulus), inverse, inverseQuotient);
+                }
+                // the inverse transform is the forward transform with the outputs 1..n-1 reversed
+                ntt.transform(y);
+                for (int k = 0; k < countA + countB - 1; k++) {
+                    int value = y[k == 0 ? 0 : size - k];
+                    int r = result[i + j + k] + value;
+                    result[i + j + k] = r >= modulus ? r - modulus : r;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reduces count values of the sequence starting at the offset into the first values of the array and clears the
+     * rest of it.
+     */
+    private void load(long[] values, int offset, int count, int[] out) {
+        for (int k = 0; k < count; k++) {
+            out[k] = (int) Math.floorMod(values[offset + k], (long) modulus);
+        }
+        for (int k = count; k < length; k++) {
+            out[k] = 0;
+        }
+    }
+
+    /**
+     * Transforms the residues in place with radix-2 butterflies after a bit-reversal permutation.
+     */
+    private void transform(int[] data) {
+        int bits = Integer.numberOfTrailingZeros(length);
+        for (int i = 0; i < length; i++) {
+            int j = bits == 0 ? 0 : Integer.reverse(i) >>> (Integer.SIZE - bits);
+            if (i < j) {
+                int tmp = data[i];
+                data[i] = data[j];
+                data[j] = tmp;
+            }
+        }
+        for (int half = 1; half < length; half <<= 1) {
+            for (int block = 0; block < length; block += 2 * half) {
+                for (int a = block, t = half - 1; a < block + half; a++, t++) {
+                    int b = a + half;
+                    int product = multiply(data[b], roots[t], quotients[t]);
+                    int sum = data[a] + product;
+                    int difference = data[a] - product;
+                    data[a] = sum >= modulus ? sum - modulus : sum;
+                    data[b] = difference < 0 ? difference + modulus : difference;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes x w mod p for a residue x with Shoup's precomputed quotient of the twiddle w.
+     */
+    private int multiply(int x, long w, long quotient) {
+        long q = (x * quotient) >>> 32;
+        long r = x * w - q * modulus;
+        return (int) (r >= modulus ? r - modulus : r);
+    }
+
+    /**
+     * Evaluates the mixed radix digits of a value modulo the product M of the first primes as the signed value in
+     * (-M/2, M/2].
+     *
+     * @throws ArithmeticException Thrown if the value does not fit into a long.
+     */
+    private static long combine(int[] digits, int primes) {
+        int[] half = HALVES[primes];
+        boolean negative = false;
+        for (int j = primes - 1; j >= 0; j--) {
+            if (digits[j] != half[j]) {
+                negative = digits[j] > half[j];
+                break;
+            }
+        }
+        // a negative value v - M is evaluated as -((M - 1 - v) + 1), whose digits are p - 1 - d
+        long value = 0;
+        for (int j = primes - 1; j >= 0; j--) {
+            int digit = negative ? PRIMES[j] - 1 - digits[j] : digits[j];
+            value = Math.addExact(Math.multiplyExact(value, PRIMES[j]), digit);
+        }
+        return negative ? -value - 1 : value;
+    }
+
+    private static double maxAbs(long[] values) {
+        double max = 0;
+        for (long value : values) {
+            max = Math.max(max, Math.abs((double) value));
+        }
+        return max;
+    }
+
+    private static long power(long base, long exponent, long modulus) {
+        long result = 1;
+        base %= modulus;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) result = result * base % modulus;
+            base = base * base % modulus;
+            exponent >>= 1;
+        }
+        return result;
+    }
+}
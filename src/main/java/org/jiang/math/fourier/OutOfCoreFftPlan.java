@@ -0,0 +1,432 @@
+package org.jiang.math.fourier;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A reusable plan for the fast fourier transform of signals stored in files, which may be far larger than the memory
+ * of the process. The signals are read from and written to memory-mapped files of interleaved little-endian complex
+ * doubles with the four-step algorithm. The length n is split into n1 * n2, with the signal seen as n2 rows of n1
+ * columns:
+ * <ol>
+ *     <li>Every column is transformed with a length n2 FFT, in blocks of columns which fit into the memory budget.</li>
+ *     <li>Every value of column n1 and row k2 is multiplied by the twiddle W<sub>n</sub><sup>n1 k2</sup> and the
+ *     blocks are written to a temporary file.</li>
+ *     <li>Every row of the temporary file is transformed with a length n1 FFT, in blocks of rows which fit into the
+ *     memory budget, and written transposed into the output file, so the output is in natural order.</li>
+ * </ol>
+ * Only the blocks are held in memory; the files themselves are paged in and out by the operating system.
+ * <p>
+ * Prime lengths, and lengths whose largest factor up to &radic;n leaves more rows than fit into the budget, cannot be
+ * split usefully. They are transformed with Bluestein's algorithm instead: the signal is multiplied by a chirp and
+ * cyclically convolved with the conjugate chirp through three out-of-core transforms of the power of two length m
+ * &ge; 2n - 1, which always splits evenly. This needs three temporary files of m values and about six times the work
+ * of a direct split. A plan is immutable and can be shared between threads.
+ */
+public class OutOfCoreFftPlan {
+
+    /**
+     * The number of bytes of one complex number in the files and in memory
+     */
+    private static final int COMPLEX_BYTES = 16;
+
+    /**
+     * The number of twiddles computed by recurrence before the next one is computed directly again
+     */
+    private static final int TWIDDLE_RESEED = 64;
+
+    /**
+     * The longest length whose convolution length of at most 2<sup>60</sup> still splits into rows of array lengths
+     */
+    private static final long MAX_LENGTH = 1L << 59;
+
+    private final long length;
+    private final long memoryBudget;
+
+    /**
+     * The number of columns n1 and rows n2 of the signal, or zero if the length is transformed with Bluestein's
+     * algorithm
+     */
+    private final int cols;
+    private final int rows;
+
+    private final FftPlan rowPlan;
+    private final FftPlan columnPlan;
+
+    /**
+     * The plan of the power of two convolutions of Bluestein's algorithm, or null if the length is split directly
+     */
+    private final OutOfCoreFftPlan convolution;
+
+    /**
+     * Constructs a plan for transforms of the given length which hold at most the given number of bytes of the signal
+     * in memory at once.
+     *
+     * @param length       The number of complex numbers of the signals transformed with this plan
+     * @param memoryBudget The number of bytes of the blocks held in memory at once
+     * @throws IllegalArgumentException Thrown if the length is not positive or the budget cannot hold a single row or
+     *                                  column of either the direct split or Bluestein's convolution.
+     */
+    public OutOfCoreFftPlan(long length, long memoryBudget) throws IllegalArgumentException {
+        if (length <= 0)
+            throw new IllegalArgumentException("The length of the plan has to be positive.");
+        if (length > MAX_LENGTH)
+            throw new IllegalArgumentException("The length of the plan can be at most " + MAX_LENGTH + ".");
+        this.length = length;
+        this.memoryBudget = memoryBudget;
+
+        // the largest factor up to the square root keeps both passes as balanced as possible
+        long factor = 1;
+        for (long f = (long) Math.sqrt(length); f >= 1; f--) {
+            if (length % f == 0) {
+                factor = f;
+                break;
+            }
+        }
+        long splitRows = length / factor;
+        if (splitRows <= Integer.MAX_VALUE - 8 && COMPLEX_BYTES * splitRows <= memoryBudget) {
+            cols = (int) factor;
+            rows = (int) splitRows;
+            rowPlan = new FftPlan(cols);
+            columnPlan = cols == rows ? rowPlan : new FftPlan(rows);
+            convolution = null;
+            return;
+        }
+
+        // a power of two of 2^k values is split into 2^(k/2) columns of 2^(k - k/2) rows
+        long size = 1;
+        while (size < 2 * length - 1) {
+            size <<= 1;
+        }
+        int bits = Long.numberOfTrailingZeros(size);
+        long convolutionRows = 1L << (bits - bits / 2);
+        if (COMPLEX_BYTES * convolutionRows > memoryBudget) {
+            long minimum = COMPLEX_BYTES * (splitRows <= Integer.MAX_VALUE - 8 ? Math.min(splitRows, convolutionRows)
+                    : convolutionRows);
+            throw new IllegalArgumentException("The memory budget has to hold at least " + minimum + " bytes.");
+        }
+        cols = 0;
+        rows = 0;
+        rowPlan = null;
+        columnPlan = null;
+        convolution = new OutOfCoreFftPlan(size, memoryBudget);
+    }
+
+    /**
+     * A method returning the number of complex numbers of the signals transformed with this plan.
+     *
+     * @return The length of the plan
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * A method returning the number of bytes of the blocks held in memory at once.
+     *
+     * @return The memory budget
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Transforms the first n complex numbers of the input file into the output file, which is created or overwritten.
+     * The input file is left unchanged. The inverse transform includes the division by n.
+     */
+    void transform(Path in, Path out, boolean inverse, Parallelism parallelism) throws IOException {
+        if (Files.size(in) < COMPLEX_BYTES * length)
+            throw new IllegalArgumentException("The input file has to hold at least " + length + " complex numbers.");
+        if (Files.exists(out) && Files.isSameFile(in, out))
+            throw new IllegalArgumentException("The input and output files have to be different files.");
+        Path directory = out.toAbsolutePath().getParent();
+        if (convolution != null) {
+            transformBluestein(in, out, directory, inverse, parallelism);
+            return;
+        }
+        Path temporary = Files.createTempFile(directory, "fft", ".tmp");
+        try {
+            transform(in, temporary, out, inverse, parallelism);
+        } finally {
+            delete(temporary);
+        }
+    }
+
+    /**
+     * Transforms the input with Bluestein's algorithm. Since 2jk = j&sup2; + k&sup2; - (k - j)&sup2;, the transform is
+     * the chirp times the convolution of the signal times the chirp with the conjugate chirp, where the chirp is
+     * e<sup>-i&pi;j&sup2;/n</sup> for the forward and e<sup>i&pi;j&sup2;/n</sup> for the inverse transform. Padded with
+     * zeros to m values, that is a cyclic convolution computed with the power of two plan.
+     */
+    private void transformBluestein(Path in, Path out, Path directory, boolean inverse,
+                                    Parallelism parallelism) throws IOException {
+        Path signal = Files.createTempFile(directory, "fft", ".tmp");
+        Path kernel = null;
+        Path spectrum = null;
+        try {
+            kernel = Files.createTempFile(directory, "fft", ".tmp");
+            spectrum = Files.createTempFile(directory, "fft", ".tmp");
+            writeChirps(in, signal, kernel, inverse);
+            convolution.transform(kernel, spectrum, false, parallelism);
+            convolution.transform(signal, kernel, false, parallelism);
+            multiplySpectra(kernel, spectrum);
+            convolution.transform(kernel, signal, true, parallelism);
+            writeResult(signal, out, inverse);
+        } finally {
+            delete(signal);
+            if (kernel != null) delete(kernel);
+            if (spectrum != null) delete(spectrum);
+        }
+    }
+
+    /**
+     * Writes the signal multiplied by the chirp and padded with zeros, and the conjugate chirp wrapped around to
+     * negative indices, as files of m values.
+     */
+    private void writeChirps(Path in, Path signal, Path kernel, boolean inverse) throws IOException {
+        long size = convolution.getLength();
+        double sign = inverse ? 1 : -1;
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ);
+             FileChannel a = FileChannel.open(signal, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel b = FileChannel.open(kernel, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedComplexArray source = new MappedComplexArray(input, FileChannel.MapMode.READ_ONLY, length);
+            MappedComplexArray padded = new MappedComplexArray(a, FileChannel.MapMode.READ_WRITE, size);
+            MappedComplexArray wrapped = new MappedComplexArray(b, FileChannel.MapMode.READ_WRITE, size);
+            int block = blockSize(size);
+            double[] re = new double[block];
+            double[] im = new double[block];
+            for (long first = 0; first < size; first += block) {
+                int count = (int) Math.min(block, size - first);
+                // the mapped region past the old end of the file is unspecified, so the padding is written explicitly
+                int values = (int) Math.max(0, Math.min(count, length - first));
+                source.read(first, values, re, im, 0, 1);
+                Arrays.fill(re, values, count, 0);
+                Arrays.fill(im, values, count, 0);
+                multiplyChirp(re, im, 0, values, first, 1, sign);
+                padded.write(first, count, re, im, 0, 1);
+
+                // value j of the kernel is the conjugate chirp at j for j < n, at m - j for j > m - n and zero between
+                Arrays.fill(re, 0, count, 1);
+                Arrays.fill(im, 0, count, 0);
+                int head = values;
+                long tailFirst = Math.max(first, size - length + 1);
+                int tail = (int) Math.max(0, first + count - tailFirst);
+                int tailOffset = count - tail;
+                Arrays.fill(re, head, tailOffset, 0);
+                multiplyChirp(re, im, 0, head, first, 1, -sign);
+                multiplyChirp(re, im, tailOffset, tail, size - tailFirst, -1, -sign);
+                wrapped.write(first, count, re, im, 0, 1);
+            }
+        }
+    }
+
+    /**
+     * Multiplies the spectrum of the padded signal by the spectrum of the kernel, in place
+     */
+    private void multiplySpectra(Path signal, Path kernel) throws IOException {
+        long size = convolution.getLength();
+        try (FileChannel a = FileChannel.open(signal, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel b = FileChannel.open(kernel, StandardOpenOption.READ)) {
+            MappedComplexArray product = new MappedComplexArray(a, FileChannel.MapMode.READ_WRITE, size);
+            MappedComplexArray factor = new MappedComplexArray(b, FileChannel.MapMode.READ_ONLY, size);
+            int block = blockSize(size);
+            double[] re = new double[block];
+            double[] im = new double[block];
+            double[] factorRe = new double[block];
+            double[] factorIm = new double[block];
+            for (long first = 0; first < size; first += block) {
+                int count = (int) Math.min(block, size - first);
+                product.read(first, count, re, im, 0, 1);
+                factor.read(first, count, factorRe, factorIm, 0, 1);
+                for (int i = 0; i < count; i++) {
+                    double r = re[i] * factorRe[i] - im[i] * factorIm[i];
+                    im[i] = re[i] * factorIm[i] + im[i] * factorRe[i];
+                    re[i] = r;
+                }
+                product.write(first, count, re, im, 0, 1);
+            }
+        }
+    }
+
+    /**
+     * Multiplies the first n values of the convolution by the chirp into the output file, including the division by n
+     * of the inverse transform, and forces the output to the storage device.
+     */
+    private void writeResult(Path convolved, Path out, boolean inverse) throws IOException {
+        double sign = inverse ? 1 : -1;
+        double scale = inverse ? 1.0 / length : 1;
+        try (FileChannel input = FileChannel.open(convolved, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedComplexArray source = new MappedComplexArray(input, FileChannel.MapMode.READ_ONLY, length);
+            MappedComplexArray target = new MappedComplexArray(output, FileChannel.MapMode.READ_WRITE, length);
+            int block = blockSize(length);
+            double[] re = new double[block];
+            double[] im = new double[block];
+            for (long first = 0; first < length; first += block) {
+                int count = (int) Math.min(block, length - first);
+                source.read(first, count, re, im, 0, 1);
+                multiplyChirp(re, im, 0, count, first, 1, sign);
+                for (int i = 0; i < count; i++) {
+                    re[i] *= scale;
+                    im[i] *= scale;
+                }
+                target.write(first, count, re, im, 0, 1);
+            }
+            target.force();
+        }
+    }
+
+    /**
+     * Multiplies count values starting at the offset by the chirp e<sup>sign i&pi;j&sup2;/n</sup> of the indices
+     * j = first, first + step, ... with a step of one or minus one. j&sup2; mod 2n is updated exactly from one index to
+     * the next, so the angles stay exact however long the signal is.
+     */
+    private void multiplyChirp(double[] re, double[] im, int offset, int count, long first, int step, double sign) {
+        long modulus = 2 * length;
+        long square = BigInteger.valueOf(first).pow(2).mod(BigInteger.valueOf(modulus)).longValue();
+        for (int i = 0; i < count; i++) {
+            long j = first + (long) i * step;
+            double theta = sign * Math.PI * square / length;
+            double wr = Math.cos(theta);
+            double wi = Math.sin(theta);
+            int k = offset + i;
+            double r = re[k] * wr - im[k] * wi;
+            im[k] = re[k] * wi + im[k] * wr;
+            re[k] = r;
+
+            // (j + step)^2 = j^2 + 2 j step + 1, where |2 j step + 1| < 2n
+            square += 2 * j * step + 1;
+            if (square >= modulus) square -= modulus;
+            else if (square < 0) square += modulus;
+        }
+    }
+
+    /**
+     * Runs the three steps through the temporary file and forces the output to the storage device. The mappings are
+     * only referenced from this method, so they are unreachable once it returns.
+     */
+    private void transform(Path in, Path temporary, Path out, boolean inverse,
+                           Parallelism parallelism) throws IOException {
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ);
+             FileChannel work = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel output = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedComplexArray source = new MappedComplexArray(input, FileChannel.MapMode.READ_ONLY, length);
+            MappedComplexArray middle = new MappedComplexArray(work, FileChannel.MapMode.READ_WRITE, length);
+            MappedComplexArray target = new MappedComplexArray(output, FileChannel.MapMode.READ_WRITE, length);
+            transformColumns(source, middle, inverse, parallelism);
+            transformRows(middle, target, inverse, parallelism);
+            target.force();
+        }
+    }
+
+    /**
+     * Deletes a temporary file. A file which is still mapped cannot be deleted on some platforms until the mapping is
+     * garbage collected, so such a file is deleted when the virtual machine exits instead. A failed deletion never
+     * replaces the result or the exception of the transform.
+     */
+    private static void delete(Path temporary) {
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+            temporary.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * Steps 1 and 2, transforming blocks of columns in memory and multiplying them by the twiddles
+     */
+    private void transformColumns(MappedComplexArray source, MappedComplexArray target, boolean inverse,
+                                  Parallelism parallelism) {
+        int block = blockSize(cols, rows);
+        double[] re = new double[block * rows];
+        double[] im = new double[block * rows];
+        for (int first = 0; first < cols; first += block) {
+            int count = Math.min(block, cols - first);
+            // row n2 of the block becomes value n2 of every column signal
+            for (int n2 = 0; n2 < rows; n2++) {
+                source.read((long) n2 * cols + first, count, re, im, n2, rows);
+            }
+            columnPlan.transform(re, im, BatchLayout.contiguous(count, rows), inverse, parallelism);
+            int start = first;
+            int tasks = Math.min(count, parallelism.getTasks((long) count * rows));
+            parallelism.forEach(tasks, t -> {
+                for (int s = (int) ((long) t * count / tasks); s < (long) (t + 1) * count / tasks; s++) {
+                    multiplyTwiddles(re, im, s * rows, start + s, inverse);
+                }
+            });
+            for (int k2 = 0; k2 < rows; k2++) {
+                target.write((long) k2 * cols + first, count, re, im, k2, rows);
+            }
+        }
+    }
+
+    /**
+     * Step 3, transforming blocks of rows in memory and writing them transposed
+     */
+    private void transformRows(MappedComplexArray source, MappedComplexArray target, boolean inverse,
+                               Parallelism parallelism) {
+        int block = blockSize(rows, cols);
+        double[] re = new double[block * cols];
+        double[] im = new double[block * cols];
+        for (int first = 0; first < rows; first += block) {
+            int count = Math.min(block, rows - first);
+            source.read((long) first * cols, count * cols, re, im, 0, 1);
+            rowPlan.transform(re, im, BatchLayout.contiguous(count, cols), inverse, parallelism);
+            // X[k2 + n2 k1] is value k1 of row k2
+            for (int k1 = 0; k1 < cols; k1++) {
+                target.write((long) k1 * rows + first, count, re, im, k1, cols);
+            }
+        }
+    }
+
+    /**
+     * The number of values streamed through Bluestein's steps at once, so that two blocks fit into the memory budget
+     */
+    private int blockSize(long count) {
+        long fit = Math.max(1, memoryBudget / (2 * COMPLEX_BYTES));
+        return (int) Math.min(Math.min(count, fit), Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * The number of signals of the given length which fit into the memory budget and into one array
+     */
+    private int blockSize(int count, int signalLength) {
+        long fit = Math.min(memoryBudget / ((long) COMPLEX_BYTES * signalLength), (Integer.MAX_VALUE - 8) / signalLength);
+        return (int) Math.min(count, fit);
+    }
+
+    /**
+     * Multiplies value k2 of the transformed column n1 by W<sub>n</sub><sup>n1 k2</sup>, rotating the twiddle by
+     * recurrence and recomputing it directly every {@link #TWIDDLE_RESEED} values to stop the rounding errors from
+     * growing.
+     */
+    private void multiplyTwiddles(double[] re, double[] im, int offset, int column, boolean inverse) {
+        double sign = inverse ? 1 : -1;
+        double stepRe = Math.cos(2 * Math.PI * column / length);
+        double stepIm = sign * Math.sin(2 * Math.PI * column / length);
+        double wr = 1;
+        double wi = 0;
+        for (int k2 = 0; k2 < rows; k2++) {
+            if (k2 % TWIDDLE_RESEED == 0) {
+                double theta = sign * 2 * Math.PI * ((long) column * k2 % length) / length;
+                wr = Math.cos(theta);
+                wi = Math.sin(theta);
+            }
+            int i = offset + k2;
+            double r = re[i] * wr - im[i] * wi;
+            im[i] = re[i] * wi + im[i] * wr;
+            re[i] = r;
+
+            double tmp = wr * stepRe - wi * stepIm;
+            wi = wr * stepIm + wi * stepRe;
+            wr = tmp;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.jiang.math.fourier;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * A class describing how a transform may be split across the threads of a {@link ForkJoinPool}. Transforms smaller
+ * than the threshold always run sequentially on the calling thread, since splitting them costs more than it saves.
+ */
+public class Parallelism {
+
+    /**
+     * The default number of values a transform needs before it is split across threads
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    /**
+     * The smallest number of values a single task works on
+     */
+    private static final int MIN_CHUNK = 1 << 10;
+
+    private static final Parallelism SEQUENTIAL = new Parallelism(null, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Constructs a parallelism using the given pool for transforms of at least the threshold's size.
+     *
+     * @param pool      The pool the work is split across
+     * @param threshold The number of values a transform needs before it is split across threads
+     */
+    public Parallelism(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Constructs a parallelism using the common pool for transforms of at least the threshold's size.
+     *
+     * @param threshold The number of values a transform needs before it is split across threads
+     */
+    public Parallelism(int threshold) {
+        this(ForkJoinPool.commonPool(), threshold);
+    }
+
+    /**
+     * Constructs a parallelism using the common pool and the {@link #DEFAULT_THRESHOLD}.
+     */
+    public Parallelism() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * A method returning a parallelism that always runs on the calling thread.
+     *
+     * @return A sequential parallelism
+     */
+    public static Parallelism sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * A method returning the pool the work is split across.
+     *
+     * @return The pool, or null if the work always runs on the calling thread
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * A method returning the number of values a transform needs before it is split across threads.
+     *
+     * @return The parallelism threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Checks whether work of the given size should be split across threads.
+     *
+     * @param size The number of values the work touches
+     * @return true if the work is large enough and there is more than one thread to split it across
+     */
+    boolean isParallel(long size) {
+        return pool != null && pool.getParallelism() > 1 && size >= threshold;
+    }
+
+    /**
+     * Computes the power of two number of tasks work of the given size is split into, so that every thread gets a few
+     * tasks to balance the load while every task still works on at least a minimum number of values.
+     *
+     * @param size The number of values the work touches
+     * @return The number of tasks
+     */
+    int getTasks(long size) {
+        if (!isParallel(size)) return 1;
+        long tasks = Math.min(4L * pool.getParallelism(), Math.max(1, size / MIN_CHUNK));
+        return Integer.highestOneBit((int) Math.min(tasks, 1 << 30));
+    }
+
+    /**
+     * Runs the body for every index in [0, count) and waits for all of them to finish. The indices are run on the pool
+     * if this parallelism has one, or on the calling thread otherwise.
+     *
+     * @param count The number of indices
+     * @param body  The work done for every index
+     */
+    void forEach(int count, IntConsumer body) {
+        if (pool == null || count <= 1) {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        Range range = new Range(0, count, body);
+        if (ForkJoinTask.getPool() == pool) {
+            range.invoke();
+        } else {
+            pool.invoke(range);
+        }
+    }
+
+    private static class Range extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        private Range(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Range(from, mid, body), new Range(mid, to, body));
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.jiang.math.fourier;
+
+import java.util.Arrays;
+
+/**
+ * A streaming resampler changing the sample rate of an unbounded signal by a rational factor up/down with a polyphase
+ * FIR filter. Conceptually the signal is upsampled by inserting up-1 zeros after every sample, lowpass filtered below
+ * the lower of the two Nyquist frequencies and decimated by keeping every down-th sample. The polyphase form skips every
+ * multiplication by an inserted zero and every discarded output: each output is a single dot product of the last
+ * samples with one of the up phases of the filter, so resampling costs O(taps / up) per output.
+ * <p>
+ * The filter is a Blackman windowed sinc spanning a number of zero crossings on each side. The filter banks are
+ * computed once per ratio and shared through the {@link FftPlanCache#getDefault() default cache}, which counts them
+ * against its memory cap. A resampler keeps the state of one stream and
+ * cannot be shared between threads.
+ */
+public class PolyphaseResampler {
+
+    /**
+     * The number of zero crossings of the sinc on each side of its center used when none is given
+     */
+    public static final int DEFAULT_ZERO_CROSSINGS = 16;
+
+    private final int up;
+    private final int down;
+    private final int zeroCrossings;
+
+    /**
+     * The up phases of the filter, every phase reversed so that its first tap multiplies the oldest sample
+     */
+    private final double[][] bank;
+
+    /**
+     * The number of taps of every phase
+     */
+    private final int taps;
+
+    /**
+     * The last samples of the signal stored twice, so the last taps samples are always contiguous
+     */
+    private final double[] history;
+    private int position;
+
+    /**
+     * The time of the next output on the upsampled grid minus the time of the next input
+     */
+    private int time;
+
+    /**
+     * Constructs a resampler with {@link #DEFAULT_ZERO_CROSSINGS}.
+     *
+     * @param up   The factor the sample rate is multiplied by
+     * @param down The factor the sample rate is divided by
+     * @throws IllegalArgumentException Thrown if a factor is not positive.
+     */
+    public PolyphaseResampler(int up, int down) throws IllegalArgumentException {
+        this(up, down, DEFAULT_ZERO_CROSSINGS);
+    }
+
+    /**
+     * Constructs a resampler changing the sample rate by up/down. The ratio is reduced first, so 160/147 and 320/294
+     * share the same filter.
+     *
+     * @param up            The factor the sample rate is multiplied by
+     * @param down          The factor the sample rate is divided by
+     * @param zeroCrossings The number of zero crossings of the sinc on each side of its center. More zero crossings
+     *                      give a sharper cutoff at the cost of more taps.
+     * @throws IllegalArgumentException Thrown if a factor or the number of zero crossings is not positive or the filter
+     *                                  of the reduced ratio has more than {@link Integer#MAX_VALUE} taps.
+     */
+    public PolyphaseResampler(int up, int down, int zeroCrossings) throws IllegalArgumentException {
+        if (up <= 0 || down <= 0)
+            throw new IllegalArgumentException("The resampling factors have to be positive.");
+        if (zeroCrossings <= 0)
+            throw new IllegalArgumentException("The number of zero crossings has to be positive.");
+        int gcd = gcd(up, down);
+        this.up = up / gcd;
+        this.down = down / gcd;
+        this.zeroCrossings = zeroCrossings;
+        if (2L * zeroCrossings * Math.max(this.up, this.down) + 1 > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The filter of the resampler has too many taps.");
+        bank = FftPlanCache.getDefault().getFilterBank(this.up, this.down, zeroCrossings);
+        taps = bank[0].length;
+        history = new double[2 * taps];
+    }
+
+    /**
+     * A method returning the reduced factor the sample rate is multiplied by.
+     *
+     * @return The upsampling factor
+     */
+    public int getUp() {
+        return up;
+    }
+
+    /**
+     * A method returning the reduced factor the sample rate is divided by.
+     *
+     * @return The downsampling factor
+     */
+    public int getDown() {
+        return down;
+    }
+
+    /**
+     * A method returning the number of zero crossings of the sinc on each side of its center.
+     *
+     * @return The number of zero crossings
+     */
+    public int getZeroCrossings() {
+        return zeroCrossings;
+    }
+
+    /**
+     * A method returning the delay of the filter in output samples. An input at time t appears in the output at time
+     * t + delay, so the first outputs are the filter ringing up from an empty history.
+     *
+     * @return The group delay of the filter
+     */
+    public double getDelay() {
+        return (double) zeroCrossings * Math.max(up, down) / down;
+    }
+
+    /**
+     * A method returning the number of outputs the next count inputs produce.
+     *
+     * @param count The number of inputs
+     * @return The number of outputs
+     */
+    public int getOutputLength(int count) {
+        long budget = (long) count * up - time;
+        return budget <= 0 ? 0 : (int) ((budget + down - 1) / down);
+    }
+
+    /**
+     * Resamples the next samples of the signal into a new array.
+     *
+     * @param in The next samples of the signal
+     * @return The outputs produced by the samples
+     */
+    public double[] process(double[] in) {
+        double[] out = new double[getOutputLength(in.length)];
+        process(in, 0, out, 0, in.length);
+        return out;
+    }
+
+    /**
+     * Resamples the next samples of the signal into an array, which has to hold {@link #getOutputLength(int)} values.
+     *
+     * @param in        The array holding the next samples of the signal
+     * @param inOffset  The index of the first sample to resample
+     * @param out       The array the outputs are written to
+     * @param outOffset The index the first output is written to
+     * @param count     The number of samples to resample
+     * @return The number of outputs written
+     * @throws IllegalArgumentException Thrown if a range is not inside its array.
+     */
+    public int process(double[] in, int inOffset, double[] out, int outOffset, int count) throws IllegalArgumentException {
+        int length = count < 0 ? 0 : getOutputLength(count);
+        if (inOffset < 0 || outOffset < 0 || count < 0 || inOffset > in.length - count || outOffset > out.length - length)
+            throw new IllegalArgumentException("The ranges of samples have to be inside the arrays.");
+        int o = outOffset;
+        for (int i = inOffset; i < inOffset + count; i++) {
+            history[position] = in[i];
+            history[position + taps] = in[i];
+            time -= up;
+            while (time < 0) {
+                // the output lies between this input and the next one, at phase up + time of the upsampled grid
+                double[] phase = bank[up + time];
+                double sum = 0;
+                for (int j = 0, h = position + 1; j < taps; j++, h++) {
+                    sum += phase[j] * history[h];
+                }
+                out[o++] = sum;
+                time += down;
+            }
+            position = position + 1 == taps ? 0 : position + 1;
+        }
+        return o - outOffset;
+    }
+
+    /**
+     * Discards every sample of the signal, so the resampler starts over with an empty history.
+     */
+    public void reset() {
+        Arrays.fill(history, 0);
+        position = 0;
+        time = 0;
+    }
+
+    /**
+     * Designs the lowpass filter of 2 zeroCrossings max(up, down) + 1 taps on the upsampled grid and splits it into
+     * its up phases. The gain of up restores the amplitude lost to the inserted zeros.
+     */
+    static double[][] filterBank(int up, int down, int zeroCrossings) {
+        int factor = Math.max(up, down);
+        int length = 2 * zeroCrossings * factor + 1;
+        int center = zeroCrossings * factor;
+        // the periodic window of length - 1 values is the symmetric window of length values without its last value
+        double[] window = Window.BLACKMAN.getCoefficients(length - 1);
+        int taps = (length + up - 1) / up;
+        double[][] bank = new double[up][taps];
+        for (int i = 0; i < length; i++) {
+            double x = (double) (i - center) / factor;
+            double sinc = i == center ? 1 : Math.sin(Math.PI * x) / (Math.PI * x);
+            double w = i == length - 1 ? window[0] : window[i];
+            bank[i % up][taps - 1 - i / up] = (double) up / factor * sinc * w;
+        }
+        return bank;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,299 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A reusable plan for the fast fourier transform of real input of one fixed length. The spectrum of real input is
+ * Hermitian, X[n-k] = conj(X[k]), so only the n/2+1 non-redundant bins are produced. For even lengths the even and odd
+ * samples are packed into the real and imaginary parts of an n/2 point complex transform, and the two half spectra
+ * are separated again with one pass of precomputed twiddles. The inverse merges them again and runs the inverse of
+ * the same half length plan. Odd lengths fall back to a full complex transform.
+ * A plan is immutable and can be shared between threads.
+ */
+public class RealFftPlan {
+
+    private final int length;
+
+    /**
+     * The complex plan of length n/2 for even lengths or n for odd lengths
+     */
+    private final FftPlan plan;
+
+    /**
+     * cos(2&pi;k/n) and sin(2&pi;k/n) for k in [0, n/2). Only used for even lengths.
+     */
+    private final double[] cos;
+    private final double[] sin;
+
+    private final ThreadLocal<ComplexBuffer> scratch;
+
+    /**
+     * Constructs a plan for real transforms of the given length.
+     *
+     * @param length The length of the real input of the transforms performed with this plan
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public RealFftPlan(int length) throws IllegalArgumentException {
+        this(length, FftPlanCache.getDefault());
+    }
+
+    /**
+     * Constructs a plan for real transforms of the given length, taking its complex plan from the given cache.
+     *
+     * @param length The length of the real input of the transforms performed with this plan
+     * @param cache  The cache the complex plan is taken from
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    RealFftPlan(int length, FftPlanCache cache) throws IllegalArgumentException {
+        if (length <= 0)
+            throw new IllegalArgumentException("The length of the plan has to be positive.");
+        this.length = length;
+
+        if (length % 2 == 0) {
+            int half = length / 2;
+            plan = cache.getFftPlan(half);
+            cos = new double[half];
+            sin = new double[half];
+            for (int k = 0; k < half; k++) {
+                cos[k] = Math.cos(2 * Math.PI * k / length);
+                sin[k] = Math.sin(2 * Math.PI * k / length);
+            }
+        } else {
+            plan = cache.getFftPlan(length);
+            cos = null;
+            sin = null;
+        }
+        scratch = ThreadLocal.withInitial(() -> new ComplexBuffer(plan.getLength()));
+    }
+
+    /**
+     * A method returning the length of the real input of the transforms performed with this plan.
+     *
+     * @return The length of the plan
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * A method returning the number of non-redundant bins of the spectrum, n/2+1.
+     *
+     * @return The length of the spectrum produced by this plan
+     */
+    public int getSpectrumLength() {
+        return length / 2 + 1;
+    }
+
+    /**
+     * Estimates the number of bytes of the tables of this plan, without the scratch buffers kept per thread and without
+     * the complex plan, which is counted by the cache it was taken from.
+     *
+     * @return The approximate memory of the plan
+     */
+    long getMemory() {
+        return cos == null ? 0 : 16L * cos.length;
+    }
+
+    /**
+     * Transforms the first {@link #getLength()} values of the input into the first {@link #getSpectrumLength()}
+     * values of the output.
+     *
+     * @param in  The real input
+     * @param out The buffer the spectrum is written to
+     */
+    void forward(double[] in, ComplexBuffer out) {
+        forward(in, out.getRealCoefficients(), out.getImagCoefficients(), 0);
+    }
+
+    /**
+     * Transforms the first {@link #getLength()} values of the input into the {@link #getSpectrumLength()} values of
+     * the output arrays starting at the offset.
+     *
+     * @param in     The real input
+     * @param re     The array the real parts of the spectrum are written to
+     * @param im     The array the imaginary parts of the spectrum are written to
+     * @param offset The index the spectrum starts at
+     */
+    void forward(double[] in, double[] re, double[] im, int offset) {
+        forward(in, 0, null, re, im, offset);
+    }
+
+    /**
+     * Transforms {@link #getLength()} values of a ring buffer, starting at the given index and wrapping around its
+     * end, into the {@link #getSpectrumLength()} values of the output arrays starting at the offset. Every value is
+     * multiplied by its window coefficient while it is packed for the complex transform, so the windowed signal never
+     * needs its own pass or array.
+     *
+     * @param ring   The real input, which has to hold at least {@link #getLength()} values
+     * @param start  The index of the first value of the input
+     * @param window The coefficients the values are multiplied by, or null to leave them unchanged
+     * @param re     The array the real parts of the spectrum are written to
+     * @param im     The array the imaginary parts of the spectrum are written to
+     * @param offset The index the spectrum starts at
+     */
+    void forward(double[] ring, int start, double[] window, double[] re, double[] im, int offset) {
+        int size = ring.length;
+        if (cos == null) {
+            ComplexBuffer work = scratch.get();
+            double[] wr = work.getRealCoefficients();
+            double[] wi = work.getImagCoefficients();
+            for (int j = 0, i = start; j < length; j++, i = i + 1 == size ? 0 : i + 1) {
+                wr[j] = window == null ? ring[i] : ring[i] * window[j];
+            }
+            Arrays.fill(wi, 0);
+            plan.transform(wr, wi);
+            System.arraycopy(wr, 0, re, offset, getSpectrumLength());
+            System.arraycopy(wi, 0, im, offset, getSpectrumLength());
+            return;
+        }
+
+        int half = length / 2;
+        for (int j = 0, i = start; j < half; j++) {
+            int next = i + 1 == size ? 0 : i + 1;
+            re[offset + j] = window == null ? ring[i] : ring[i] * window[2 * j];
+            im[offset + j] = window == null ? ring[next] : ring[next] * window[2 * j + 1];
+            i = next + 1 == size ? 0 : next + 1;
+        }
+        plan.transform(re, im, offset, false, Parallelism.sequential());
+
+        double zr = re[offset];
+        double zi = im[offset];
+        re[offset] = zr + zi;
+        im[offset] = 0;
+        re[offset + half] = zr - zi;
+        im[offset + half] = 0;
+
+        for (int k = offset + 1, j = offset + half - 1, t = 1; k <= j; k++, j--, t++) {
+            double ar = re[k];
+            double ai = im[k];
+            double br = re[j];
+            double bi = im[j];
+
+            // X[k] = E[k] + W^k O[k] where E and O are the spectra of the even and odd samples
+            double er = (ar + br) / 2;
+            double ei = (ai - bi) / 2;
+            double or = (ai + bi) / 2;
+            double oi = (br - ar) / 2;
+            re[k] = er + cos[t] * or + sin[t] * oi;
+            im[k] = ei + cos[t] * oi - sin[t] * or;
+
+            // X[n/2-k] uses E[n/2-k] = conj(E[k]), O[n/2-k] = conj(O[k]) and W^(n/2-k) = -conj(W^k)
+            re[j] = er - cos[t] * or - sin[t] * oi;
+            im[j] = -ei + cos[t] * oi - sin[t] * or;
+        }
+    }
+
+    /**
+     * Transforms the first {@link #getLength()} values of the input into the first {@link #getSpectrumLength()}
+     * values of the given real spectrum. Every value is computed in the pass that separates the bins, so the complex
+     * bins are only ever held in the scratch buffer of the half length transform.
+     *
+     * @param in   The real input
+     * @param type The spectrum computed from the bins
+     * @param out  The array the spectrum is written to
+     */
+    void forward(double[] in, SpectrumType type, double[] out) {
+        ComplexBuffer work = scratch.get();
+        double[] re = work.getRealCoefficients();
+        double[] im = work.getImagCoefficients();
+        if (cos == null) {
+            System.arraycopy(in, 0, re, 0, length);
+            Arrays.fill(im, 0);
+            plan.transform(re, im);
+            for (int k = 0; k < getSpectrumLength(); k++) {
+                out[k] = type.of(re[k], im[k]);
+            }
+            return;
+        }
+
+        int half = length / 2;
+        for (int j = 0; j < half; j++) {
+            re[j] = in[2 * j];
+            im[j] = in[2 * j + 1];
+        }
+        plan.transform(re, im);
+
+        out[0] = type.of(re[0] + im[0], 0);
+        out[half] = type.of(re[0] - im[0], 0);
+        for (int k = 1, j = half - 1; k <= j; k++, j--) {
+            double ar = re[k];
+            double ai = im[k];
+            double br = re[j];
+            double bi = im[j];
+
+            // the same separation as forward(double[], int, double[], double[], double[], int)
+            double er = (ar + br) / 2;
+            double ei = (ai - bi) / 2;
+            double or = (ai + bi) / 2;
+            double oi = (br - ar) / 2;
+            out[k] = type.of(er + cos[k] * or + sin[k] * oi, ei + cos[k] * oi - sin[k] * or);
+            out[j] = type.of(er - cos[k] * or - sin[k] * oi, -ei + cos[k] * oi - sin[k] * or);
+        }
+    }
+
+    /**
+     * Transforms the first {@link #getSpectrumLength()} values of a Hermitian spectrum back into the first
+     * {@link #getLength()} values of the real output, including the division by n.
+     *
+     * @param in  The non-redundant half of the spectrum
+     * @param out The array the real signal is written to
+     */
+    void inverse(ComplexBuffer in, double[] out) {
+        inverse(in.getRealCoefficients(), in.getImagCoefficients(), 0, out);
+    }
+
+    /**
+     * Transforms the {@link #getSpectrumLength()} values of a Hermitian spectrum starting at the offset back into the
+     * first {@link #getLength()} values of the real output, including the division by n. The spectrum is left
+     * unchanged.
+     *
+     * @param re     The real parts of the non-redundant half of the spectrum
+     * @param im     The imaginary parts of the non-redundant half of the spectrum
+     * @param offset The index the spectrum starts at
+     * @param out    The array the real signal is written to
+     */
+    void inverse(double[] re, double[] im, int offset, double[] out) {
+        ComplexBuffer work = scratch.get();
+        double[] wr = work.getRealCoefficients();
+        double[] wi = work.getImagCoefficients();
+
+        if (cos == null) {
+            wr[0] = re[offset];
+            wi[0] = 0;
+            for (int k = 1; k < getSpectrumLength(); k++) {
+                wr[k] = re[offset + k];
+                wi[k] = im[offset + k];
+                wr[length - k] = re[offset + k];
+                wi[length - k] = -im[offset + k];
+            }
+            plan.transform(wr, wi, true);
+            System.arraycopy(wr, 0, out, 0, length);
+            return;
+        }
+
+        int half = length / 2;
+        for (int k = 0; k < half; k++) {
+            double xr = re[offset + k];
+            double xi = im[offset + k];
+            double yr = re[offset + half - k];
+            double yi = im[offset + half - k];
+
+            // Z[k] = E[k] + i O[k] with E[k] = (X[k] + conj(X[n/2-k])) / 2 and O[k] = (X[k] - conj(X[n/2-k])) / 2 W^-k
+            double er = (xr + yr) / 2;
+            double ei = (xi - yi) / 2;
+            double dr = (xr - yr) / 2;
+            double di = (xi + yi) / 2;
+            double or = dr * cos[k] - di * sin[k];
+            double oi = dr * sin[k] + di * cos[k];
+            wr[k] = er - oi;
+            wi[k] = ei + or;
+        }
+        plan.transform(wr, wi, true);
+        for (int j = 0; j < half; j++) {
+            out[2 * j] = wr[j];
+            out[2 * j + 1] = wi[j];
+        }
+    }
+}
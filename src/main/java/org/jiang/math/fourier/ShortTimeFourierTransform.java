@@ -0,0 +1,179 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A streaming short-time fourier transform (STFT). Samples of an unbounded signal are pushed in any amount at a time
+ * and kept in a ring buffer holding the last frame. Every hop a frame is windowed and transformed with a real FFT
+ * into the non-redundant half of its spectrum, which is handed to the listener. The window is applied while the frame
+ * is packed for the FFT and the spectrum buffer is reused for every frame, so a running transform allocates nothing.
+ * A frame is emitted as soon as the last sample of its hop is pushed, so the latency never exceeds one hop.
+ * An STFT keeps the state of one stream and cannot be shared between threads.
+ */
+public class ShortTimeFourierTransform {
+
+    /**
+     * A listener receiving the spectrum of every frame of a {@link ShortTimeFourierTransform}
+     */
+    public interface FrameListener {
+
+        /**
+         * Called with the spectrum of every completed frame. The buffer is reused for the next frame, so it is only
+         * valid until this method returns and has to be copied to be kept.
+         *
+         * @param frame    The index of the frame, counting from zero
+         * @param spectrum The first n/2+1 bins of the spectrum of the windowed frame
+         */
+        void onFrame(long frame, ComplexBuffer spectrum);
+    }
+
+    private final int frameLength;
+    private final int hopSize;
+    private final Window window;
+    private final FrameListener listener;
+
+    private final RealFftPlan plan;
+    private final double[] coefficients;
+
+    /**
+     * The last frameLength samples, where the oldest sample is at {@link #position}
+     */
+    private final double[] ring;
+    private final ComplexBuffer spectrum;
+
+    /**
+     * The index the next sample is written to
+     */
+    private int position;
+
+    /**
+     * The number of samples left until the next frame is complete
+     */
+    private int remaining;
+
+    private long frames;
+
+    /**
+     * Constructs a short-time fourier transform emitting a frame every hop.
+     *
+     * @param frameLength The number of samples of every frame
+     * @param hopSize     The number of samples between the starts of two consecutive frames
+     * @param window      The window every frame is multiplied by
+     * @param listener    The listener receiving the spectrum of every frame
+     * @throws IllegalArgumentException Thrown if the frame length or hop size is not positive or the window or listener
+     *                                  is null.
+     */
+    public ShortTimeFourierTransform(int frameLength, int hopSize, Window window, FrameListener listener) throws IllegalArgumentException {
+        if (frameLength <= 0 || hopSize <= 0)
+            throw new IllegalArgumentException("The frame length and hop size have to be positive.");
+        if (window == null || listener == null)
+            throw new IllegalArgumentException("The window and listener must not be null.");
+        this.frameLength = frameLength;
+        this.hopSize = hopSize;
+        this.window = window;
+        this.listener = listener;
+        plan = FftPlanCache.getDefault().getRealFftPlan(frameLength);
+        coefficients = window == Window.RECTANGULAR ? null : window.getCoefficients(frameLength);
+        ring = new double[frameLength];
+        spectrum = new ComplexBuffer(plan.getSpectrumLength());
+        remaining = frameLength;
+    }
+
+    /**
+     * A method returning the number of samples of every frame.
+     *
+     * @return The frame length
+     */
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    /**
+     * A method returning the number of samples between the starts of two consecutive frames.
+     *
+     * @return The hop size
+     */
+    public int getHopSize() {
+        return hopSize;
+    }
+
+    /**
+     * A method returning the window every frame is multiplied by.
+     *
+     * @return The window
+     */
+    public Window getWindow() {
+        return window;
+    }
+
+    /**
+     * A method returning the number of frames emitted since the transform was constructed or reset.
+     *
+     * @return The number of frames
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Pushes one sample of the signal, emitting a frame if it completes one.
+     *
+     * @param sample The next sample of the signal
+     */
+    public void push(double sample) {
+        ring[position] = sample;
+        if (++position == frameLength) position = 0;
+        if (--remaining == 0) emit();
+    }
+
+    /**
+     * Pushes the next samples of the signal, emitting every frame they complete.
+     *
+     * @param samples The next samples of the signal
+     */
+    public void push(double[] samples) {
+        push(samples, 0, samples.length);
+    }
+
+    /**
+     * Pushes the next samples of the signal from a range of an array, emitting every frame they complete.
+     *
+     * @param samples The array holding the next samples of the signal
+     * @param offset  The index of the first sample to push
+     * @param count   The number of samples to push
+     * @throws IllegalArgumentException Thrown if the range is not inside the array.
+     */
+    public void push(double[] samples, int offset, int count) throws IllegalArgumentException {
+        if (offset < 0 || count < 0 || offset > samples.length - count)
+            throw new IllegalArgumentException("The range of samples has to be inside the array.");
+        while (count > 0) {
+            // copy up to the next frame or the end of the ring, whichever is first
+            int step = Math.min(Math.min(count, remaining), frameLength - position);
+            System.arraycopy(samples, offset, ring, position, step);
+            offset += step;
+            count -= step;
+            position += step;
+            if (position == frameLength) position = 0;
+            remaining -= step;
+            if (remaining == 0) emit();
+        }
+    }
+
+    /**
+     * Discards every pushed sample, so the next frame starts with the next pushed sample.
+     */
+    public void reset() {
+        Arrays.fill(ring, 0);
+        position = 0;
+        remaining = frameLength;
+        frames = 0;
+    }
+
+    private void emit() {
+        plan.forward(ring, position, coefficients, spectrum.getRealCoefficients(), spectrum.getImagCoefficients(), 0);
+        listener.onFrame(frames++, spectrum);
+        remaining = hopSize;
+    }
+}
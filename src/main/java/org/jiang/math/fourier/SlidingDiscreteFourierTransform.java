@@ -0,0 +1,203 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A sliding discrete fourier transform (SDFT) tracking a few bins of the DFT of the last n samples of a signal. When a
+ * sample enters the window and the oldest sample leaves it, every bin is updated in O(1) with
+ * X[k] = (X[k] - x_out + x_in) e^(2&pi;ik/n), independent of the length of the window. The rounding errors of the
+ * recurrence would accumulate without bound, so every bin is periodically recomputed exactly from the window with a
+ * precomputed twiddle table, which costs O(1) per sample when amortized over the recomputation interval.
+ * A transform keeps the state of one stream and cannot be shared between threads.
+ */
+public class SlidingDiscreteFourierTransform {
+
+    private final int length;
+    private final int[] bins;
+    private final int interval;
+
+    /**
+     * cos(2&pi;k/n) and sin(2&pi;k/n) for every tracked bin k
+     */
+    private final double[] rotationCos;
+    private final double[] rotationSin;
+
+    /**
+     * cos(2&pi;j/n) and sin(2&pi;j/n) for j in [0, n), used to recompute the bins
+     */
+    private final double[] cos;
+    private final double[] sin;
+
+    /**
+     * The last n samples, where the oldest sample is at {@link #position}
+     */
+    private final double[] ring;
+    private final double[] re;
+    private final double[] im;
+
+    private int position;
+
+    /**
+     * The number of samples left until the bins are recomputed
+     */
+    private int remaining;
+
+    /**
+     * Constructs a sliding DFT over a window of the given length, recomputing the bins once per window length.
+     *
+     * @param length The length of the window
+     * @param bins   The bins of the DFT of the window to track
+     * @throws IllegalArgumentException Thrown if the length is not positive or a bin is not inside [0, length).
+     */
+    public SlidingDiscreteFourierTransform(int length, int[] bins) throws IllegalArgumentException {
+        this(length, bins, length);
+    }
+
+    /**
+     * Constructs a sliding DFT over a window of the given length.
+     *
+     * @param length   The length of the window
+     * @param bins     The bins of the DFT of the window to track
+     * @param interval The number of samples after which the bins are recomputed exactly from the window
+     * @throws IllegalArgumentException Thrown if the length or interval is not positive or a bin is not inside
+     *                                  [0, length).
+     */
+    public SlidingDiscreteFourierTransform(int length, int[] bins, int interval) throws IllegalArgumentException {
+        if (length <= 0 || interval <= 0)
+            throw new IllegalArgumentException("The length of the window and the interval have to be positive.");
+        for (int bin : bins) {
+            if (bin < 0 || bin >= length)
+                throw new IllegalArgumentException("Every bin has to be inside [0, length).");
+        }
+        this.length = length;
+        this.bins = bins.clone();
+        this.interval = interval;
+
+        cos = new double[length];
+        sin = new double[length];
+        for (int j = 0; j < length; j++) {
+            cos[j] = Math.cos(2 * Math.PI * j / length);
+            sin[j] = Math.sin(2 * Math.PI * j / length);
+        }
+        rotationCos = new double[bins.length];
+        rotationSin = new double[bins.length];
+        for (int b = 0; b < bins.length; b++) {
+            rotationCos[b] = cos[bins[b]];
+            rotationSin[b] = sin[bins[b]];
+        }
+
+        ring = new double[length];
+        re = new double[bins.length];
+        im = new double[bins.length];
+        remaining = interval;
+    }
+
+    /**
+     * A method returning the length of the window.
+     *
+     * @return The length of the window
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * A method returning the tracked bins.
+     *
+     * @return A copy of the tracked bins
+     */
+    public int[] getBins() {
+        return bins.clone();
+    }
+
+    /**
+     * Pushes the next sample of the signal into the window and updates every tracked bin.
+     *
+     * @param sample The next sample of the signal
+     */
+    public void push(double sample) {
+        double delta = sample - ring[position];
+        ring[position] = sample;
+        if (++position == length) position = 0;
+
+        if (--remaining == 0) {
+            recompute();
+            return;
+        }
+        for (int b = 0; b < bins.length; b++) {
+            double xr = re[b] + delta;
+            double xi = im[b];
+            re[b] = xr * rotationCos[b] - xi * rotationSin[b];
+            im[b] = xr * rotationSin[b] + xi * rotationCos[b];
+        }
+    }
+
+    /**
+     * Pushes the next samples of the signal into the window one after the other.
+     *
+     * @param samples The next samples of the signal
+     */
+    public void push(double[] samples) {
+        for (double sample : samples) {
+            push(sample);
+        }
+    }
+
+    /**
+     * A method returning the current value of a tracked bin.
+     *
+     * @param index The index of the bin in the bins given to the constructor
+     * @return The value of the bin of the DFT of the window
+     */
+    public Complex get(int index) {
+        return new Complex(re[index], im[index], Complex.Mode.RECTANGULAR);
+    }
+
+    /**
+     * Writes the current values of every tracked bin into the buffer without allocating.
+     *
+     * @param out The buffer the bins are written to in the order given to the constructor
+     * @throws IllegalArgumentException Thrown if the buffer's size does not match the number of tracked bins.
+     */
+    public void getSpectrum(ComplexBuffer out) throws IllegalArgumentException {
+        if (out.getLength() != bins.length)
+            throw new IllegalArgumentException("The size of the buffer has to match the number of tracked bins.");
+        System.arraycopy(re, 0, out.getRealCoefficients(), 0, bins.length);
+        System.arraycopy(im, 0, out.getImagCoefficients(), 0, bins.length);
+    }
+
+    /**
+     * Empties the window, setting every sample and bin to zero.
+     */
+    public void reset() {
+        Arrays.fill(ring, 0);
+        Arrays.fill(re, 0);
+        Arrays.fill(im, 0);
+        position = 0;
+        remaining = interval;
+    }
+
+    /**
+     * Computes every bin directly from the window, discarding the rounding errors accumulated by the recurrence.
+     */
+    private void recompute() {
+        for (int b = 0; b < bins.length; b++) {
+            int k = bins[b];
+            double sumRe = 0;
+            double sumIm = 0;
+            // the oldest sample at the position is sample j = 0 of the window
+            for (int j = 0, i = position, t = 0; j < length; j++, i = i + 1 == length ? 0 : i + 1) {
+                sumRe += ring[i] * cos[t];
+                sumIm -= ring[i] * sin[t];
+                t += k;
+                if (t >= length) t -= length;
+            }
+            re[b] = sumRe;
+            im[b] = sumIm;
+        }
+        remaining = interval;
+    }
+}
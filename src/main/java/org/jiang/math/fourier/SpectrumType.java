@@ -0,0 +1,72 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+
+/**
+ * An enum representing the real valued spectra a transform can produce instead of its complex bins. Transforms given a
+ * spectrum type compute every value while the bins are produced, so no complex output or {@link
+ * org.jiang.math.complex.Complex Complex} objects are created.
+ */
+public enum SpectrumType {
+    /**
+     * The modulus |X[k]| of every bin
+     */
+    MAGNITUDE {
+        @Override
+        double of(double re, double im) {
+            return Math.sqrt(re * re + im * im);
+        }
+    },
+    /**
+     * The squared modulus |X[k]|<sup>2</sup> of every bin, which needs no square root
+     */
+    POWER {
+        @Override
+        double of(double re, double im) {
+            return re * re + im * im;
+        }
+    },
+    /**
+     * The power of every bin in decibels, 10 log<sub>10</sub>|X[k]|<sup>2</sup>. Bins without any power are negative
+     * infinity.
+     */
+    DECIBEL {
+        @Override
+        double of(double re, double im) {
+            return 10 * Math.log10(re * re + im * im);
+        }
+    },
+    /**
+     * The argument of every bin in (-&pi;, &pi;]. A negative real bin is at &pi; even if its imaginary part is -0.0.
+     */
+    PHASE {
+        @Override
+        double of(double re, double im) {
+            double phase = Math.atan2(im, re);
+            // atan2 takes the sign of a zero imaginary part into account and gives -pi for -0.0
+            return phase == -Math.PI ? Math.PI : phase;
+        }
+    };
+
+    /**
+     * Computes the value of this spectrum for a single bin.
+     */
+    abstract double of(double re, double im);
+
+    /**
+     * Computes the value of this spectrum for every bin of a complex spectrum.
+     *
+     * @param spectrum The bins of the spectrum
+     * @param out      The array the values are written to. The size must match the size of the spectrum.
+     * @throws IllegalArgumentException Thrown if the sizes of the spectrum and the array do not match.
+     */
+    public void apply(ComplexBuffer spectrum, double[] out) throws IllegalArgumentException {
+        if (spectrum.getLength() != out.length)
+            throw new IllegalArgumentException("The size of the output has to match the size of the spectrum.");
+        double[] re = spectrum.getRealCoefficients();
+        double[] im = spectrum.getImagCoefficients();
+        for (int k = 0; k < out.length; k++) {
+            out[k] = of(re[k], im[k]);
+        }
+    }
+}
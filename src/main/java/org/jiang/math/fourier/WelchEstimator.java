@@ -0,0 +1,223 @@
+package org.jiang.math.fourier;
+
+/**
+ * An estimator of the one-sided power spectral density of a real signal with Welch's method. The signal is split into
+ * segments of a fixed length which overlap by a fixed number of samples; every segment is detrended, windowed and
+ * transformed, and the periodograms of all segments are averaged. Bartlett's method is the special case of
+ * non-overlapping segments without a window.
+ * <p>
+ * Segments are split across threads. Every thread works in its own scratch buffers and adds its periodograms into its
+ * own partial sum, and the partial sums are only merged once at the end, so the threads never share any written memory.
+ * An estimator is immutable and can be shared between threads.
+ */
+public class WelchEstimator {
+
+    private final int segmentLength;
+    private final int overlap;
+    private final Window window;
+    private final Detrend detrend;
+
+    private final RealFftPlan plan;
+
+    /**
+     * The coefficients of the window, or null for the rectangular window
+     */
+    private final double[] coefficients;
+
+    /**
+     * The sum of the squared coefficients of the window
+     */
+    private final double windowPower;
+
+    private final ThreadLocal<Workspace> scratch;
+
+    /**
+     * Constructs an estimator averaging segments of the given length.
+     *
+     * @param segmentLength The number of samples of every segment
+     * @param overlap       The number of samples shared by two consecutive segments
+     * @param window        The window every segment is multiplied by
+     * @param detrend       The trend removed from every segment before it is windowed
+     * @throws IllegalArgumentException Thrown if the segment length is not positive, the overlap is negative or not
+     *                                  smaller than the segment length or the window or detrend is null.
+     */
+    public WelchEstimator(int segmentLength, int overlap, Window window, Detrend detrend) throws IllegalArgumentException {
+        if (segmentLength <= 0)
+            throw new IllegalArgumentException("The segment length has to be positive.");
+        if (overlap < 0 || overlap >= segmentLength)
+            throw new IllegalArgumentException("The overlap has to be at least zero and smaller than the segment length.");
+        if (window == null || detrend == null)
+            throw new IllegalArgumentException("The window and detrend must not be null.");
+        this.segmentLength = segmentLength;
+        this.overlap = overlap;
+        this.window = window;
+        this.detrend = detrend;
+        plan = FftPlanCache.getDefault().getRealFftPlan(segmentLength);
+        coefficients = window == Window.RECTANGULAR ? null : window.getCoefficients(segmentLength);
+
+        double power = 0;
+        for (int j = 0; j < segmentLength; j++) {
+            double w = coefficients == null ? 1 : coefficients[j];
+            power += w * w;
+        }
+        windowPower = power;
+        scratch = ThreadLocal.withInitial(() -> new Workspace(segmentLength, plan.getSpectrumLength()));
+    }
+
+    /**
+     * A method returning an estimator using Bartlett's method, which averages the plain periodograms of
+     * non-overlapping segments.
+     *
+     * @param segmentLength The number of samples of every segment
+     * @return The estimator without overlap, window or detrending
+     * @throws IllegalArgumentException Thrown if the segment length is not positive.
+     */
+    public static WelchEstimator bartlett(int segmentLength) throws IllegalArgumentException {
+        return new WelchEstimator(segmentLength, 0, Window.RECTANGULAR, Detrend.NONE);
+    }
+
+    /**
+     * A method returning the number of samples of every segment.
+     *
+     * @return The segment length
+     */
+    public int getSegmentLength() {
+        return segmentLength;
+    }
+
+    /**
+     * A method returning the number of samples shared by two consecutive segments.
+     *
+     * @return The overlap
+     */
+    public int getOverlap() {
+        return overlap;
+    }
+
+    /**
+     * A method returning the window every segment is multiplied by.
+     *
+     * @return The window
+     */
+    public Window getWindow() {
+        return window;
+    }
+
+    /**
+     * A method returning the trend removed from every segment.
+     *
+     * @return The detrending
+     */
+    public Detrend getDetrend() {
+        return detrend;
+    }
+
+    /**
+     * A method returning the number of bins of the estimate, segmentLength/2+1. Bin k is the frequency
+     * k * sampleRate / segmentLength.
+     *
+     * @return The length of the estimate
+     */
+    public int getSpectrumLength() {
+        return plan.getSpectrumLength();
+    }
+
+    /**
+     * A method returning the number of segments averaged for a signal of the given length.
+     *
+     * @param length The number of samples of the signal
+     * @return The number of segments, which is zero if the signal is shorter than a segment
+     */
+    public int getSegments(int length) {
+        return length < segmentLength ? 0 : 1 + (length - segmentLength) / (segmentLength - overlap);
+    }
+
+    /**
+     * Estimates the power spectral density of the signal on the calling thread.
+     *
+     * @param data       The samples of the signal
+     * @param sampleRate The number of samples per unit of time, which gives the density its unit of power per frequency
+     * @return The {@link #getSpectrumLength()} values of the one-sided density
+     * @throws IllegalArgumentException Thrown if the signal is shorter than a segment.
+     */
+    public double[] estimate(double[] data, double sampleRate) throws IllegalArgumentException {
+        double[] out = new double[getSpectrumLength()];
+        estimate(data, sampleRate, out, Parallelism.sequential());
+        return out;
+    }
+
+    /**
+     * Estimates the power spectral density of the signal into an array, splitting the segments across the threads of
+     * the parallelism's pool if the signal reaches its threshold. The density is one-sided, so the power of the
+     * negative frequencies is added to every bin except the first and the Nyquist bin, and it is scaled so that its
+     * integral over the frequencies is the mean power of the signal.
+     *
+     * @param data        The samples of the signal
+     * @param sampleRate  The number of samples per unit of time
+     * @param out         The array the {@link #getSpectrumLength()} values of the density are written to
+     * @param parallelism How the segments may be split across threads
+     * @throws IllegalArgumentException Thrown if the signal is shorter than a segment, the sample rate is not positive
+     *                                  or the array does not have a size of segmentLength/2+1.
+     */
+    public void estimate(double[] data, double sampleRate, double[] out, Parallelism parallelism) throws IllegalArgumentException {
+        int segments = getSegments(data.length);
+        if (segments == 0)
+            throw new IllegalArgumentException("The signal has to hold at least one segment of " + segmentLength + " samples.");
+        if (!(sampleRate > 0))
+            throw new IllegalArgumentException("The sample rate has to be positive.");
+        if (out.length != getSpectrumLength())
+            throw new IllegalArgumentException("The size of the output has to be half of the segment length plus one.");
+
+        int hop = segmentLength - overlap;
+        int bins = getSpectrumLength();
+        int tasks = Math.min(segments, parallelism.getTasks((long) segments * segmentLength));
+        double[][] partial = new double[tasks][];
+        parallelism.forEach(tasks, t -> {
+            Workspace work = scratch.get();
+            double[] sum = new double[bins];
+            for (int s = (int) ((long) t * segments / tasks); s < (long) (t + 1) * segments / tasks; s++) {
+                accumulate(data, s * hop, work, sum);
+            }
+            partial[t] = sum;
+        });
+
+        for (int k = 0; k < bins; k++) {
+            double sum = 0;
+            for (double[] p : partial) {
+                sum += p[k];
+            }
+            // every bin except the first and the Nyquist bin also holds the power of its negative frequency
+            boolean paired = k > 0 && 2 * k != segmentLength;
+            out[k] = sum * (paired ? 2 : 1) / (sampleRate * windowPower * segments);
+        }
+    }
+
+    /**
+     * Adds the periodogram of the segment starting at the given sample to the sum.
+     */
+    private void accumulate(double[] data, int start, Workspace work, double[] sum) {
+        double[] segment = work.segment;
+        System.arraycopy(data, start, segment, 0, segmentLength);
+        detrend.remove(segment);
+        if (coefficients != null) {
+            for (int j = 0; j < segmentLength; j++) {
+                segment[j] *= coefficients[j];
+            }
+        }
+        plan.forward(segment, SpectrumType.POWER, work.power);
+        for (int k = 0; k < sum.length; k++) {
+            sum[k] += work.power[k];
+        }
+    }
+
+    private static class Workspace {
+
+        private final double[] segment;
+        private final double[] power;
+
+        private Workspace(int segmentLength, int spectrumLength) {
+            segment = new double[segmentLength];
+            power = new double[spectrumLength];
+        }
+    }
+}
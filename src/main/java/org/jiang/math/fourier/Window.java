@@ -0,0 +1,54 @@
+package org.jiang.math.fourier;
+
+/**
+ * An enum representing the window functions a signal can be tapered with before it is transformed, which reduces the
+ * leakage of a frequency into its neighbouring bins. Every window is a sum of cosines
+ * w[j] = a0 - a1 cos(2&pi;j/n) + a2 cos(4&pi;j/n) in its periodic form, which is the form that overlaps evenly in a
+ * short-time fourier transform.
+ */
+public enum Window {
+    /**
+     * Leaves the signal unchanged. Has the narrowest main lobe but the highest side lobes.
+     */
+    RECTANGULAR(1, 0, 0),
+    /**
+     * The raised cosine window, which falls to zero at both ends
+     */
+    HANN(0.5, 0.5, 0),
+    /**
+     * The raised cosine window tuned to cancel the first side lobe
+     */
+    HAMMING(0.54, 0.46, 0),
+    /**
+     * The three term cosine window with lower side lobes than {@link #HANN} at the cost of a wider main lobe
+     */
+    BLACKMAN(0.42, 0.5, 0.08);
+
+    private final double a0;
+    private final double a1;
+    private final double a2;
+
+    Window(double a0, double a1, double a2) {
+        this.a0 = a0;
+        this.a1 = a1;
+        this.a2 = a2;
+    }
+
+    /**
+     * Computes the coefficients of the window for frames of the given length.
+     *
+     * @param length The length of the frames the window is applied to
+     * @return The coefficients of the window
+     * @throws IllegalArgumentException Thrown if the length is not positive.
+     */
+    public double[] getCoefficients(int length) throws IllegalArgumentException {
+        if (length <= 0)
+            throw new IllegalArgumentException("The length of the window has to be positive.");
+        double[] window = new double[length];
+        for (int j = 0; j < length; j++) {
+            double angle = 2 * Math.PI * j / length;
+            window[j] = a0 - a1 * Math.cos(angle) + a2 * Math.cos(2 * angle);
+        }
+        return window;
+    }
+}
@@ -87,11 +87,7 @@ public class DoubleMatrix implements Matrix<Double>, Iterable<DoubleVector> {
     @Override
     public Matrix<Double> transpose() {
         double[][] arr = new double[matrix[0].length][matrix.length];
-        for (int n = 0; n < matrix.length; n++) {
-            for (int m = 0; m < matrix[0].length; m++) {
-                arr[m][n] = matrix[n][m];
-            }
-        }
+        MatrixUtil.transpose(matrix, arr);
         return new DoubleMatrix(arr);
     }
 
@@ -7,6 +7,12 @@ import java.util.Arrays;
  */
 public class MatrixUtil {
 
+    /**
+     * The side length of the square tiles a matrix is transposed in, so that a tile of the source and of the
+     * destination stay in the cache together
+     */
+    private static final int TRANSPOSE_BLOCK = 32;
+
     public static boolean isJaggedArray(int[][] arr) {
         for (int len = arr[0].length, i = 1; i < arr.length; i++) {
             if (arr[i].length != len) {
@@ -25,6 +31,68 @@ public class MatrixUtil {
         return false;
     }
 
+    /**
+     * Transposes a rectangular matrix into another one of the transposed size. The matrix is copied in square tiles,
+     * so that the column-strided writes of a tile hit cache lines which are still loaded.
+     *
+     * @param src The matrix to transpose
+     * @param dst The matrix the transpose is written to, which must not be the source
+     */
+    public static void transpose(double[][] src, double[][] dst) {
+        int rows = src.length;
+        int cols = src[0].length;
+        for (int i0 = 0; i0 < rows; i0 += TRANSPOSE_BLOCK) {
+            int i1 = Math.min(rows, i0 + TRANSPOSE_BLOCK);
+            for (int j0 = 0; j0 < cols; j0 += TRANSPOSE_BLOCK) {
+                int j1 = Math.min(cols, j0 + TRANSPOSE_BLOCK);
+                for (int i = i0; i < i1; i++) {
+                    double[] row = src[i];
+                    for (int j = j0; j < j1; j++) {
+                        dst[j][i] = row[j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Transposes a rectangular matrix stored row after row in a flat array into another flat array.
+     *
+     * @param src  The matrix to transpose
+     * @param dst  The array the transpose with cols rows and rows columns is written to, which must not be the source
+     * @param rows The number of rows of the source
+     * @param cols The number of columns of the source
+     */
+    public static void transpose(double[] src, double[] dst, int rows, int cols) {
+        transpose(src, dst, rows, cols, 0, rows);
+    }
+
+    /**
+     * Transposes the rows [rowFrom, rowTo) of a rectangular matrix stored row after row in a flat array into the
+     * matching columns of another flat array. Disjoint row ranges write disjoint values, so they can be transposed by
+     * different threads at the same time.
+     *
+     * @param src     The matrix to transpose
+     * @param dst     The array the transpose with cols rows and rows columns is written to, which must not be the source
+     * @param rows    The number of rows of the source
+     * @param cols    The number of columns of the source
+     * @param rowFrom The first row of the source to transpose
+     * @param rowTo   One past the last row of the source to transpose
+     */
+    public static void transpose(double[] src, double[] dst, int rows, int cols, int rowFrom, int rowTo) {
+        for (int i0 = rowFrom; i0 < rowTo; i0 += TRANSPOSE_BLOCK) {
+            int i1 = Math.min(rowTo, i0 + TRANSPOSE_BLOCK);
+            for (int j0 = 0; j0 < cols; j0 += TRANSPOSE_BLOCK) {
+                int j1 = Math.min(cols, j0 + TRANSPOSE_BLOCK);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = j0, from = i * cols + j0, to = j0 * rows + i; j < j1; j++, from++, to += rows) {
+                        dst[to] = src[from];
+                    }
+                }
+            }
+        }
+    }
+
     public static <T, R> boolean isEqualSize(Matrix<T> m1, Matrix<R> m2) {
         return Arrays.equals(m1.getSize(), m2.getSize());
     }
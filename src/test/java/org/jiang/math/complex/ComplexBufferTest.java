@@ -0,0 +1,55 @@
+package org.jiang.math.complex;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ComplexBufferTest {
+
+    @Test
+    public void wrapsArraysWithoutCopying() {
+        double[] re = {1, 2, 3};
+        double[] im = {4, 5, 6};
+        ComplexBuffer buffer = new ComplexBuffer(re, im);
+        assertSame(re, buffer.getRealCoefficients());
+        assertSame(im, buffer.getImagCoefficients());
+        buffer.set(1, -1, -2);
+        assertEquals(-1, re[1], 0);
+        assertEquals(-2, im[1], 0);
+    }
+
+    @Test
+    public void convertsToAndFromComplexArrays() {
+        Complex[] values = {
+                new Complex(1, 2, Complex.Mode.RECTANGULAR),
+                new Complex(-3, 0.5, Complex.Mode.RECTANGULAR)
+        };
+        ComplexBuffer buffer = new ComplexBuffer(values);
+        assertEquals(2, buffer.getLength());
+        Complex[] back = buffer.toComplexArray();
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i].getRealCoefficient(), back[i].getRealCoefficient(), 0);
+            assertEquals(values[i].getImagCoefficient(), back[i].getImagCoefficient(), 0);
+        }
+    }
+
+    @Test
+    public void copiesValuesOfAnotherBuffer() {
+        ComplexBuffer source = new ComplexBuffer(new double[]{1, 2}, new double[]{3, 4});
+        ComplexBuffer target = new ComplexBuffer(2);
+        target.copyFrom(source);
+        assertArrayEquals(new double[]{1, 2}, target.getRealCoefficients(), 0);
+        assertArrayEquals(new double[]{3, 4}, target.getImagCoefficients(), 0);
+        assertNotSame(source.getRealCoefficients(), target.getRealCoefficients());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsArraysOfDifferentLengths() {
+        new ComplexBuffer(new double[2], new double[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCopyOfDifferentLength() {
+        new ComplexBuffer(2).copyFrom(new ComplexBuffer(3));
+    }
+}
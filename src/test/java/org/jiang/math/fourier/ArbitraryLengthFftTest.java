@@ -0,0 +1,72 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class ArbitraryLengthFftTest {
+
+    /**
+     * Mixed radix lengths with every radix, primes and composites with a large prime factor for Bluestein
+     */
+    private static final int[] LENGTHS = {1, 2, 3, 4, 5, 6, 7, 9, 11, 12, 15, 25, 30, 45, 60, 97, 120, 125, 243, 360, 625,
+            1000, 1009, 2018, 1536};
+
+    @Test
+    public void matchesNaiveDft() {
+        for (int n : LENGTHS) {
+            ComplexBuffer in = randomBuffer(n, n);
+            ComplexBuffer out = new ComplexBuffer(n);
+            Fourier.fastFourierTransform(in, out, new FftPlan(n));
+            assertClose(dft(in, false), out, 1e-11);
+        }
+    }
+
+    @Test
+    public void transformsInPlace() {
+        ComplexBuffer in = randomBuffer(210, 1);
+        ComplexBuffer data = copy(in);
+        Fourier.fastFourierTransform(data, data, new FftPlan(210));
+        assertClose(dft(in, false), data, 1e-11);
+    }
+
+    @Test
+    public void arrayEntryPointsUseAnyLength() {
+        double[] values = random(77, 3);
+        ComplexBuffer expected = dft(values);
+        assertClose(expected, new ComplexBuffer(Fourier.fastFourierTransform(values)), 1e-11);
+        Complex[] complex = new ComplexBuffer(values.clone(), new double[values.length]).toComplexArray();
+        assertClose(expected, new ComplexBuffer(Fourier.fastFourierTransform(complex)), 1e-11);
+    }
+
+    @Test
+    public void nextFastLengthIsFiveSmooth() {
+        assertEquals(1, FftPlan.nextFastLength(1));
+        assertEquals(8, FftPlan.nextFastLength(7));
+        assertEquals(1000, FftPlan.nextFastLength(1000));
+        assertEquals(1024, FftPlan.nextFastLength(1009));
+        for (int minimum = 1; minimum < 2000; minimum++) {
+            int length = FftPlan.nextFastLength(minimum);
+            assertTrue(length >= minimum);
+            assertTrue(isFiveSmooth(length));
+            for (int smaller = minimum; smaller < length; smaller++) {
+                assertFalse(isFiveSmooth(smaller));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nextFastLengthRejectsNonPositive() {
+        FftPlan.nextFastLength(0);
+    }
+
+    private static boolean isFiveSmooth(int n) {
+        for (int p : new int[]{2, 3, 5}) {
+            while (n % p == 0) n /= p;
+        }
+        return n == 1;
+    }
+}
@@ -0,0 +1,96 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class BatchTransformTest {
+
+    @Test
+    public void contiguousBatchMatchesSingleTransforms() {
+        checkBatch(BatchLayout.contiguous(5, 12), 12, 60, Parallelism.sequential());
+    }
+
+    @Test
+    public void interleavedBatchMatchesSingleTransforms() {
+        checkBatch(BatchLayout.interleaved(3), 20, 60, Parallelism.sequential());
+    }
+
+    @Test
+    public void stridedBatchLeavesGapsUnchanged() {
+        // signals of length 7 at every other index, starting at 3, with a gap between the signals
+        checkBatch(new BatchLayout(4, 3, 2, 15), 7, 64, Parallelism.sequential());
+    }
+
+    @Test
+    public void parallelBatchMatchesSingleTransforms() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            checkBatch(BatchLayout.contiguous(64, 256), 256, 64 * 256, new Parallelism(pool, 1));
+            checkBatch(BatchLayout.interleaved(16), 100, 1600, new Parallelism(pool, 1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void extentCoversTheLastValue() {
+        assertEquals(60, BatchLayout.contiguous(5, 12).getExtent(12));
+        assertEquals(60, BatchLayout.interleaved(3).getExtent(20));
+        assertEquals(3 + 3 * 15 + 6 * 2 + 1, new BatchLayout(4, 3, 2, 15).getExtent(7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBatchLargerThanBuffer() {
+        Fourier.fastFourierTransform(new ComplexBuffer(59), BatchLayout.contiguous(5, 12), new FftPlan(12),
+                Parallelism.sequential());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOverlappingSignals() {
+        Fourier.fastFourierTransform(new ComplexBuffer(16), new BatchLayout(2, 0, 1, 0), new FftPlan(8),
+                Parallelism.sequential());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveStride() {
+        new BatchLayout(2, 0, 0, 4);
+    }
+
+    /**
+     * Transforms the batch forward and back and compares every signal with its own transform, and every value outside
+     * the signals with its original value.
+     */
+    private static void checkBatch(BatchLayout layout, int length, int size, Parallelism parallelism) {
+        ComplexBuffer in = randomBuffer(size, size + length);
+        ComplexBuffer data = copy(in);
+        FftPlan plan = new FftPlan(length);
+        Fourier.fastFourierTransform(data, layout, plan, parallelism);
+
+        boolean[] covered = new boolean[size];
+        for (int s = 0; s < layout.getCount(); s++) {
+            ComplexBuffer signal = new ComplexBuffer(length);
+            ComplexBuffer transformed = new ComplexBuffer(length);
+            for (int j = 0; j < length; j++) {
+                int index = layout.getOffset() + s * layout.getDistance() + j * layout.getStride();
+                covered[index] = true;
+                signal.set(j, in.getRealCoefficients()[index], in.getImagCoefficients()[index]);
+                transformed.set(j, data.getRealCoefficients()[index], data.getImagCoefficients()[index]);
+            }
+            assertClose(dft(signal, false), transformed, 1e-11);
+        }
+        for (int i = 0; i < size; i++) {
+            if (!covered[i]) {
+                assertEquals(in.getRealCoefficients()[i], data.getRealCoefficients()[i], 0);
+                assertEquals(in.getImagCoefficients()[i], data.getImagCoefficients()[i], 0);
+            }
+        }
+
+        Fourier.inverseFastFourierTransform(data, layout, plan, parallelism);
+        assertClose(in, data, 1e-12);
+    }
+}
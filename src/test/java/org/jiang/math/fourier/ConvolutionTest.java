@@ -0,0 +1,114 @@
+package org.jiang.math.fourier;
+
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class ConvolutionTest {
+
+    private static final int[][] LENGTHS = {{1, 1}, {1, 5}, {2, 2}, {7, 3}, {13, 13}, {100, 1}, {100, 17}, {1000, 61},
+            {4097, 300}, {5, 2000}};
+
+    @Test
+    public void everyMethodMatchesDefinition() {
+        for (int[] lengths : LENGTHS) {
+            double[] signal = random(lengths[0], lengths[0]);
+            double[] kernel = random(lengths[1], lengths[1] + 1);
+            double[] expected = Reference.convolve(signal, kernel);
+            for (ConvolutionMethod method : ConvolutionMethod.values()) {
+                double[] out = Fourier.convolve(signal, kernel, method);
+                assertEquals(expected.length, out.length);
+                assertClose(expected, out, 1e-11);
+            }
+        }
+    }
+
+    @Test
+    public void correlationMatchesDefinition() {
+        for (int[] lengths : LENGTHS) {
+            int n = lengths[0], m = lengths[1];
+            double[] signal = random(n, 2 * n);
+            double[] kernel = random(m, 2 * m + 1);
+            double[] expected = new double[n + m - 1];
+            for (int i = 0; i < expected.length; i++) {
+                for (int j = 0; j < m; j++) {
+                    int index = i + j - (m - 1);
+                    if (index >= 0 && index < n) expected[i] += signal[index] * kernel[j];
+                }
+            }
+            for (ConvolutionMethod method : ConvolutionMethod.values()) {
+                assertClose(expected, Fourier.correlate(signal, kernel, method), 1e-11);
+            }
+        }
+    }
+
+    @Test
+    public void autoChoosesByCost() {
+        assertEquals(ConvolutionMethod.DIRECT, ConvolutionMethod.choose(100_000, 4));
+        assertEquals(ConvolutionMethod.OVERLAP_SAVE, ConvolutionMethod.choose(1_000_000, 1000));
+        assertEquals(ConvolutionMethod.FFT, ConvolutionMethod.choose(50_000, 50_000));
+    }
+
+    @Test
+    public void filterDelaysConvolutionByOneBlock() {
+        double[] kernel = random(37, 5);
+        double[] signal = random(2000, 6);
+        double[] expected = Reference.convolve(signal, kernel);
+        for (int blockSize : new int[]{1, 3, 64, 100}) {
+            FirFilter filter = new FirFilter(kernel, blockSize);
+            assertEquals(blockSize, filter.getLatency());
+            assertEquals(37, filter.getKernelLength());
+
+            // feed the signal in uneven chunks, in place
+            double[] out = signal.clone();
+            int offset = 0;
+            for (int chunk = 1; offset < out.length; chunk = chunk * 5 % 89 + 1) {
+                int count = Math.min(chunk, out.length - offset);
+                filter.process(out, offset, out, offset, count);
+                offset += count;
+            }
+            for (int i = 0; i < blockSize; i++) {
+                assertEquals(0, out[i], 0);
+            }
+            for (int i = blockSize; i < out.length; i++) {
+                assertEquals(expected[i - blockSize], out[i], 1e-11);
+            }
+        }
+    }
+
+    @Test
+    public void filterResetsHistory() {
+        double[] kernel = random(9, 7);
+        FirFilter filter = new FirFilter(kernel);
+        filter.process(random(500, 8));
+        filter.reset();
+
+        double[] signal = random(3 * filter.getBlockSize(), 9);
+        double[] out = filter.process(signal);
+        double[] expected = Reference.convolve(signal, kernel);
+        for (int i = filter.getLatency(); i < out.length; i++) {
+            assertEquals(expected[i - filter.getLatency()], out[i], 1e-11);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyKernel() {
+        Fourier.convolve(new double[4], new double[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void filterRejectsEmptyKernel() {
+        new FirFilter(new double[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void filterRejectsNonPositiveBlockSize() {
+        new FirFilter(new double[3], 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void filterRejectsRangeOutsideArray() {
+        new FirFilter(new double[3]).process(new double[10], 0, new double[5], 0, 10);
+    }
+}
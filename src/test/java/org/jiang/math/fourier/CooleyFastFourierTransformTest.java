@@ -0,0 +1,72 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class CooleyFastFourierTransformTest {
+
+    @Test
+    public void inPlaceTransformMatchesNaiveDft() {
+        for (int n = 1; n <= 1024; n <<= 1) {
+            ComplexBuffer in = randomBuffer(n, 11 * n);
+            ComplexBuffer data = copy(in);
+            Fourier.cooleyFastFourierTransform(data);
+            assertClose(dft(in, false), data, 1e-12);
+        }
+    }
+
+    @Test
+    public void largeTransformKeepsEnergy() {
+        // Parseval: the sum of |X[k]|^2 is n times the sum of |x[j]|^2, which checks the twiddle recurrence at length 2^16
+        int n = 1 << 16;
+        ComplexBuffer data = randomBuffer(n, 4);
+        double energy = energy(data);
+        Fourier.cooleyFastFourierTransform(data);
+        assertEquals(1, energy(data) / (n * energy), 1e-12);
+    }
+
+    @Test
+    public void impulseGivesFlatSpectrum() {
+        ComplexBuffer data = new ComplexBuffer(16);
+        data.set(0, 1, 0);
+        Fourier.cooleyFastFourierTransform(data);
+        for (int k = 0; k < 16; k++) {
+            assertEquals(1, data.getRealCoefficients()[k], 1e-15);
+            assertEquals(0, data.getImagCoefficients()[k], 1e-15);
+        }
+    }
+
+    @Test
+    public void arrayEntryPointsMatchBuffer() {
+        double[] values = random(128, 8);
+        ComplexBuffer expected = dft(values);
+        assertClose(expected, new ComplexBuffer(Fourier.cooleyFastFourierTransform(values)), 1e-12);
+
+        Complex[] complex = new ComplexBuffer(values.clone(), new double[128]).toComplexArray();
+        assertClose(expected, new ComplexBuffer(Fourier.cooleyFastFourierTransform(complex)), 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyInput() {
+        Fourier.cooleyFastFourierTransform(new double[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPowerOfTwo() {
+        Fourier.cooleyFastFourierTransform(new double[6]);
+    }
+
+    private static double energy(ComplexBuffer data) {
+        double sum = 0;
+        for (int i = 0; i < data.getLength(); i++) {
+            double re = data.getRealCoefficients()[i];
+            double im = data.getImagCoefficients()[i];
+            sum += re * re + im * im;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,59 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class DiscreteFourierTransformTest {
+
+    @Test
+    public void bufferOverloadMatchesDefinition() {
+        for (int n : new int[]{1, 2, 3, 7, 64, 100, 129}) {
+            ComplexBuffer in = randomBuffer(n, n);
+            ComplexBuffer out = new ComplexBuffer(n);
+            Fourier.discreteFourierTransform(in, out);
+            assertClose(dft(in, false), out, 1e-12);
+        }
+    }
+
+    @Test
+    public void realOverloadMatchesDefinition() {
+        double[] in = random(50, 5);
+        ComplexBuffer out = new ComplexBuffer(50);
+        Fourier.discreteFourierTransform(in, out);
+        assertClose(dft(in), out, 1e-12);
+    }
+
+    @Test
+    public void arrayOverloadMatchesBufferOverload() {
+        ComplexBuffer in = randomBuffer(20, 9);
+        ComplexBuffer out = new ComplexBuffer(20);
+        Fourier.discreteFourierTransform(in, out);
+        Complex[] values = Fourier.discreteFourierTransform(in.toComplexArray());
+        assertClose(out, new ComplexBuffer(values), 1e-12);
+    }
+
+    @Test
+    public void inverseUndoesForward() {
+        ComplexBuffer in = randomBuffer(31, 2);
+        ComplexBuffer spectrum = new ComplexBuffer(31);
+        ComplexBuffer back = new ComplexBuffer(31);
+        Fourier.discreteFourierTransform(in, spectrum);
+        Fourier.inverseDiscreteFourierTransform(spectrum, back);
+        assertClose(in, back, 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSameBuffer() {
+        ComplexBuffer buffer = new ComplexBuffer(4);
+        Fourier.discreteFourierTransform(buffer, buffer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDifferentLengths() {
+        Fourier.discreteFourierTransform(new ComplexBuffer(4), new ComplexBuffer(5));
+    }
+}
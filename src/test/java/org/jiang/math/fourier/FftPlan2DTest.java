@@ -0,0 +1,188 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.jiang.math.matrix.DoubleMatrix;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class FftPlan2DTest {
+
+    private static final int[][] SIZES = {{1, 1}, {1, 7}, {7, 1}, {2, 3}, {5, 4}, {8, 8}, {13, 6}, {16, 33}};
+
+    @Test
+    public void transformMatchesDefinition() {
+        for (int[] size : SIZES) {
+            int rows = size[0], cols = size[1];
+            ComplexBuffer in = randomBuffer(rows * cols, rows + 31 * cols);
+            ComplexBuffer out = new ComplexBuffer(rows * cols);
+            Fourier.fastFourierTransform2D(in, out, new FftPlan2D(rows, cols), Parallelism.sequential());
+            assertClose(dft2D(in, rows, cols), out, 1e-11);
+        }
+    }
+
+    @Test
+    public void inverseUndoesForward() {
+        for (int[] size : SIZES) {
+            int rows = size[0], cols = size[1];
+            ComplexBuffer in = randomBuffer(rows * cols, 2 * rows + cols);
+            FftPlan2D plan = new FftPlan2D(rows, cols);
+            ComplexBuffer data = copy(in);
+            Fourier.fastFourierTransform2D(data, data, plan, Parallelism.sequential());
+            Fourier.inverseFastFourierTransform2D(data, data, plan, Parallelism.sequential());
+            assertClose(in, data, 1e-12);
+        }
+    }
+
+    @Test
+    public void parallelTransformMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int rows = 96, cols = 80;
+            ComplexBuffer in = randomBuffer(rows * cols, 3);
+            FftPlan2D plan = new FftPlan2D(rows, cols);
+            ComplexBuffer sequential = new ComplexBuffer(rows * cols);
+            ComplexBuffer threaded = new ComplexBuffer(rows * cols);
+            Fourier.fastFourierTransform2D(in, sequential, plan, Parallelism.sequential());
+            Fourier.fastFourierTransform2D(in, threaded, plan, new Parallelism(pool, 1));
+            assertClose(sequential, threaded, 1e-12);
+
+            Fourier.inverseFastFourierTransform2D(threaded, threaded, plan, new Parallelism(pool, 1));
+            assertClose(in, threaded, 1e-12);
+
+            // every task of the real inverse gathers its rows into its own part of the work buffer
+            DoubleMatrix real = new DoubleMatrix(rows, cols);
+            for (int i = 0; i < rows; i++) {
+                real.matrix[i] = random(cols, i);
+            }
+            ComplexBuffer spectrum = new ComplexBuffer(rows * plan.getSpectrumCols());
+            DoubleMatrix back = new DoubleMatrix(rows, cols);
+            Fourier.realFastFourierTransform2D(real, spectrum, plan, new Parallelism(pool, 1));
+            Fourier.inverseRealFastFourierTransform2D(spectrum, back, plan, new Parallelism(pool, 1));
+            for (int i = 0; i < rows; i++) {
+                assertClose(real.matrix[i], back.matrix[i], 1e-12);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void realSpectrumIsLeftHalfOfComplexSpectrum() {
+        for (int[] size : SIZES) {
+            int rows = size[0], cols = size[1];
+            double[][] values = new double[rows][];
+            ComplexBuffer complex = new ComplexBuffer(rows * cols);
+            for (int i = 0; i < rows; i++) {
+                values[i] = random(cols, 7 * i + cols);
+                for (int j = 0; j < cols; j++) {
+                    complex.set(i * cols + j, values[i][j], 0);
+                }
+            }
+            FftPlan2D plan = new FftPlan2D(rows, cols);
+            int half = plan.getSpectrumCols();
+            assertEquals(cols / 2 + 1, half);
+            ComplexBuffer spectrum = new ComplexBuffer(rows * half);
+            Fourier.realFastFourierTransform2D(new DoubleMatrix(values), spectrum, plan, Parallelism.sequential());
+
+            ComplexBuffer full = dft2D(complex, rows, cols);
+            ComplexBuffer expected = new ComplexBuffer(rows * half);
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < half; j++) {
+                    expected.set(i * half + j, full.getRealCoefficients()[i * cols + j],
+                            full.getImagCoefficients()[i * cols + j]);
+                }
+            }
+            assertClose(expected, spectrum, 1e-11);
+
+            DoubleMatrix back = new DoubleMatrix(rows, cols);
+            ComplexBuffer unchanged = copy(spectrum);
+            Fourier.inverseRealFastFourierTransform2D(spectrum, back, plan, Parallelism.sequential());
+            for (int i = 0; i < rows; i++) {
+                assertClose(values[i], back.matrix[i], 1e-12);
+            }
+            assertClose(unchanged, spectrum, 0);
+        }
+    }
+
+    @Test
+    public void matrixEntryPointsRoundTrip() {
+        Complex[][] data = new Complex[6][10];
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 10; j++) {
+                data[i][j] = new Complex(Math.sin(i + 2 * j), Math.cos(3 * i - j), Complex.Mode.RECTANGULAR);
+            }
+        }
+        Complex[][] back = Fourier.inverseFastFourierTransform2D(Fourier.fastFourierTransform2D(data));
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 10; j++) {
+                assertEquals(data[i][j].getRealCoefficient(), back[i][j].getRealCoefficient(), 1e-12);
+                assertEquals(data[i][j].getImagCoefficient(), back[i][j].getImagCoefficient(), 1e-12);
+            }
+        }
+
+        double[][] values = {random(9, 1), random(9, 2), random(9, 3), random(9, 4)};
+        Complex[][] spectrum = Fourier.realFastFourierTransform2D(new DoubleMatrix(values));
+        assertEquals(4, spectrum.length);
+        assertEquals(5, spectrum[0].length);
+        DoubleMatrix real = Fourier.inverseRealFastFourierTransform2D(spectrum, 9);
+        for (int i = 0; i < 4; i++) {
+            assertClose(values[i], real.matrix[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void convenienceMethodsReuseCachedPlans() {
+        FftPlanCache cache = FftPlanCache.getDefault();
+        assertSame(cache.getFftPlan2D(11, 12), cache.getFftPlan2D(11, 12));
+        assertNotSame(cache.getFftPlan2D(11, 12), cache.getFftPlan2D(12, 11));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveSize() {
+        new FftPlan2D(4, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedBuffer() {
+        Fourier.fastFourierTransform2D(new ComplexBuffer(20), new ComplexBuffer(20), new FftPlan2D(4, 6),
+                Parallelism.sequential());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRaggedMatrix() {
+        Complex one = new Complex(1, 0, Complex.Mode.RECTANGULAR);
+        Fourier.fastFourierTransform2D(new Complex[][]{{one, one, one}, {one, one}});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSpectrumOfWrongWidth() {
+        Fourier.realFastFourierTransform2D(new DoubleMatrix(4, 6), new ComplexBuffer(24), new FftPlan2D(4, 6),
+                Parallelism.sequential());
+    }
+
+    private static ComplexBuffer dft2D(ComplexBuffer in, int rows, int cols) {
+        double[] re = in.getRealCoefficients();
+        double[] im = in.getImagCoefficients();
+        ComplexBuffer out = new ComplexBuffer(rows * cols);
+        for (int u = 0; u < rows; u++) {
+            for (int v = 0; v < cols; v++) {
+                double sumRe = 0, sumIm = 0;
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        double angle = -2 * Math.PI * ((double) (u * i % rows) / rows + (double) (v * j % cols) / cols);
+                        double cos = Math.cos(angle), sin = Math.sin(angle);
+                        sumRe += re[i * cols + j] * cos - im[i * cols + j] * sin;
+                        sumIm += re[i * cols + j] * sin + im[i * cols + j] * cos;
+                    }
+                }
+                out.set(u * cols + v, sumRe, sumIm);
+            }
+        }
+        return out;
+    }
+}
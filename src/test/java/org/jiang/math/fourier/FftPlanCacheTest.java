@@ -0,0 +1,158 @@
+package org.jiang.math.fourier;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class FftPlanCacheTest {
+
+    @Test
+    public void repeatedLookupsHit() {
+        FftPlanCache cache = new FftPlanCache(FftPlanCache.DEFAULT_MAX_MEMORY);
+        FftPlan plan = cache.getFftPlan(1000);
+        assertEquals(1000, plan.getLength());
+        assertSame(plan, cache.getFftPlan(1000));
+        assertSame(plan, cache.getFftPlan(1000));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+        assertEquals(plan.getMemory(), cache.getMemory());
+    }
+
+    @Test
+    public void typesAreCachedSeparately() {
+        FftPlanCache cache = new FftPlanCache(FftPlanCache.DEFAULT_MAX_MEMORY);
+        cache.getFftPlan(64);
+        cache.getFloatFftPlan(64);
+        cache.getFftPlan2D(64, 1);
+        cache.getFftPlan2D(1, 64);
+        // the two-dimensional plans share the complex plan of length 64 and add the complex plans of lengths 1 and 32
+        // and the real plans of lengths 1 and 64
+        assertEquals(4 + 4, cache.size());
+        assertEquals(4 + 4, cache.getMisses());
+        assertEquals(4, cache.getHits());
+    }
+
+    @Test
+    public void innerPlansAreShared() {
+        FftPlanCache cache = new FftPlanCache(FftPlanCache.DEFAULT_MAX_MEMORY);
+        // the cosine plan of length 64 builds the real plan of length 64, which builds the complex plan of length 32
+        DctPlan dct = cache.getDctPlan(64);
+        assertEquals(3, cache.getMisses());
+        RealFftPlan real = cache.getRealFftPlan(64);
+        FftPlan complex = cache.getFftPlan(32);
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.size());
+        // every table is counted once
+        assertEquals(dct.getMemory() + real.getMemory() + complex.getMemory(), cache.getMemory());
+
+        // the sine plan of length 63 shares the real plan of length 2 * (63 + 1)
+        cache.getRealFftPlan(128);
+        long misses = cache.getMisses();
+        cache.getDstPlan(63);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedPlanIsEvicted() {
+        long cap = new FftPlan(512).getMemory() + new FftPlan(256).getMemory() + new FftPlan(128).getMemory() - 1;
+        FftPlanCache cache = new FftPlanCache(cap);
+        FftPlan first = cache.getFftPlan(512);
+        FftPlan second = cache.getFftPlan(256);
+        assertSame(first, cache.getFftPlan(512));
+
+        // the third plan exceeds the cap, so the plan of length 256, which was used least recently, is evicted
+        FftPlan third = cache.getFftPlan(128);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        assertTrue(cache.getMemory() <= cap);
+        assertSame(first, cache.getFftPlan(512));
+        assertSame(third, cache.getFftPlan(128));
+        assertNotSame(second, cache.getFftPlan(256));
+    }
+
+    @Test
+    public void evictionKeepsMemoryUnderCap() {
+        long cap = 3 * new FftPlan(256).getMemory();
+        FftPlanCache cache = new FftPlanCache(cap);
+        int uncached = 0;
+        for (int n = 200; n < 300; n++) {
+            // the bluestein plans of some primes are larger than the cap and are never cached
+            if (cache.getFftPlan(n).getMemory() > cap) uncached++;
+            assertTrue(cache.getMemory() <= cap);
+        }
+        assertEquals(100, cache.getMisses());
+        assertTrue(cache.getEvictions() > 0);
+        assertEquals(100 - uncached - cache.size(), cache.getEvictions());
+    }
+
+    @Test
+    public void oversizedPlansAreNotCached() {
+        FftPlanCache cache = new FftPlanCache(new FftPlan(64).getMemory());
+        FftPlan small = cache.getFftPlan(64);
+        FftPlan large = cache.getFftPlan(4096);
+        assertNotSame(large, cache.getFftPlan(4096));
+        // the small plan survives, since the large one never entered the cache
+        assertSame(small, cache.getFftPlan(64));
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(3, cache.getMisses());
+
+        FftPlanCache empty = new FftPlanCache(0);
+        assertEquals(8, empty.getFftPlan(8).getLength());
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.getMemory());
+    }
+
+    @Test
+    public void clearKeepsCounters() {
+        FftPlanCache cache = new FftPlanCache(FftPlanCache.DEFAULT_MAX_MEMORY);
+        FftPlan plan = cache.getFftPlan(12);
+        cache.getFftPlan(12);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMemory());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertNotSame(plan, cache.getFftPlan(12));
+    }
+
+    @Test
+    public void concurrentLookupsShareOnePlan() throws Exception {
+        FftPlanCache cache = new FftPlanCache(FftPlanCache.DEFAULT_MAX_MEMORY);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<FftPlan>> lookups = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                lookups.add(() -> cache.getFftPlan(4096));
+            }
+            List<Future<FftPlan>> plans = executor.invokeAll(lookups);
+            FftPlan first = plans.get(0).get();
+            for (Future<FftPlan> plan : plans) {
+                assertSame(first, plan.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(64, cache.getHits() + cache.getMisses());
+        assertEquals(1, cache.size());
+        assertEquals(new FftPlan(4096).getMemory(), cache.getMemory());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeCap() {
+        new FftPlanCache(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidLength() {
+        new FftPlanCache(1024).getFftPlan(0);
+    }
+}
@@ -0,0 +1,141 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class FftPlanNDTest {
+
+    private static final int[][] SHAPES = {{7}, {3, 4, 5}, {1, 7, 1}, {2, 2, 2, 2}, {5, 16, 3}, {13, 1, 6}};
+
+    @Test
+    public void everyAxisSubsetMatchesNaiveDfts() {
+        for (int[] shape : SHAPES) {
+            FftPlanND plan = new FftPlanND(shape);
+            int dimensions = shape.length;
+            // every non-empty subset of the axes
+            for (int mask = 1; mask < 1 << dimensions; mask++) {
+                int[] axes = new int[Integer.bitCount(mask)];
+                for (int axis = 0, i = 0; axis < dimensions; axis++) {
+                    if ((mask & 1 << axis) != 0) axes[i++] = axis;
+                }
+                ComplexBuffer in = randomBuffer(plan.getSize(), mask + 17 * plan.getSize());
+                ComplexBuffer out = new ComplexBuffer(plan.getSize());
+                Fourier.fastFourierTransformND(in, out, axes, plan, Parallelism.sequential());
+                assertClose(naive(in, shape, axes), out, 1e-11);
+
+                ComplexBuffer back = new ComplexBuffer(plan.getSize());
+                Fourier.inverseFastFourierTransformND(out, back, axes, plan, Parallelism.sequential());
+                assertClose(in, back, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void allAxesMatch2DTransform() {
+        ComplexBuffer in = randomBuffer(12 * 10, 5);
+        ComplexBuffer expected = new ComplexBuffer(120);
+        ComplexBuffer actual = new ComplexBuffer(120);
+        Fourier.fastFourierTransform2D(in, expected, new FftPlan2D(12, 10), Parallelism.sequential());
+        Fourier.fastFourierTransformND(in, actual, new FftPlanND(12, 10), Parallelism.sequential());
+        assertClose(expected, actual, 1e-12);
+
+        Fourier.inverseFastFourierTransformND(actual, actual, new FftPlanND(12, 10), Parallelism.sequential());
+        assertClose(in, actual, 1e-12);
+    }
+
+    @Test
+    public void parallelTransformMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FftPlanND plan = new FftPlanND(16, 24, 20);
+            ComplexBuffer in = randomBuffer(plan.getSize(), 9);
+            for (int[] axes : new int[][]{{0, 1, 2}, {1, 2}, {0}, {2, 0}}) {
+                ComplexBuffer sequential = new ComplexBuffer(plan.getSize());
+                ComplexBuffer threaded = new ComplexBuffer(plan.getSize());
+                Fourier.fastFourierTransformND(in, sequential, axes, plan, Parallelism.sequential());
+                Fourier.fastFourierTransformND(in, threaded, axes, plan, new Parallelism(pool, 1));
+                assertClose(sequential, threaded, 1e-12);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shapeIsCopied() {
+        int[] shape = {2, 3, 4};
+        FftPlanND plan = new FftPlanND(shape);
+        shape[0] = 9;
+        assertArrayEquals(new int[]{2, 3, 4}, plan.getShape());
+        assertEquals(3, plan.getDimensions());
+        assertEquals(24, plan.getSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyShape() {
+        new FftPlanND();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyAxis() {
+        new FftPlanND(4, 0, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManyValues() {
+        new FftPlanND(1 << 16, 1 << 16);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAxisOutOfRange() {
+        Fourier.fastFourierTransformND(new ComplexBuffer(6), new ComplexBuffer(6), new int[]{2}, new FftPlanND(2, 3),
+                Parallelism.sequential());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRepeatedAxis() {
+        Fourier.fastFourierTransformND(new ComplexBuffer(6), new ComplexBuffer(6), new int[]{1, 1},
+                new FftPlanND(2, 3), Parallelism.sequential());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedBuffer() {
+        Fourier.fastFourierTransformND(new ComplexBuffer(6), new ComplexBuffer(7), new FftPlanND(2, 3),
+                Parallelism.sequential());
+    }
+
+    /**
+     * Applies the naive DFT to every line along every given axis of a row-major array.
+     */
+    private static ComplexBuffer naive(ComplexBuffer in, int[] shape, int[] axes) {
+        ComplexBuffer data = copy(in);
+        int size = data.getLength();
+        for (int axis : axes) {
+            int length = shape[axis];
+            int stride = 1;
+            for (int d = axis + 1; d < shape.length; d++) {
+                stride *= shape[d];
+            }
+            for (int start = 0; start < size; start++) {
+                // a line starts at every index whose coordinate along the axis is zero
+                if (start / stride % length != 0) continue;
+                ComplexBuffer line = new ComplexBuffer(length);
+                for (int j = 0; j < length; j++) {
+                    line.set(j, data.getRealCoefficients()[start + j * stride],
+                            data.getImagCoefficients()[start + j * stride]);
+                }
+                ComplexBuffer transformed = dft(line, false);
+                for (int j = 0; j < length; j++) {
+                    data.set(start + j * stride, transformed.getRealCoefficients()[j],
+                            transformed.getImagCoefficients()[j]);
+                }
+            }
+        }
+        return data;
+    }
+}
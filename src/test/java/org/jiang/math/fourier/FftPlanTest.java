@@ -0,0 +1,93 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class FftPlanTest {
+
+    @Test
+    public void planMatchesNaiveDft() {
+        for (int n = 1; n <= 1024; n <<= 1) {
+            Complex[] in = randomComplex(n, n);
+            assertClose(dft(in), Fourier.cooleyFastFourierTransform(in, new FftPlan(n)), 1e-12);
+        }
+    }
+
+    @Test
+    public void planIsReusable() {
+        FftPlan plan = new FftPlan(64);
+        for (int seed = 0; seed < 3; seed++) {
+            Complex[] in = randomComplex(64, seed);
+            assertClose(dft(in), Fourier.cooleyFastFourierTransform(in, plan), 1e-12);
+        }
+    }
+
+    @Test
+    public void realInputMatchesComplexInput() {
+        double[] data = random(256, 7);
+        Complex[] complex = new Complex[data.length];
+        for (int i = 0; i < data.length; i++) {
+            complex[i] = new Complex(data[i], 0, Complex.Mode.RECTANGULAR);
+        }
+        FftPlan plan = new FftPlan(256);
+        assertClose(Fourier.cooleyFastFourierTransform(complex, plan), Fourier.cooleyFastFourierTransform(data, plan),
+                1e-15);
+    }
+
+    @Test
+    public void planMatchesPlanlessTransform() {
+        double[] data = random(256, 7);
+        Complex[] withPlan = Fourier.cooleyFastFourierTransform(data, new FftPlan(256));
+        Complex[] without = Fourier.cooleyFastFourierTransform(data);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(without[i].getRealCoefficient(), withPlan[i].getRealCoefficient(), 1e-10);
+            assertEquals(without[i].getImagCoefficient(), withPlan[i].getImagCoefficient(), 1e-10);
+        }
+    }
+
+    @Test
+    public void inputIsLeftUnchanged() {
+        double[] data = random(32, 3);
+        double[] copy = data.clone();
+        Fourier.cooleyFastFourierTransform(data, new FftPlan(32));
+        assertArrayEquals(copy, data, 0);
+    }
+
+    @Test
+    public void bufferOverloadMatchesNaiveDft() {
+        for (int n = 1; n <= 1024; n <<= 1) {
+            ComplexBuffer in = randomBuffer(n, n);
+            ComplexBuffer out = new ComplexBuffer(n);
+            Fourier.cooleyFastFourierTransform(in, out, new FftPlan(n));
+            assertClose(dft(in, false), out, 1e-12);
+        }
+    }
+
+    @Test
+    public void inputBufferIsLeftUnchanged() {
+        ComplexBuffer in = randomBuffer(32, 3);
+        ComplexBuffer copy = copy(in);
+        Fourier.cooleyFastFourierTransform(in, new ComplexBuffer(32), new FftPlan(32));
+        assertArrayEquals(copy.getRealCoefficients(), in.getRealCoefficients(), 0);
+        assertArrayEquals(copy.getImagCoefficients(), in.getImagCoefficients(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveLength() {
+        new FftPlan(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedPlan() {
+        Fourier.cooleyFastFourierTransform(new double[16], new FftPlan(32));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedBufferPlan() {
+        Fourier.cooleyFastFourierTransform(new ComplexBuffer(16), new ComplexBuffer(16), new FftPlan(32));
+    }
+}
@@ -0,0 +1,143 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.jiang.math.complex.FloatComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class FloatTransformTest {
+
+    /**
+     * Powers of two, mixed radix lengths and primes, which use Bluestein's algorithm
+     */
+    private static final int[] LENGTHS = {1, 2, 3, 4, 5, 7, 12, 13, 60, 64, 101, 1000, 1009, 4096};
+
+    private static final double TOLERANCE = 1e-5;
+
+    @Test
+    public void transformMatchesDoubleDft() {
+        for (int n : LENGTHS) {
+            float[] re = toFloat(random(n, n));
+            float[] im = toFloat(random(n, n + 1));
+            FloatComplexBuffer data = new FloatComplexBuffer(re.clone(), im.clone());
+            Fourier.fastFourierTransform(data, data, new FloatFftPlan(n));
+
+            ComplexBuffer expected = dft(new ComplexBuffer(toDouble(re), toDouble(im)), false);
+            assertClose(expected, toDouble(data), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void inverseUndoesForward() {
+        for (int n : LENGTHS) {
+            FloatComplexBuffer in = new FloatComplexBuffer(toFloat(random(n, 2 * n)), toFloat(random(n, 3 * n)));
+            FloatFftPlan plan = new FloatFftPlan(n);
+            FloatComplexBuffer spectrum = new FloatComplexBuffer(n);
+            FloatComplexBuffer back = new FloatComplexBuffer(n);
+            Fourier.fastFourierTransform(in, spectrum, plan);
+            Fourier.inverseFastFourierTransform(spectrum, back, plan);
+            assertClose(toDouble(in), toDouble(back), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void powersOfTwoMatchDoublePlan() {
+        // both even and odd numbers of radix-2 passes, the odd ones starting with a single radix-2 pass
+        for (int n = 1; n <= 1 << 14; n <<= 1) {
+            double[] re = random(n, n + 5);
+            double[] im = random(n, n + 6);
+            for (boolean inverse : new boolean[]{false, true}) {
+                FloatComplexBuffer actual = new FloatComplexBuffer(toFloat(re), toFloat(im));
+                new FloatFftPlan(n).transform(actual.getRealCoefficients(), actual.getImagCoefficients(), inverse);
+                ComplexBuffer expected = new ComplexBuffer(toDouble(toFloat(re)), toDouble(toFloat(im)));
+                new FftPlan(n).transform(expected.getRealCoefficients(), expected.getImagCoefficients(), inverse);
+                assertClose(expected, toDouble(actual), TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void realSpectrumMatchesDoubleDft() {
+        for (int n : LENGTHS) {
+            float[] in = toFloat(random(n, 4 * n));
+            FloatRealFftPlan plan = new FloatRealFftPlan(n);
+            assertEquals(n / 2 + 1, plan.getSpectrumLength());
+            FloatComplexBuffer spectrum = new FloatComplexBuffer(plan.getSpectrumLength());
+            Fourier.realFastFourierTransform(in, spectrum, plan);
+
+            ComplexBuffer full = dft(toDouble(in));
+            ComplexBuffer actual = toDouble(spectrum);
+            assertClose(full.getRealCoefficients(), actual.getRealCoefficients(), actual.getLength(), TOLERANCE);
+            assertClose(full.getImagCoefficients(), actual.getImagCoefficients(), actual.getLength(), TOLERANCE);
+
+            float[] back = new float[n];
+            Fourier.inverseRealFastFourierTransform(spectrum, back, plan);
+            assertClose(toDouble(in), toDouble(back), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void cosineTransformMatchesDouble() {
+        for (int n : LENGTHS) {
+            float[] in = toFloat(random(n, 5 * n));
+            for (Normalization normalization : Normalization.values()) {
+                float[] out = new float[n];
+                FloatDctPlan plan = new FloatDctPlan(n);
+                Fourier.fastCosineTransform(in, out, plan, normalization);
+                double[] expected = new double[n];
+                Fourier.fastCosineTransform(toDouble(in), expected, new DctPlan(n), normalization);
+                assertClose(expected, toDouble(out), TOLERANCE);
+
+                Fourier.inverseFastCosineTransform(out, out, plan, normalization);
+                assertClose(toDouble(in), toDouble(out), TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void convenienceMethodsRoundTrip() {
+        float[] in = toFloat(random(90, 6));
+        FloatComplexBuffer spectrum = Fourier.realFastFourierTransform(in);
+        assertEquals(46, spectrum.getLength());
+        assertClose(toDouble(in), toDouble(Fourier.inverseRealFastFourierTransform(spectrum, 90)), TOLERANCE);
+        assertClose(toDouble(in), toDouble(Fourier.inverseFastCosineTransform(Fourier.fastCosineTransform(in))),
+                TOLERANCE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveLength() {
+        new FloatFftPlan(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedPlan() {
+        Fourier.fastFourierTransform(new FloatComplexBuffer(8), new FloatComplexBuffer(8), new FloatFftPlan(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSpectrumOfWrongLength() {
+        Fourier.realFastFourierTransform(new float[8], new FloatComplexBuffer(8), new FloatRealFftPlan(8));
+    }
+
+    private static float[] toFloat(double[] values) {
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+
+    private static double[] toDouble(float[] values) {
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    private static ComplexBuffer toDouble(FloatComplexBuffer buffer) {
+        return new ComplexBuffer(toDouble(buffer.getRealCoefficients()), toDouble(buffer.getImagCoefficients()));
+    }
+}
@@ -0,0 +1,152 @@
+package org.jiang.math.fourier;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class FourierServiceTest {
+
+    @Test
+    public void trySubmitRejectsWhenFull() throws Exception {
+        try (FourierService service = new FourierService(2, 3)) {
+            CountDownLatch gate = new CountDownLatch(1);
+            List<CompletableFuture<Integer>> accepted = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                int value = i;
+                accepted.add(service.trySubmit(() -> {
+                    gate.await();
+                    return value;
+                }));
+            }
+            assertEquals(5, service.getPending());
+            CompletableFuture<Integer> rejected = service.trySubmit(() -> -1);
+            assertTrue(rejected.isCompletedExceptionally());
+            assertRejected(rejected);
+
+            gate.countDown();
+            int sum = 0;
+            for (CompletableFuture<Integer> future : accepted) {
+                sum += future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(10, sum);
+            assertEquals(0, service.getPending());
+        }
+    }
+
+    @Test
+    public void submitWaitsForRoom() throws Exception {
+        try (FourierService service = new FourierService(1, 0)) {
+            CountDownLatch gate = new CountDownLatch(1);
+            // the pipeline holds the only room of the service until its transform completes
+            CompletableFuture<Integer> first = service.submit(() -> 1, x -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return x;
+            });
+            CompletableFuture<CompletableFuture<Integer>> second = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return service.submit(() -> 2);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(second.isDone());
+            assertEquals(1, service.getPending());
+
+            gate.countDown();
+            assertEquals(1, (int) first.get(10, TimeUnit.SECONDS));
+            assertEquals(2, (int) second.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void pipelineCompletesAfterClose() throws Exception {
+        FourierService service = new FourierService(1, 4);
+        CompletableFuture<Integer> future = service.submit(() -> {
+            Thread.sleep(200);
+            return new double[]{1, 2, 3, 4};
+        }, data -> Fourier.spectrum(data, SpectrumType.MAGNITUDE).length);
+        service.close();
+
+        assertEquals(3, (int) future.get(10, TimeUnit.SECONDS));
+        assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void submitAfterCloseIsRejected() throws Exception {
+        FourierService service = new FourierService(1, 1);
+        service.close();
+        assertRejected(service.submit(() -> 1));
+        assertRejected(service.trySubmit(() -> 1, x -> x));
+        assertEquals(0, service.getPending());
+        assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void exceptionsOfEitherStepArePropagated() throws Exception {
+        try (FourierService service = new FourierService(1, 4)) {
+            try {
+                service.submit(() -> {
+                    throw new IOException("load");
+                }, x -> x).get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+            }
+            try {
+                service.submit(() -> 1, x -> {
+                    throw new IllegalStateException("transform");
+                }).get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            assertEquals(0, service.getPending());
+        }
+    }
+
+    @Test
+    public void resultsMatchFourier() throws Exception {
+        double[] data = new double[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = Math.sin(0.3 * i) + 0.5 * Math.cos(1.7 * i);
+        }
+        try (FourierService service = new FourierService()) {
+            assertArrayEquals(Fourier.spectrum(data, SpectrumType.POWER),
+                    service.spectrum(data, SpectrumType.POWER).get(10, TimeUnit.SECONDS), 1e-9);
+            assertEquals(data.length, service.fastFourierTransform(data).get(10, TimeUnit.SECONDS).length);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveWorkers() {
+        new FourierService(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeCapacity() {
+        new FourierService(1, -1);
+    }
+
+    private static void assertRejected(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class GoertzelTest {
+
+    @Test
+    public void binsMatchDft() {
+        for (int n : new int[]{1, 2, 3, 7, 16, 97, 1000}) {
+            double[] data = random(n, n);
+            ComplexBuffer full = dft(data);
+            // one to seven bins, so both the four-at-a-time loop and the remainder are run
+            for (int count = 1; count <= 7; count++) {
+                int[] bins = new int[count];
+                ComplexBuffer expected = new ComplexBuffer(count);
+                for (int b = 0; b < count; b++) {
+                    bins[b] = (b * 37 + 5) % n;
+                    expected.set(b, full.getRealCoefficients()[bins[b]], full.getImagCoefficients()[bins[b]]);
+                }
+                assertClose(expected, new ComplexBuffer(Fourier.goertzel(data, bins)), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    public void frequenciesBetweenBinsMatchDefinition() {
+        double[] data = random(250, 3);
+        double rate = 8000;
+        double[] frequencies = {0, 697, 770.5, 1209, 1336.25, 4000};
+        ComplexBuffer out = new ComplexBuffer(frequencies.length);
+        Fourier.goertzel(data, frequencies, rate, out);
+        for (int f = 0; f < frequencies.length; f++) {
+            double re = 0, im = 0;
+            for (int j = 0; j < data.length; j++) {
+                double angle = -2 * Math.PI * frequencies[f] * j / rate;
+                re += data[j] * Math.cos(angle);
+                im += data[j] * Math.sin(angle);
+            }
+            assertEquals(re, out.getRealCoefficients()[f], 1e-10);
+            assertEquals(im, out.getImagCoefficients()[f], 1e-10);
+        }
+    }
+
+    @Test
+    public void frequencyOfABinEqualsTheBin() {
+        double[] data = random(64, 4);
+        Complex[] byBin = Fourier.goertzel(data, new int[]{5, 12});
+        Complex[] byFrequency = Fourier.goertzel(data, new double[]{5 * 100.0 / 64, 12 * 100.0 / 64}, 100);
+        assertClose(new ComplexBuffer(byBin), new ComplexBuffer(byFrequency), 1e-11);
+    }
+
+    @Test
+    public void detectsTone() {
+        int n = 205;
+        double[] data = new double[n];
+        for (int j = 0; j < n; j++) {
+            data[j] = Math.sin(2 * Math.PI * 18 * j / n);
+        }
+        Complex[] bins = Fourier.goertzel(data, new int[]{17, 18, 19});
+        assertEquals(n / 2.0, magnitude(bins[1]), 1e-9);
+        assertEquals(0, magnitude(bins[0]), 1e-9);
+        assertEquals(0, magnitude(bins[2]), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyInput() {
+        Fourier.goertzel(new double[0], new int[]{0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBinOutsideTransform() {
+        Fourier.goertzel(new double[8], new int[]{8});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveSampleRate() {
+        Fourier.goertzel(new double[8], new double[]{1}, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBufferOfWrongLength() {
+        Fourier.goertzel(new double[8], new int[]{1, 2}, new ComplexBuffer(1));
+    }
+
+    private static double magnitude(Complex value) {
+        return Math.hypot(value.getRealCoefficient(), value.getImagCoefficient());
+    }
+}
@@ -0,0 +1,57 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class InverseTransformTest {
+
+    private static final int[] LENGTHS = {1, 2, 3, 4, 5, 8, 12, 13, 64, 100, 101, 512, 1000};
+
+    @Test
+    public void inverseMatchesScaledDefinition() {
+        for (int n : LENGTHS) {
+            ComplexBuffer in = randomBuffer(n, n);
+            ComplexBuffer out = new ComplexBuffer(n);
+            Fourier.inverseFastFourierTransform(in, out, new FftPlan(n));
+            assertClose(dft(in, true), out, 1e-11);
+        }
+    }
+
+    @Test
+    public void inverseUndoesForward() {
+        for (int n : LENGTHS) {
+            ComplexBuffer in = randomBuffer(n, 2 * n);
+            FftPlan plan = new FftPlan(n);
+            ComplexBuffer data = copy(in);
+            Fourier.fastFourierTransform(data, data, plan);
+            Fourier.inverseFastFourierTransform(data, data, plan);
+            assertClose(in, data, 1e-12);
+        }
+    }
+
+    @Test
+    public void flatSpectrumGivesImpulse() {
+        // the division by n is part of the inverse, so a flat spectrum of ones is the unit impulse
+        ComplexBuffer data = new ComplexBuffer(new double[]{1, 1, 1, 1, 1, 1}, new double[6]);
+        Fourier.inverseFastFourierTransform(data, data, new FftPlan(6));
+        assertClose(new ComplexBuffer(new double[]{1, 0, 0, 0, 0, 0}, new double[6]), data, 1e-15);
+    }
+
+    @Test
+    public void arrayEntryPointsRoundTrip() {
+        ComplexBuffer in = randomBuffer(36, 9);
+        Complex[] spectrum = Fourier.fastFourierTransform(in.toComplexArray());
+        assertClose(in, new ComplexBuffer(Fourier.inverseFastFourierTransform(spectrum)), 1e-12);
+        Complex[] direct = Fourier.inverseDiscreteFourierTransform(spectrum);
+        assertClose(in, new ComplexBuffer(direct), 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedPlan() {
+        Fourier.inverseFastFourierTransform(new ComplexBuffer(10), new ComplexBuffer(10), new FftPlan(12));
+    }
+}
@@ -0,0 +1,119 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.matrix.IntegerVector;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NumberTheoreticTransformTest {
+
+    @Test
+    public void convolutionIsExact() {
+        // lengths below and above the direct threshold, and values needing one, two and three primes
+        int[][] lengths = {{1, 1}, {2, 1}, {7, 5}, {64, 64}, {65, 65}, {100, 300}, {1000, 999}};
+        long[] magnitudes = {1, 1000, 1L << 20, 1L << 28};
+        for (int[] length : lengths) {
+            for (long magnitude : magnitudes) {
+                long[] a = random(length[0], magnitude, length[0] + magnitude);
+                long[] b = random(length[1], magnitude, length[1] - magnitude);
+                assertArrayEquals(direct(a, b), Fourier.convolve(a, b));
+            }
+        }
+    }
+
+    @Test
+    public void largeBoundWithSmallResultIsExact() {
+        // the bound min(n, m) max|a| max|b| exceeds a long, but the alternating signs cancel so every value fits
+        int n = 200;
+        long[] a = new long[n];
+        long[] b = new long[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i % 2 == 0 ? 1L << 40 : -(1L << 40);
+            b[i] = 1L << 21;
+        }
+        assertArrayEquals(direct(a, b), Fourier.convolve(a, b));
+    }
+
+    @Test
+    public void extremeValuesAreExact() {
+        long[] a = {Long.MAX_VALUE / 3, -(Long.MAX_VALUE / 3), 1};
+        long[] b = {1, 1, 0, 0, 0, -2};
+        assertArrayEquals(direct(a, b), Fourier.convolve(a, b));
+    }
+
+    @Test
+    public void zerosGiveZeros() {
+        assertArrayEquals(new long[1099], Fourier.convolve(new long[1000], new long[100]));
+    }
+
+    @Test
+    public void longConvolutionIsSplitIntoBlocks() {
+        int n = NumberTheoreticTransform.MAX_LENGTH - 10;
+        long[] a = random(n, 1000, 1);
+        long[] b = random(100, 1000, 2);
+        long[] result = Fourier.convolve(a, b);
+        assertEquals(n + 99, result.length);
+        // a is split at MAX_LENGTH - 99, so check every value near the ends and that boundary and a sample in between
+        int boundary = NumberTheoreticTransform.MAX_LENGTH - 99;
+        for (int k = 0; k < result.length; k++) {
+            boolean near = k < 200 || k >= result.length - 200 || Math.abs(k - boundary) < 200;
+            if (!near && k % 9973 != 0) continue;
+            long expected = 0;
+            for (int j = Math.max(0, k - n + 1); j <= Math.min(k, 99); j++) {
+                expected += a[k - j] * b[j];
+            }
+            assertEquals(expected, result[k]);
+        }
+    }
+
+    @Test
+    public void integerEntryPointsMatch() {
+        int[] a = {3, -1, 4, 1, -5, 9, 2, 6};
+        int[] b = {2, 7, -1, 8};
+        long[] expected = direct(new long[]{3, -1, 4, 1, -5, 9, 2, 6}, new long[]{2, 7, -1, 8});
+        assertArrayEquals(expected, Fourier.convolve(a, b));
+        assertArrayEquals(expected, Fourier.convolve(new IntegerVector(a), new IntegerVector(b)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void rejectsOverflow() {
+        long[] a = new long[100];
+        long[] b = new long[100];
+        Arrays.fill(a, 1L << 40);
+        Arrays.fill(b, 1L << 40);
+        Fourier.convolve(a, b);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptySequence() {
+        Fourier.convolve(new long[0], new long[]{1});
+    }
+
+    private static long[] random(int length, long magnitude, long seed) {
+        Random random = new Random(seed);
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (long) ((2 * random.nextDouble() - 1) * magnitude);
+        }
+        return values;
+    }
+
+    /**
+     * The convolution summed exactly with big integers, which fails if a value does not fit into a long.
+     */
+    private static long[] direct(long[] a, long[] b) {
+        long[] result = new long[a.length + b.length - 1];
+        for (int k = 0; k < result.length; k++) {
+            BigInteger sum = BigInteger.ZERO;
+            for (int i = Math.max(0, k - b.length + 1); i <= Math.min(k, a.length - 1); i++) {
+                sum = sum.add(BigInteger.valueOf(a[i]).multiply(BigInteger.valueOf(b[k - i])));
+            }
+            result[k] = sum.longValueExact();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class OutOfCoreFftPlanTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void transformMatchesInMemoryFft() throws IOException {
+        // a single value, a prime which cannot be split, a square and lengths needing several blocks per pass
+        long[][] shapes = {{1, 16}, {2, 32}, {7, 112}, {64, 128}, {1000, 1024}, {4096, 1024}};
+        for (long[] shape : shapes) {
+            int n = (int) shape[0];
+            ComplexBuffer signal = randomBuffer(n, n);
+            Path in = write(signal);
+            Path out = folder.newFile().toPath();
+            Fourier.fastFourierTransform(in, out, new OutOfCoreFftPlan(n, shape[1]), Parallelism.sequential());
+
+            ComplexBuffer expected = new ComplexBuffer(n);
+            Fourier.fastFourierTransform(signal, expected, new FftPlan(n));
+            assertClose(expected, read(out, n), 1e-11);
+            assertClose(signal, read(in, n), 0);
+        }
+    }
+
+    @Test
+    public void inverseUndoesForward() throws IOException {
+        int n = 3000;
+        ComplexBuffer signal = randomBuffer(n, 5);
+        OutOfCoreFftPlan plan = new OutOfCoreFftPlan(n, 4096);
+        Path in = write(signal);
+        Path spectrum = folder.newFile().toPath();
+        Path back = folder.newFile().toPath();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Fourier.fastFourierTransform(in, spectrum, plan, new Parallelism(pool, 1));
+            Fourier.inverseFastFourierTransform(spectrum, back, plan, new Parallelism(pool, 1));
+        } finally {
+            pool.shutdown();
+        }
+        assertClose(signal, read(back, n), 1e-12);
+    }
+
+    @Test
+    public void transformsPrefixOfLongerFile() throws IOException {
+        ComplexBuffer signal = randomBuffer(40, 6);
+        Path in = write(signal);
+        Path out = folder.newFile().toPath();
+        Fourier.fastFourierTransform(in, out, new OutOfCoreFftPlan(30, 1024), Parallelism.sequential());
+
+        ComplexBuffer prefix = new ComplexBuffer(30);
+        for (int i = 0; i < 30; i++) {
+            prefix.set(i, signal.getRealCoefficients()[i], signal.getImagCoefficients()[i]);
+        }
+        assertEquals(30 * 16, Files.size(out));
+        assertClose(dft(prefix, false), read(out, 30), 1e-11);
+    }
+
+    @Test
+    public void unsplittableLengthsUseBluestein() throws IOException {
+        // primes and twice a prime whose rows exceed the budget, so the chirp steps run in many blocks
+        long[][] shapes = {{5, 64}, {1009, 1024}, {2018, 1024}, {4099, 2048}};
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long[] shape : shapes) {
+                int n = (int) shape[0];
+                OutOfCoreFftPlan plan = new OutOfCoreFftPlan(n, shape[1]);
+                ComplexBuffer signal = randomBuffer(n, n);
+                Path in = write(signal);
+                Path spectrum = folder.newFile().toPath();
+                Path back = folder.newFile().toPath();
+                Fourier.fastFourierTransform(in, spectrum, plan, Parallelism.sequential());
+                Fourier.inverseFastFourierTransform(spectrum, back, plan, new Parallelism(pool, 1));
+
+                ComplexBuffer expected = new ComplexBuffer(n);
+                Fourier.fastFourierTransform(signal, expected, new FftPlan(n));
+                assertEquals(16L * n, Files.size(spectrum));
+                assertClose(expected, read(spectrum, n), 1e-11);
+                assertClose(signal, read(back, n), 1e-11);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void largePrimeLengthIsAccepted() {
+        // 2^31 - 1 is prime, so it used to need a single row of 2^31 - 1 values
+        OutOfCoreFftPlan plan = new OutOfCoreFftPlan(Integer.MAX_VALUE, 1 << 20);
+        assertEquals(Integer.MAX_VALUE, plan.getLength());
+    }
+
+    @Test
+    public void temporaryFileIsDeleted() throws IOException {
+        Path in = write(randomBuffer(64, 2));
+        Path out = folder.newFile().toPath();
+        Fourier.fastFourierTransform(in, out, new OutOfCoreFftPlan(64, 256), Parallelism.sequential());
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertEquals(2, files.count());
+        }
+        // the three temporary files of Bluestein's algorithm
+        Fourier.fastFourierTransform(in, out, new OutOfCoreFftPlan(61, 256), Parallelism.sequential());
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveLength() {
+        new OutOfCoreFftPlan(0, 1024);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBudgetSmallerThanOneColumn() {
+        // 1000 is split into 25 columns of 40 rows, which need 640 bytes
+        new OutOfCoreFftPlan(1000, 639);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsShortInputFile() throws IOException {
+        Path in = write(randomBuffer(10, 1));
+        Fourier.fastFourierTransform(in, folder.newFile().toPath(), new OutOfCoreFftPlan(12, 1024),
+                Parallelism.sequential());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSameInputAndOutput() throws IOException {
+        Path in = write(randomBuffer(16, 1));
+        Fourier.fastFourierTransform(in, in, new OutOfCoreFftPlan(16, 1024), Parallelism.sequential());
+    }
+
+    private Path write(ComplexBuffer values) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(16 * values.getLength()).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < values.getLength(); i++) {
+            bytes.putDouble(values.getRealCoefficients()[i]);
+            bytes.putDouble(values.getImagCoefficients()[i]);
+        }
+        Path path = folder.newFile().toPath();
+        Files.write(path, bytes.array());
+        return path;
+    }
+
+    private static ComplexBuffer read(Path path, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        ComplexBuffer values = new ComplexBuffer(length);
+        for (int i = 0; i < length; i++) {
+            values.set(i, bytes.getDouble(), bytes.getDouble());
+        }
+        return values;
+    }
+}
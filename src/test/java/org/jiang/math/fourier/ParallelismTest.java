@@ -0,0 +1,64 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class ParallelismTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void parallelTransformMatchesSequential() {
+        Parallelism parallel = new Parallelism(pool, 1);
+        // a power of two, a mixed radix length and a Bluestein length
+        for (int n : new int[]{1 << 16, 61440, 10007}) {
+            ComplexBuffer in = randomBuffer(n, n);
+            FftPlan plan = new FftPlan(n);
+            ComplexBuffer sequential = new ComplexBuffer(n);
+            ComplexBuffer threaded = new ComplexBuffer(n);
+            Fourier.fastFourierTransform(in, sequential, plan, Parallelism.sequential());
+            Fourier.fastFourierTransform(in, threaded, plan, parallel);
+            assertClose(sequential, threaded, 1e-12);
+
+            Fourier.inverseFastFourierTransform(threaded, threaded, plan, parallel);
+            assertClose(in, threaded, 1e-12);
+        }
+    }
+
+    @Test
+    public void forEachRunsEveryIndexOnce() {
+        AtomicIntegerArray counts = new AtomicIntegerArray(1000);
+        new Parallelism(pool, 1).forEach(1000, counts::incrementAndGet);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1, counts.get(i));
+        }
+    }
+
+    @Test
+    public void smallWorkStaysOnOneTask() {
+        Parallelism parallel = new Parallelism(pool, 1 << 16);
+        assertEquals(1, parallel.getTasks(1000));
+        assertEquals(1, Parallelism.sequential().getTasks(1L << 30));
+        assertEquals(1, new Parallelism(new ForkJoinPool(1), 1).getTasks(1L << 20));
+    }
+
+    @Test
+    public void largeWorkIsSplitIntoPowerOfTwoTasks() {
+        int tasks = new Parallelism(pool, 1).getTasks(1 << 20);
+        assertTrue(tasks > 1);
+        assertEquals(Integer.highestOneBit(tasks), tasks);
+        assertTrue(tasks <= 4 * pool.getParallelism());
+    }
+}
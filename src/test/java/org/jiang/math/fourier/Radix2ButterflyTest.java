@@ -0,0 +1,66 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class Radix2ButterflyTest {
+
+    @Test
+    public void singleFrequenciesAreExact() {
+        // a pure tone at bin f only touches the twiddles of the table it is built from, so every bin checks its entries
+        int n = 512;
+        FftPlan plan = new FftPlan(n);
+        for (int f = 0; f < n; f += 37) {
+            ComplexBuffer data = new ComplexBuffer(n);
+            for (int j = 0; j < n; j++) {
+                double angle = 2 * Math.PI * ((long) f * j % n) / n;
+                data.set(j, Math.cos(angle), Math.sin(angle));
+            }
+            Fourier.fastFourierTransform(data, data, plan);
+            for (int k = 0; k < n; k++) {
+                assertEquals(k == f ? n : 0, data.getRealCoefficients()[k], 1e-10);
+                assertEquals(0, data.getImagCoefficients()[k], 1e-10);
+            }
+        }
+    }
+
+    @Test
+    public void largeTransformMatchesNaiveDft() {
+        int n = 1 << 12;
+        ComplexBuffer in = randomBuffer(n, 17);
+        ComplexBuffer out = new ComplexBuffer(n);
+        Fourier.fastFourierTransform(in, out, new FftPlan(n));
+        assertClose(dft(in, false), out, 1e-12);
+    }
+
+    @Test
+    public void parallelPassesMatchSequential() {
+        // pools of different sizes split the passes into different numbers of blocks, so the passes left after the
+        // blocks are both odd and even in number
+        for (int threads = 2; threads <= 8; threads++) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Parallelism parallelism = new Parallelism(pool, 1);
+                for (int n = 1 << 4; n <= 1 << 15; n <<= 1) {
+                    ComplexBuffer in = randomBuffer(n, n + threads);
+                    FftPlan plan = new FftPlan(n);
+                    ComplexBuffer sequential = new ComplexBuffer(n);
+                    ComplexBuffer threaded = new ComplexBuffer(n);
+                    Fourier.fastFourierTransform(in, sequential, plan, Parallelism.sequential());
+                    Fourier.fastFourierTransform(in, threaded, plan, parallelism);
+                    assertClose(sequential, threaded, 1e-13);
+
+                    Fourier.inverseFastFourierTransform(threaded, threaded, plan, parallelism);
+                    assertClose(in, threaded, 1e-13);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+
+public class Radix4Test {
+
+    @Test
+    public void planMatchesRadix2Loop() {
+        // odd exponents start with a radix-2 pass, even exponents are radix-4 throughout
+        for (int log = 0; log <= 16; log++) {
+            int n = 1 << log;
+            ComplexBuffer in = randomBuffer(n, log);
+            ComplexBuffer radix2 = copy(in);
+            Fourier.cooleyFastFourierTransform(radix2);
+            ComplexBuffer radix4 = new ComplexBuffer(n);
+            Fourier.fastFourierTransform(in, radix4, new FftPlan(n));
+            assertClose(radix2, radix4, 1e-12);
+        }
+    }
+
+    @Test
+    public void smallLengthsMatchNaiveDft() {
+        for (int log = 0; log <= 9; log++) {
+            int n = 1 << log;
+            ComplexBuffer in = randomBuffer(n, 3 * log);
+            FftPlan plan = new FftPlan(n);
+            ComplexBuffer forward = new ComplexBuffer(n);
+            ComplexBuffer inverse = new ComplexBuffer(n);
+            Fourier.fastFourierTransform(in, forward, plan);
+            Fourier.inverseFastFourierTransform(in, inverse, plan);
+            assertClose(dft(in, false), forward, 1e-12);
+            // the division by n is fused into the last pass, which is radix-4 unless there is only one pass
+            assertClose(dft(in, true), inverse, 1e-12);
+        }
+    }
+
+    @Test
+    public void roundTripErrorStaysSmall() {
+        for (int log = 17; log <= 18; log++) {
+            int n = 1 << log;
+            ComplexBuffer in = randomBuffer(n, log);
+            FftPlan plan = new FftPlan(n);
+            ComplexBuffer data = copy(in);
+            Fourier.fastFourierTransform(data, data, plan);
+            Fourier.inverseFastFourierTransform(data, data, plan);
+            assertClose(in, data, 1e-13);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class RealFftPlanTest {
+
+    private static final int[] LENGTHS = {1, 2, 3, 4, 5, 7, 8, 12, 15, 16, 97, 100, 128, 210, 1009, 1024};
+
+    @Test
+    public void spectrumIsFirstHalfOfDft() {
+        for (int n : LENGTHS) {
+            double[] in = random(n, n);
+            RealFftPlan plan = new RealFftPlan(n);
+            assertEquals(n / 2 + 1, plan.getSpectrumLength());
+            ComplexBuffer out = new ComplexBuffer(plan.getSpectrumLength());
+            Fourier.realFastFourierTransform(in, out, plan);
+
+            ComplexBuffer full = dft(in);
+            assertClose(full.getRealCoefficients(), out.getRealCoefficients(), out.getLength(), 1e-11);
+            assertClose(full.getImagCoefficients(), out.getImagCoefficients(), out.getLength(), 1e-11);
+        }
+    }
+
+    @Test
+    public void inverseRoundTrips() {
+        for (int n : LENGTHS) {
+            double[] in = random(n, 3 * n);
+            RealFftPlan plan = new RealFftPlan(n);
+            ComplexBuffer spectrum = new ComplexBuffer(plan.getSpectrumLength());
+            double[] back = new double[n];
+            Fourier.realFastFourierTransform(in, spectrum, plan);
+            ComplexBuffer copy = copy(spectrum);
+            Fourier.inverseRealFastFourierTransform(spectrum, back, plan);
+            assertClose(in, back, 1e-12);
+            assertArrayEquals(copy.getRealCoefficients(), spectrum.getRealCoefficients(), 0);
+            assertArrayEquals(copy.getImagCoefficients(), spectrum.getImagCoefficients(), 0);
+        }
+    }
+
+    @Test
+    public void arrayEntryPointsRoundTrip() {
+        double[] in = random(45, 2);
+        Complex[] spectrum = Fourier.realFastFourierTransform(in);
+        assertEquals(23, spectrum.length);
+        assertClose(in, Fourier.inverseRealFastFourierTransform(spectrum, 45), 1e-12);
+    }
+
+    @Test
+    public void spectrumLengthDependsOnParity() {
+        assertEquals(1, new RealFftPlan(1).getSpectrumLength());
+        assertEquals(4, new RealFftPlan(6).getSpectrumLength());
+        assertEquals(4, new RealFftPlan(7).getSpectrumLength());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveLength() {
+        new RealFftPlan(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSpectrumOfWrongLength() {
+        Fourier.realFastFourierTransform(new double[8], new ComplexBuffer(8), new RealFftPlan(8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSignalOfWrongLength() {
+        Fourier.inverseRealFastFourierTransform(new ComplexBuffer(5), new double[9], new RealFftPlan(8));
+    }
+}
@@ -0,0 +1,109 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Naive reference implementations and comparisons shared by the tests.
+ */
+final class Reference {
+
+    private Reference() {
+    }
+
+    static double[] random(int length, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextGaussian();
+        }
+        return values;
+    }
+
+    static Complex[] randomComplex(int length, long seed) {
+        return randomBuffer(length, seed).toComplexArray();
+    }
+
+    static ComplexBuffer randomBuffer(int length, long seed) {
+        return new ComplexBuffer(random(length, seed), random(length, seed + 1));
+    }
+
+    static ComplexBuffer copy(ComplexBuffer buffer) {
+        return new ComplexBuffer(buffer.getRealCoefficients().clone(), buffer.getImagCoefficients().clone());
+    }
+
+    /**
+     * The DFT by its definition in O(n<sup>2</sup>), the inverse including the division by n.
+     */
+    static ComplexBuffer dft(ComplexBuffer in, boolean inverse) {
+        int n = in.getLength();
+        double[] re = in.getRealCoefficients();
+        double[] im = in.getImagCoefficients();
+        ComplexBuffer out = new ComplexBuffer(n);
+        double sign = inverse ? 1 : -1;
+        for (int k = 0; k < n; k++) {
+            double sr = 0;
+            double si = 0;
+            for (int j = 0; j < n; j++) {
+                double theta = sign * 2 * Math.PI * ((long) j * k % n) / n;
+                sr += re[j] * Math.cos(theta) - im[j] * Math.sin(theta);
+                si += re[j] * Math.sin(theta) + im[j] * Math.cos(theta);
+            }
+            out.set(k, inverse ? sr / n : sr, inverse ? si / n : si);
+        }
+        return out;
+    }
+
+    static ComplexBuffer dft(double[] in) {
+        return dft(new ComplexBuffer(in.clone(), new double[in.length]), false);
+    }
+
+    static Complex[] dft(Complex[] in) {
+        return dft(new ComplexBuffer(in), false).toComplexArray();
+    }
+
+    /**
+     * The linear convolution by its definition.
+     */
+    static double[] convolve(double[] a, double[] b) {
+        double[] out = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                out[i + j] += a[i] * b[j];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Asserts that every value matches up to the tolerance relative to the largest expected magnitude.
+     */
+    static void assertClose(ComplexBuffer expected, ComplexBuffer actual, double tolerance) {
+        assertEquals(expected.getLength(), actual.getLength());
+        assertClose(expected.getRealCoefficients(), actual.getRealCoefficients(), expected.getLength(), tolerance);
+        assertClose(expected.getImagCoefficients(), actual.getImagCoefficients(), expected.getLength(), tolerance);
+    }
+
+    static void assertClose(Complex[] expected, Complex[] actual, double tolerance) {
+        assertClose(new ComplexBuffer(expected), new ComplexBuffer(actual), tolerance);
+    }
+
+    static void assertClose(double[] expected, double[] actual, double tolerance) {
+        assertEquals(expected.length, actual.length);
+        assertClose(expected, actual, expected.length, tolerance);
+    }
+
+    static void assertClose(double[] expected, double[] actual, int length, double tolerance) {
+        double scale = 1;
+        for (int i = 0; i < length; i++) {
+            scale = Math.max(scale, Math.abs(expected[i]));
+        }
+        for (int i = 0; i < length; i++) {
+            assertEquals("index " + i, expected[i], actual[i], tolerance * scale);
+        }
+    }
+}
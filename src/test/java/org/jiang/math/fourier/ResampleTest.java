@@ -0,0 +1,184 @@
+package org.jiang.math.fourier;
+
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class ResampleTest {
+
+    @Test
+    public void bandLimitedSignalIsResampledExactly() {
+        for (int n : new int[]{1, 2, 7, 16, 45}) {
+            for (int m : new int[]{1, 2, 5, 16, 33, 100}) {
+                // the highest frequency stays below the Nyquist frequency of both lengths
+                int highest = (Math.min(n, m) - 1) / 2;
+                double[] data = new double[n];
+                for (int j = 0; j < n; j++) {
+                    data[j] = tone(highest, (double) j / n);
+                }
+                double[] resampled = Fourier.resample(data, m);
+                assertEquals(m, resampled.length);
+                for (int i = 0; i < m; i++) {
+                    assertEquals(tone(highest, (double) i / m), resampled[i], 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void upsamplingThenDownsamplingRestoresSignal() {
+        for (int n : new int[]{1, 2, 9, 64, 101}) {
+            double[] data = random(n, n);
+            double[] up = Fourier.resample(data, 3, 1);
+            assertEquals(3 * n, up.length);
+            assertClose(data, Fourier.resample(up, n), 1e-12);
+        }
+    }
+
+    @Test
+    public void rationalResampleRoundsLengthUp() {
+        assertEquals(15, Fourier.resample(new double[10], 3, 2).length);
+        assertEquals(4, Fourier.resample(new double[10], 1, 3).length);
+        assertEquals(1, Fourier.resample(new double[1], 1, 7).length);
+    }
+
+    @Test
+    public void ratioIsReduced() {
+        PolyphaseResampler resampler = new PolyphaseResampler(320, 294);
+        assertEquals(160, resampler.getUp());
+        assertEquals(147, resampler.getDown());
+        assertEquals(PolyphaseResampler.DEFAULT_ZERO_CROSSINGS, resampler.getZeroCrossings());
+    }
+
+    @Test
+    public void streamOutputLengthsAddUp() {
+        for (int[] ratio : new int[][]{{1, 1}, {2, 1}, {1, 3}, {3, 2}, {160, 147}, {147, 160}}) {
+            PolyphaseResampler resampler = new PolyphaseResampler(ratio[0], ratio[1]);
+            int outputs = 0;
+            int inputs = 0;
+            for (int chunk = 1; inputs < 5000; chunk = chunk * 7 % 101 + 1) {
+                outputs += resampler.process(new double[chunk]).length;
+                inputs += chunk;
+            }
+            assertEquals(((long) inputs * ratio[0] + ratio[1] - 1) / ratio[1], outputs);
+        }
+    }
+
+    @Test
+    public void chunkedStreamMatchesOneShot() {
+        double[] signal = random(3000, 2);
+        for (int[] ratio : new int[][]{{3, 2}, {2, 5}, {160, 147}}) {
+            double[] expected = new PolyphaseResampler(ratio[0], ratio[1]).process(signal);
+
+            PolyphaseResampler resampler = new PolyphaseResampler(ratio[0], ratio[1]);
+            double[] out = new double[expected.length];
+            int written = 0;
+            for (int offset = 0, chunk = 1; offset < signal.length; chunk = chunk * 3 % 61 + 1) {
+                int count = Math.min(chunk, signal.length - offset);
+                written += resampler.process(signal, offset, out, written, count);
+                offset += count;
+            }
+            assertEquals(expected.length, written);
+            assertArrayEquals(expected, out, 1e-15);
+        }
+    }
+
+    @Test
+    public void toneIsDelayedByTheFilter() {
+        for (int[] ratio : new int[][]{{3, 2}, {2, 3}, {160, 147}}) {
+            int up = ratio[0], down = ratio[1];
+            PolyphaseResampler resampler = new PolyphaseResampler(up, down);
+            // a tone at a twentieth of the input rate, well inside the passband of both rates
+            double[] in = new double[4000];
+            for (int j = 0; j < in.length; j++) {
+                in[j] = Math.sin(2 * Math.PI * j / 20);
+            }
+            double[] out = resampler.process(in);
+            double delay = resampler.getDelay();
+            for (int i = (int) (2 * delay) + 1; i < out.length; i++) {
+                double time = (i - delay) * down / up;
+                assertEquals(Math.sin(2 * Math.PI * time / 20), out[i], 1e-3);
+            }
+        }
+    }
+
+    @Test
+    public void downsamplingRemovesAliases() {
+        PolyphaseResampler resampler = new PolyphaseResampler(1, 4);
+        // a tone at 0.4 of the input rate lies far above the new Nyquist frequency of 0.125
+        double[] in = new double[8000];
+        for (int j = 0; j < in.length; j++) {
+            in[j] = Math.cos(2 * Math.PI * 0.4 * j);
+        }
+        double[] out = resampler.process(in);
+        for (int i = 100; i < out.length; i++) {
+            assertEquals(0, out[i], 1e-3);
+        }
+    }
+
+    @Test
+    public void resetStartsANewStream() {
+        double[] signal = random(500, 4);
+        PolyphaseResampler resampler = new PolyphaseResampler(5, 3);
+        double[] expected = resampler.process(signal);
+        resampler.process(random(77, 5));
+        resampler.reset();
+        assertArrayEquals(expected, resampler.process(signal), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveFactor() {
+        new PolyphaseResampler(0, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveZeroCrossings() {
+        new PolyphaseResampler(2, 3, 0);
+    }
+
+    @Test
+    public void filterBanksAreCached() {
+        FftPlanCache cache = new FftPlanCache(FftPlanCache.DEFAULT_MAX_MEMORY);
+        double[][] bank = cache.getFilterBank(160, 147, 16);
+        // 160 phases of the 2 * 16 * 160 + 1 taps on the upsampled grid
+        assertEquals(160, bank.length);
+        assertEquals(33, bank[0].length);
+        assertEquals(8L * 160 * 33, cache.getMemory());
+        assertSame(bank, cache.getFilterBank(160, 147, 16));
+        assertNotSame(bank, cache.getFilterBank(147, 160, 16));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManyTaps() {
+        // 2 * 2 * (2^30 - 1) + 1 taps do not fit into an int, even though the reduced ratio and zero crossings do
+        new PolyphaseResampler(Integer.MAX_VALUE / 2, 1, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOutputTooShort() {
+        new PolyphaseResampler(2, 1).process(new double[10], 0, new double[19], 0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptySignal() {
+        Fourier.resample(new double[0], 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveLength() {
+        Fourier.resample(new double[4], 0);
+    }
+
+    /**
+     * A constant plus phase shifted cosines at every frequency up to the highest, periodic with a period of one
+     */
+    private static double tone(int highest, double time) {
+        double value = 0.5;
+        for (int f = 1; f <= highest; f++) {
+            value += Math.cos(2 * Math.PI * f * time + f) / f;
+        }
+        return value;
+    }
+}
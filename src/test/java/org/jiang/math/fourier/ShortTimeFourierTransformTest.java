@@ -0,0 +1,147 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class ShortTimeFourierTransformTest {
+
+    @Test
+    public void framesMatchTransformOfWindowedSlices() {
+        // overlapping hops, a hop of a whole frame, hops leaving gaps and frames of one, two and a prime number of samples
+        int[][] shapes = {{16, 4}, {16, 16}, {8, 11}, {1, 1}, {2, 1}, {13, 5}};
+        for (Window window : Window.values()) {
+            for (int[] shape : shapes) {
+                int frameLength = shape[0], hopSize = shape[1];
+                double[] signal = random(100, frameLength + hopSize);
+                Complex[][] frames = Fourier.shortTimeFourierTransform(signal, frameLength, hopSize, window);
+                assertEquals((100 - frameLength) / hopSize + 1, frames.length);
+
+                double[] coefficients = window.getCoefficients(frameLength);
+                for (int f = 0; f < frames.length; f++) {
+                    double[] slice = new double[frameLength];
+                    for (int j = 0; j < frameLength; j++) {
+                        slice[j] = signal[f * hopSize + j] * coefficients[j];
+                    }
+                    ComplexBuffer full = dft(slice);
+                    ComplexBuffer spectrum = new ComplexBuffer(frames[f]);
+                    assertEquals(frameLength / 2 + 1, spectrum.getLength());
+                    assertClose(full.getRealCoefficients(), spectrum.getRealCoefficients(), spectrum.getLength(), 1e-11);
+                    assertClose(full.getImagCoefficients(), spectrum.getImagCoefficients(), spectrum.getLength(), 1e-11);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void chunkedPushesMatchWholeSignal() {
+        double[] signal = random(1000, 4);
+        Complex[][] expected = Fourier.shortTimeFourierTransform(signal, 64, 24, Window.HANN);
+
+        List<Complex[]> frames = new ArrayList<>();
+        List<Long> indices = new ArrayList<>();
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(64, 24, Window.HANN, (frame, spectrum) -> {
+            indices.add(frame);
+            frames.add(spectrum.toComplexArray());
+        });
+        int offset = 0;
+        for (int chunk = 1; offset < signal.length; chunk = chunk * 3 % 97 + 1) {
+            int count = Math.min(chunk, signal.length - offset);
+            if (count == 1) stft.push(signal[offset]);
+            else stft.push(signal, offset, count);
+            offset += count;
+        }
+
+        assertEquals(expected.length, frames.size());
+        assertEquals(expected.length, stft.getFrameCount());
+        for (int f = 0; f < expected.length; f++) {
+            assertEquals(f, (long) indices.get(f));
+            assertClose(new ComplexBuffer(expected[f]), new ComplexBuffer(frames.get(f)), 1e-12);
+        }
+    }
+
+    @Test
+    public void frameIsEmittedWithItsLastSample() {
+        int[] emitted = new int[1];
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(8, 3, Window.RECTANGULAR,
+                (frame, spectrum) -> emitted[0]++);
+        stft.push(new double[7]);
+        assertEquals(0, emitted[0]);
+        stft.push(1);
+        assertEquals(1, emitted[0]);
+        stft.push(new double[2]);
+        assertEquals(1, emitted[0]);
+        stft.push(1);
+        assertEquals(2, emitted[0]);
+    }
+
+    @Test
+    public void resetStartsANewStream() {
+        double[] signal = random(40, 8);
+        List<Complex[]> frames = new ArrayList<>();
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(10, 5, Window.HAMMING,
+                (frame, spectrum) -> frames.add(spectrum.toComplexArray()));
+        stft.push(random(17, 9));
+        stft.reset();
+        assertEquals(0, stft.getFrameCount());
+        frames.clear();
+        stft.push(signal);
+
+        Complex[][] expected = Fourier.shortTimeFourierTransform(signal, 10, 5, Window.HAMMING);
+        assertEquals(expected.length, frames.size());
+        for (int f = 0; f < expected.length; f++) {
+            assertClose(new ComplexBuffer(expected[f]), new ComplexBuffer(frames.get(f)), 1e-12);
+        }
+    }
+
+    @Test
+    public void windowsArePeriodic() {
+        double[] hann = Window.HANN.getCoefficients(8);
+        assertEquals(0, hann[0], 1e-15);
+        assertEquals(1, hann[4], 1e-15);
+        for (int j = 1; j < 8; j++) {
+            assertEquals(hann[j], hann[8 - j], 1e-15);
+        }
+        // shifted by half a frame, periodic hann windows add up to one
+        for (int j = 0; j < 4; j++) {
+            assertEquals(1, hann[j] + hann[j + 4], 1e-15);
+        }
+        assertArrayEquals(new double[]{1, 1, 1}, Window.RECTANGULAR.getCoefficients(3), 0);
+    }
+
+    @Test
+    public void shortSignalHasNoFrames() {
+        assertEquals(0, Fourier.shortTimeFourierTransform(new double[5], 6, 1, Window.HANN).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveHop() {
+        new ShortTimeFourierTransform(8, 0, Window.HANN, (frame, spectrum) -> { });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullWindow() {
+        new ShortTimeFourierTransform(8, 4, null, (frame, spectrum) -> { });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullListener() {
+        new ShortTimeFourierTransform(8, 4, Window.HANN, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRangeOutsideArray() {
+        new ShortTimeFourierTransform(8, 4, Window.HANN, (frame, spectrum) -> { }).push(new double[10], 4, 7);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyWindow() {
+        Window.BLACKMAN.getCoefficients(0);
+    }
+}
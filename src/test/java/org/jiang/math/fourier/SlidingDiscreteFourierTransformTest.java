@@ -0,0 +1,100 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.Complex;
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class SlidingDiscreteFourierTransformTest {
+
+    @Test
+    public void binsTrackTransformOfLastSamples() {
+        // window lengths of one, two, a prime and a power of two, with and without frequent recomputation
+        int[][] shapes = {{1, 1}, {2, 2}, {13, 13}, {16, 5}, {16, 1000}};
+        for (int[] shape : shapes) {
+            int length = shape[0];
+            int[] bins = length == 1 ? new int[]{0} : new int[]{0, 1, length / 2, length - 1};
+            SlidingDiscreteFourierTransform sdft = new SlidingDiscreteFourierTransform(length, bins, shape[1]);
+            double[] signal = random(300, length);
+            ComplexBuffer spectrum = new ComplexBuffer(bins.length);
+            for (int i = 0; i < signal.length; i++) {
+                sdft.push(signal[i]);
+                ComplexBuffer expected = window(signal, i + 1, length, bins);
+                sdft.getSpectrum(spectrum);
+                assertClose(expected, spectrum, 1e-10);
+                Complex first = sdft.get(0);
+                assertEquals(expected.getRealCoefficients()[0], first.getRealCoefficient(), 1e-10);
+                assertEquals(expected.getImagCoefficients()[0], first.getImagCoefficient(), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    public void recomputationBoundsTheError() {
+        int length = 64;
+        int[] bins = {3, 17};
+        SlidingDiscreteFourierTransform sdft = new SlidingDiscreteFourierTransform(length, bins, 256);
+        double[] signal = random(200_000, 12);
+        sdft.push(signal);
+        ComplexBuffer spectrum = new ComplexBuffer(bins.length);
+        sdft.getSpectrum(spectrum);
+        assertClose(window(signal, signal.length, length, bins), spectrum, 1e-11);
+    }
+
+    @Test
+    public void resetClearsTheWindow() {
+        int[] bins = {1, 2};
+        SlidingDiscreteFourierTransform sdft = new SlidingDiscreteFourierTransform(8, bins);
+        sdft.push(random(21, 1));
+        sdft.reset();
+        double[] signal = random(5, 2);
+        sdft.push(signal);
+        ComplexBuffer spectrum = new ComplexBuffer(2);
+        sdft.getSpectrum(spectrum);
+        assertClose(window(signal, 5, 8, bins), spectrum, 1e-12);
+    }
+
+    @Test
+    public void binsAreCopied() {
+        int[] bins = {1, 2};
+        SlidingDiscreteFourierTransform sdft = new SlidingDiscreteFourierTransform(8, bins);
+        bins[0] = 5;
+        assertArrayEquals(new int[]{1, 2}, sdft.getBins());
+        assertEquals(8, sdft.getLength());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBinOutsideWindow() {
+        new SlidingDiscreteFourierTransform(8, new int[]{8});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveInterval() {
+        new SlidingDiscreteFourierTransform(8, new int[]{1}, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBufferOfWrongLength() {
+        new SlidingDiscreteFourierTransform(8, new int[]{1, 2}).getSpectrum(new ComplexBuffer(3));
+    }
+
+    /**
+     * The bins of the DFT of the length samples ending before end, where the samples before the start of the signal are
+     * zero.
+     */
+    private static ComplexBuffer window(double[] signal, int end, int length, int[] bins) {
+        double[] window = new double[length];
+        for (int j = 0; j < length; j++) {
+            int i = end - length + j;
+            window[j] = i < 0 ? 0 : signal[i];
+        }
+        ComplexBuffer full = dft(window);
+        ComplexBuffer selected = new ComplexBuffer(bins.length);
+        for (int b = 0; b < bins.length; b++) {
+            selected.set(b, full.getRealCoefficients()[bins[b]], full.getImagCoefficients()[bins[b]]);
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,113 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class SpectrumTypeTest {
+
+    private static final int[] LENGTHS = {1, 2, 3, 7, 8, 100, 101, 1024};
+
+    @Test
+    public void fusedSpectraMatchBins() {
+        for (int n : LENGTHS) {
+            double[] in = random(n, n);
+            ComplexBuffer bins = dft(in);
+            RealFftPlan plan = new RealFftPlan(n);
+            int half = plan.getSpectrumLength();
+            for (SpectrumType type : SpectrumType.values()) {
+                double[] out = new double[half];
+                Fourier.spectrum(in, out, plan, type);
+                for (int k = 0; k < half; k++) {
+                    double re = bins.getRealCoefficients()[k];
+                    double im = bins.getImagCoefficients()[k];
+                    double power = re * re + im * im;
+                    switch (type) {
+                        case MAGNITUDE:
+                            assertEquals(Math.sqrt(power), out[k], 1e-11 * (1 + Math.sqrt(power)));
+                            break;
+                        case POWER:
+                            assertEquals(power, out[k], 1e-11 * (1 + power));
+                            break;
+                        case DECIBEL:
+                            assertEquals(10 * Math.log10(power), out[k], 1e-9);
+                            break;
+                        default:
+                            // compare the angles on the circle, since a real bin may land on either side of pi
+                            double difference = Math.IEEEremainder(Math.atan2(im, re) - out[k], 2 * Math.PI);
+                            assertEquals(0, difference * Math.sqrt(power), 1e-10);
+                            assertTrue(out[k] >= -Math.PI && out[k] <= Math.PI);
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void applyMatchesFusedSpectrum() {
+        double[] in = random(60, 2);
+        RealFftPlan plan = new RealFftPlan(60);
+        ComplexBuffer bins = new ComplexBuffer(plan.getSpectrumLength());
+        Fourier.realFastFourierTransform(in, bins, plan);
+        for (SpectrumType type : SpectrumType.values()) {
+            double[] applied = new double[bins.getLength()];
+            type.apply(bins, applied);
+            assertClose(Fourier.spectrum(in, type), applied, 1e-12);
+        }
+    }
+
+    @Test
+    public void toneHasKnownSpectrum() {
+        int n = 64;
+        double[] in = new double[n];
+        for (int j = 0; j < n; j++) {
+            in[j] = 3 * Math.cos(2 * Math.PI * 5 * j / n + 0.25);
+        }
+        double[] magnitude = Fourier.spectrum(in, SpectrumType.MAGNITUDE);
+        double[] phase = Fourier.spectrum(in, SpectrumType.PHASE);
+        double[] decibel = Fourier.spectrum(in, SpectrumType.DECIBEL);
+        assertEquals(3 * n / 2.0, magnitude[5], 1e-10);
+        assertEquals(0.25, phase[5], 1e-12);
+        assertEquals(20 * Math.log10(3 * n / 2.0), decibel[5], 1e-10);
+        assertEquals(0, magnitude[6], 1e-10);
+    }
+
+    @Test
+    public void negativeRealBinsArePositivePi() {
+        ComplexBuffer bins = new ComplexBuffer(new double[]{-2, -3, 4}, new double[]{-0.0, 0.0, -0.0});
+        double[] phase = new double[3];
+        SpectrumType.PHASE.apply(bins, phase);
+        assertEquals(Math.PI, phase[0], 0);
+        assertEquals(Math.PI, phase[1], 0);
+        assertEquals(0, phase[2], 0);
+
+        // the spectrum of an alternating signal has a single negative real bin at the Nyquist frequency
+        assertEquals(Math.PI, Fourier.spectrum(new double[]{-1, 1, -1, 1}, SpectrumType.PHASE)[2], 0);
+    }
+
+    @Test
+    public void silenceIsNegativeInfinityDecibels() {
+        double[] decibel = Fourier.spectrum(new double[16], SpectrumType.DECIBEL);
+        for (double value : decibel) {
+            assertEquals(Double.NEGATIVE_INFINITY, value, 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOutputOfWrongLength() {
+        Fourier.spectrum(new double[8], new double[8], new RealFftPlan(8), SpectrumType.POWER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void applyRejectsOutputOfWrongLength() {
+        SpectrumType.MAGNITUDE.apply(new ComplexBuffer(5), new double[4]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyInput() {
+        Fourier.spectrum(new double[0], SpectrumType.MAGNITUDE);
+    }
+}
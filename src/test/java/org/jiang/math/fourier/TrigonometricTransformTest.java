@@ -0,0 +1,112 @@
+package org.jiang.math.fourier;
+
+import org.junit.Test;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class TrigonometricTransformTest {
+
+    private static final int[] LENGTHS = {1, 2, 3, 4, 5, 7, 8, 16, 30, 97, 100, 128};
+
+    @Test
+    public void cosineTransformMatchesDefinition() {
+        for (int n : LENGTHS) {
+            double[] in = random(n, n);
+            assertClose(Fourier.discreteCosineTransform(in), Fourier.fastCosineTransform(in), 1e-11);
+        }
+    }
+
+    @Test
+    public void sineTransformMatchesDefinition() {
+        for (int n : LENGTHS) {
+            double[] in = random(n, 2 * n);
+            double[] expected = new double[n];
+            for (int k = 0; k < n; k++) {
+                for (int j = 0; j < n; j++) {
+                    expected[k] += in[j] * Math.sin(Math.PI * (j + 0.5) * (k + 1) / n);
+                }
+            }
+            assertClose(expected, Fourier.fastSineTransform(in), 1e-11);
+        }
+    }
+
+    @Test
+    public void sineTransformIMatchesDefinition() {
+        for (int n : LENGTHS) {
+            double[] in = random(n, 3 * n);
+            double[] expected = new double[n];
+            for (int k = 0; k < n; k++) {
+                for (int j = 0; j < n; j++) {
+                    expected[k] += in[j] * Math.sin(Math.PI * (j + 1) * (k + 1) / (n + 1));
+                }
+            }
+            assertClose(expected, Fourier.fastSineTransformI(in), 1e-11);
+        }
+    }
+
+    @Test
+    public void inversesRoundTrip() {
+        for (int n : LENGTHS) {
+            double[] in = random(n, 4 * n);
+            assertClose(in, Fourier.inverseFastCosineTransform(Fourier.fastCosineTransform(in)), 1e-12);
+            assertClose(in, Fourier.inverseFastSineTransform(Fourier.fastSineTransform(in)), 1e-12);
+            assertClose(in, Fourier.inverseFastSineTransformI(Fourier.fastSineTransformI(in)), 1e-12);
+            assertClose(in, Fourier.inverseDiscreteCosineTransform(Fourier.discreteCosineTransform(in)), 1e-12);
+        }
+    }
+
+    @Test
+    public void orthonormalTransformsKeepEnergy() {
+        int n = 60;
+        double[] in = random(n, 5);
+        double[] cosine = new double[n];
+        double[] sine = new double[n];
+        double[] sineI = new double[n];
+        Fourier.fastCosineTransform(in, cosine, new DctPlan(n), Normalization.ORTHONORMAL);
+        Fourier.fastSineTransform(in, sine, new DctPlan(n), Normalization.ORTHONORMAL);
+        Fourier.fastSineTransformI(in, sineI, new DstPlan(n), Normalization.ORTHONORMAL);
+        assertEquals(energy(in), energy(cosine), 1e-10);
+        assertEquals(energy(in), energy(sine), 1e-10);
+        assertEquals(energy(in), energy(sineI), 1e-10);
+
+        double[] back = new double[n];
+        Fourier.inverseFastCosineTransform(cosine, back, new DctPlan(n), Normalization.ORTHONORMAL);
+        assertClose(in, back, 1e-12);
+    }
+
+    @Test
+    public void transformsInPlace() {
+        double[] in = random(24, 6);
+        double[] data = in.clone();
+        DctPlan plan = new DctPlan(24);
+        Fourier.fastCosineTransform(data, data, plan, Normalization.NONE);
+        assertClose(Fourier.discreteCosineTransform(in), data, 1e-12);
+        Fourier.inverseFastCosineTransform(data, data, plan, Normalization.NONE);
+        assertClose(in, data, 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyInput() {
+        Fourier.fastCosineTransform(new double[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedPlan() {
+        Fourier.fastSineTransformI(new double[8], new double[8], new DstPlan(9), Normalization.NONE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void naiveTransformRejectsSameArray() {
+        double[] data = new double[4];
+        Fourier.discreteCosineTransform(data, data);
+    }
+
+    private static double energy(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value * value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,188 @@
+package org.jiang.math.fourier;
+
+import org.jiang.math.complex.ComplexBuffer;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.jiang.math.fourier.Reference.*;
+import static org.junit.Assert.*;
+
+public class WelchEstimatorTest {
+
+    @Test
+    public void estimateMatchesAveragedPeriodograms() {
+        // segments of one, two, odd and even lengths, with and without overlap
+        int[][] shapes = {{1, 0}, {2, 1}, {7, 3}, {16, 8}, {25, 0}, {64, 48}};
+        for (Window window : Window.values()) {
+            for (Detrend detrend : Detrend.values()) {
+                for (int[] shape : shapes) {
+                    WelchEstimator estimator = new WelchEstimator(shape[0], shape[1], window, detrend);
+                    double[] data = random(300, shape[0] + shape[1]);
+                    assertClose(naive(data, 1000, estimator), estimator.estimate(data, 1000), 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bartlettSatisfiesParseval() {
+        // with a single rectangular segment, the estimate integrated over frequency is the mean power of the signal
+        for (int n : new int[]{1, 2, 9, 64, 101}) {
+            double[] data = random(n, n);
+            double rate = 48000;
+            double[] psd = WelchEstimator.bartlett(n).estimate(data, rate);
+            double integral = 0;
+            for (double value : psd) {
+                integral += value * rate / n;
+            }
+            double power = 0;
+            for (double value : data) {
+                power += value * value / n;
+            }
+            assertEquals(power, integral, 1e-12 * power);
+        }
+    }
+
+    @Test
+    public void toneAppearsInItsBin() {
+        int n = 128;
+        double rate = 1024;
+        double[] data = new double[16 * n];
+        for (int j = 0; j < data.length; j++) {
+            data[j] = 2 * Math.sin(2 * Math.PI * 64 * j / rate) + 5;
+        }
+        double[] psd = new WelchEstimator(n, n / 2, Window.HANN, Detrend.CONSTANT).estimate(data, rate);
+        int peak = 0;
+        for (int k = 1; k < psd.length; k++) {
+            if (psd[k] > psd[peak]) peak = k;
+        }
+        // bin k is at k * rate / n = 8k, and the constant offset is removed before it leaks into the first bins
+        assertEquals(8, peak);
+        assertTrue(psd[0] < 1e-20);
+    }
+
+    @Test
+    public void linearDetrendRemovesDrift() {
+        double[] data = new double[200];
+        for (int j = 0; j < data.length; j++) {
+            data[j] = 3 - 0.25 * j;
+        }
+        for (double value : new WelchEstimator(50, 25, Window.HANN, Detrend.LINEAR).estimate(data, 1)) {
+            assertEquals(0, value, 1e-20);
+        }
+    }
+
+    @Test
+    public void parallelEstimateMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            WelchEstimator estimator = new WelchEstimator(256, 192, Window.BLACKMAN, Detrend.LINEAR);
+            double[] data = random(50_000, 3);
+            double[] sequential = new double[estimator.getSpectrumLength()];
+            double[] threaded = new double[estimator.getSpectrumLength()];
+            estimator.estimate(data, 8000, sequential, Parallelism.sequential());
+            estimator.estimate(data, 8000, threaded, new Parallelism(pool, 1));
+            assertClose(sequential, threaded, 1e-13);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void segmentsFitIntoSignal() {
+        WelchEstimator estimator = new WelchEstimator(10, 4, Window.HANN, Detrend.NONE);
+        assertEquals(0, estimator.getSegments(9));
+        assertEquals(1, estimator.getSegments(10));
+        assertEquals(1, estimator.getSegments(15));
+        assertEquals(2, estimator.getSegments(16));
+        assertEquals(6, estimator.getSpectrumLength());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOverlapOfWholeSegment() {
+        new WelchEstimator(8, 8, Window.HANN, Detrend.NONE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveSegmentLength() {
+        WelchEstimator.bartlett(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullWindow() {
+        new WelchEstimator(8, 4, null, Detrend.NONE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullDetrend() {
+        new WelchEstimator(8, 4, Window.HANN, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSignalShorterThanSegment() {
+        WelchEstimator.bartlett(16).estimate(new double[15], 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveSampleRate() {
+        WelchEstimator.bartlett(16).estimate(new double[16], 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOutputOfWrongLength() {
+        WelchEstimator.bartlett(16).estimate(new double[16], 1, new double[8], Parallelism.sequential());
+    }
+
+    /**
+     * The one-sided average of the periodograms of every detrended and windowed segment, by the definition.
+     */
+    private static double[] naive(double[] data, double rate, WelchEstimator estimator) {
+        int n = estimator.getSegmentLength();
+        int hop = n - estimator.getOverlap();
+        int segments = estimator.getSegments(data.length);
+        double[] window = estimator.getWindow().getCoefficients(n);
+        double windowPower = 0;
+        for (double w : window) {
+            windowPower += w * w;
+        }
+
+        double[] out = new double[n / 2 + 1];
+        for (int s = 0; s < segments; s++) {
+            double[] segment = new double[n];
+            System.arraycopy(data, s * hop, segment, 0, n);
+            detrend(segment, estimator.getDetrend());
+            for (int j = 0; j < n; j++) {
+                segment[j] *= window[j];
+            }
+            ComplexBuffer bins = dft(segment);
+            for (int k = 0; k < out.length; k++) {
+                double re = bins.getRealCoefficients()[k];
+                double im = bins.getImagCoefficients()[k];
+                out[k] += (k == 0 || 2 * k == n ? 1 : 2) * (re * re + im * im) / (rate * windowPower * segments);
+            }
+        }
+        return out;
+    }
+
+    private static void detrend(double[] segment, Detrend detrend) {
+        int n = segment.length;
+        if (detrend == Detrend.NONE) return;
+        double meanX = (n - 1) / 2.0, meanY = 0;
+        for (double value : segment) {
+            meanY += value / n;
+        }
+        double slope = 0;
+        if (detrend == Detrend.LINEAR && n > 1) {
+            double covariance = 0, variance = 0;
+            for (int j = 0; j < n; j++) {
+                covariance += (j - meanX) * (segment[j] - meanY);
+                variance += (j - meanX) * (j - meanX);
+            }
+            slope = covariance / variance;
+        }
+        for (int j = 0; j < n; j++) {
+            segment[j] -= meanY + slope * (j - meanX);
+        }
+    }
+}